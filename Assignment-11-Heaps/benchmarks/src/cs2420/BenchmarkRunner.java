@@ -0,0 +1,34 @@
+package cs2420;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC and allocation profiler attached and writes
+ * the results as JSON, so runs on different versions can be diffed.
+ *
+ * Usage: java -cp target/benchmarks.jar cs2420.BenchmarkRunner [regex]
+ * [results.json]
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+public class BenchmarkRunner {
+
+	public static void main(String args[]) throws RunnerException {
+		String include = args.length > 0 ? args[0] : "cs2420\\..*Benchmark.*";
+		String results = args.length > 1 ? args[1] : "jmh-results.json";
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(results)
+				.build();
+
+		new Runner(options).run();
+	}
+}
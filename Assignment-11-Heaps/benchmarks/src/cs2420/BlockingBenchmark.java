@@ -0,0 +1,180 @@
+package cs2420;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One producer hands ITEMS items through a bounded queue to many blocked
+ * consumers: BlockingHeap with take or takeUpTo, against a Heap guarded by
+ * synchronized with wait/notifyAll.
+ *
+ * The threads parameter picks platform or virtual consumer threads. Virtual
+ * threads need Java 21 or later and are looked up reflectively, since the
+ * build targets 17; on an older JVM the virtual runs fail in setup rather
+ * than quietly measuring platform threads under the virtual label.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class BlockingBenchmark {
+
+	private static final int ITEMS = 100_000;
+	private static final int CAPACITY = 1024;
+
+	/**
+	 * Sorts after every item, one per consumer to stop it.
+	 */
+	private static final Integer POISON = Integer.MAX_VALUE;
+
+	@Param({ "100", "10000" })
+	public int consumers;
+
+	@Param({ "1", "64" })
+	public int batch;
+
+	@Param({ "platform", "virtual" })
+	public String threads;
+
+	private ThreadFactory factory;
+
+	@Setup
+	public void createFactory() {
+		factory = threads.equals("virtual") ? virtualThreadFactory() : Thread::new;
+	}
+
+	@Benchmark
+	public void blockingHeap() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(CAPACITY, null);
+		List<Thread> started = new ArrayList<>(consumers);
+		for (int consumer = 0; consumer < consumers; consumer++) {
+			Thread thread = factory.newThread(() -> consume(queue));
+			thread.start();
+			started.add(thread);
+		}
+		for (int item = 0; item < ITEMS; item++) {
+			queue.put(item);
+		}
+		for (int consumer = 0; consumer < consumers; consumer++) {
+			queue.put(POISON);
+		}
+		for (Thread thread : started) {
+			thread.join();
+		}
+	}
+
+	@Benchmark
+	public void synchronizedHeap() throws InterruptedException {
+		SynchronizedHeap queue = new SynchronizedHeap();
+		List<Thread> started = new ArrayList<>(consumers);
+		for (int consumer = 0; consumer < consumers; consumer++) {
+			Thread thread = factory.newThread(() -> {
+				try {
+					while (!queue.take().equals(POISON)) {
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			thread.start();
+			started.add(thread);
+		}
+		for (int item = 0; item < ITEMS; item++) {
+			queue.put(item);
+		}
+		for (int consumer = 0; consumer < consumers; consumer++) {
+			queue.put(POISON);
+		}
+		for (Thread thread : started) {
+			thread.join();
+		}
+	}
+
+	/**
+	 * Takes until a poison arrives, returning extra poisons from a batch for
+	 * the other consumers.
+	 */
+	private void consume(BlockingHeap<Integer> queue) {
+		List<Integer> taken = new ArrayList<>(batch);
+		try {
+			while (true) {
+				taken.clear();
+				if (batch == 1) {
+					taken.add(queue.take());
+				} else {
+					queue.takeUpTo(batch, taken);
+				}
+				int poisons = 0;
+				for (Integer item : taken) {
+					if (item.equals(POISON)) {
+						poisons++;
+					}
+				}
+				if (poisons > 0) {
+					for (int extra = 1; extra < poisons; extra++) {
+						queue.put(POISON);
+					}
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The queue BlockingHeap replaces.
+	 */
+	private static final class SynchronizedHeap {
+		private final Heap<Integer> heap = new Heap<>();
+
+		synchronized void put(Integer x) throws InterruptedException {
+			while (heap.size() == CAPACITY) {
+				wait();
+			}
+			heap.add(x);
+			notifyAll();
+		}
+
+		synchronized Integer take() throws InterruptedException {
+			while (heap.size() == 0) {
+				wait();
+			}
+			notifyAll();
+			return heap.dequeue();
+		}
+	}
+
+	/**
+	 * @return Thread.ofVirtual().factory().
+	 * @throws UnsupportedOperationException
+	 *             if this JVM has no virtual threads.
+	 */
+	static ThreadFactory virtualThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			throw new UnsupportedOperationException(
+					"Virtual threads need Java 21 or later; running on " + System.getProperty("java.version"), e);
+		}
+	}
+}
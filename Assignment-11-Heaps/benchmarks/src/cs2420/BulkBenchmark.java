@@ -0,0 +1,171 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares Heap's bulk operations with looping over the single-element calls,
+ * for a range of batch sizes against a heap of fixed size, to locate the
+ * crossover points.
+ *
+ * Every benchmark changes the heaps it is given, so they are rebuilt before
+ * each invocation, HeapBenchmark.BATCH at a time, outside the timed method.
+ * Heaps are built with room for the whole batch so neither add path pays for
+ * a resize. Scores are the time to add or remove one batch on one heap.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BulkBenchmark {
+
+	private static final int BATCH = HeapBenchmark.BATCH;
+
+	/**
+	 * The existing heap contents and the batch, generated once per trial.
+	 */
+	@State(Scope.Thread)
+	public static class Data {
+
+		@Param({ "100000" })
+		public int size;
+
+		@Param({ "10", "1000", "10000", "50000", "100000", "1000000" })
+		public int batch;
+
+		@Param({ "RANDOM", "BACK_ORDER" })
+		public HeapBenchmark.DataOrder order;
+
+		Integer[] existing;
+		Integer[] items;
+		Integer[] existingAndItems;
+		Integer[] out;
+
+		@Setup(Level.Trial)
+		public void createData() {
+			Random generator = new Random(42);
+			existing = new Integer[size];
+			for (int index = 0; index < size; index++) {
+				existing[index] = generator.nextInt(size);
+			}
+			items = new Integer[batch];
+			for (int index = 0; index < batch; index++) {
+				items[index] = order == HeapBenchmark.DataOrder.RANDOM ? generator.nextInt(size) : -index;
+			}
+			existingAndItems = new Integer[size + batch];
+			System.arraycopy(existing, 0, existingAndItems, 0, size);
+			System.arraycopy(items, 0, existingAndItems, size, batch);
+			out = new Integer[batch];
+		}
+	}
+
+	/**
+	 * BATCH heaps holding the existing contents, with capacity for the batch,
+	 * to add the batch to.
+	 */
+	@State(Scope.Thread)
+	public static class ExistingHeaps {
+
+		@SuppressWarnings("unchecked")
+		final Heap<Integer>[] heaps = (Heap<Integer>[]) new Heap<?>[BATCH];
+
+		@Setup(Level.Invocation)
+		public void createHeaps(Data data) {
+			for (int index = 0; index < BATCH; index++) {
+				Integer[] array = new Integer[data.size + data.batch + 1];
+				System.arraycopy(data.existing, 0, array, 1, data.size);
+				heaps[index] = new Heap<>();
+				heaps[index].build_heap_from_owned_array(array, data.size, null);
+			}
+		}
+	}
+
+	/**
+	 * BATCH heaps holding the existing contents plus the batch, to remove a
+	 * batch from.
+	 */
+	@State(Scope.Thread)
+	public static class LoadedHeaps {
+
+		@SuppressWarnings("unchecked")
+		final Heap<Integer>[] heaps = (Heap<Integer>[]) new Heap<?>[BATCH];
+
+		@Setup(Level.Invocation)
+		public void createHeaps(Data data) {
+			for (int index = 0; index < BATCH; index++) {
+				heaps[index] = new Heap<>();
+				heaps[index].build_heap_from_array(data.existingAndItems);
+			}
+		}
+	}
+
+	/**
+	 * Add the batch with addAll.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public Heap<Integer> addAll(Data data, ExistingHeaps heaps) {
+		for (Heap<Integer> heap : heaps.heaps) {
+			heap.addAll(data.items);
+		}
+		return heaps.heaps[BATCH - 1];
+	}
+
+	/**
+	 * Add the batch one add call at a time.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public Heap<Integer> addLoop(Data data, ExistingHeaps heaps) {
+		for (Heap<Integer> heap : heaps.heaps) {
+			for (Integer item : data.items) {
+				heap.add(item);
+			}
+		}
+		return heaps.heaps[BATCH - 1];
+	}
+
+	/**
+	 * Remove batch elements with one dequeue(k, out) call.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int dequeueBatch(Data data, LoadedHeaps heaps) {
+		int removed = 0;
+		for (Heap<Integer> heap : heaps.heaps) {
+			removed += heap.dequeue(data.batch, data.out);
+		}
+		return removed;
+	}
+
+	/**
+	 * Remove batch elements one dequeue call at a time.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public Integer[] dequeueLoop(Data data, LoadedHeaps heaps) {
+		for (Heap<Integer> heap : heaps.heaps) {
+			for (int index = 0; index < data.batch; index++) {
+				data.out[index] = heap.dequeue();
+			}
+		}
+		return data.out;
+	}
+}
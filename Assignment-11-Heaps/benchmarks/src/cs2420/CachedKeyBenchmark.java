@@ -0,0 +1,117 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares CachedKeyHeap with Heap and an equivalent chained Comparator on
+ * order-book records: every record is added, then all are dequeued.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CachedKeyBenchmark {
+
+	/**
+	 * A resting order, best first: higher priority class, then lower price in
+	 * whole cents, then earlier arrival.
+	 */
+	static final class Order {
+		final String symbol;
+		final String account;
+		final int priorityClass;
+		final double price;
+		final int arrival;
+
+		Order(String symbol, String account, int priorityClass, double price, int arrival) {
+			this.symbol = symbol;
+			this.account = account;
+			this.priorityClass = priorityClass;
+			this.price = price;
+			this.arrival = arrival;
+		}
+
+		int getPriorityClass() {
+			return priorityClass;
+		}
+
+		double getPrice() {
+			return price;
+		}
+
+		int getArrival() {
+			return arrival;
+		}
+	}
+
+	private static final Comparator<Order> ORDER = Comparator.comparingInt(Order::getPriorityClass).reversed()
+			.thenComparingDouble(Order::getPrice).thenComparingInt(Order::getArrival);
+
+	/**
+	 * The same order as one long: negated class in the top bits, then cents,
+	 * then arrival (arrivals below 2^24, cents below 2^31).
+	 */
+	private static long key(Order order) {
+		long cents = Math.round(order.price * 100);
+		return ((long) -order.priorityClass << 55) | (cents << 24) | order.arrival;
+	}
+
+	@Param({ "10000", "1000000" })
+	public int size;
+
+	private Order[] orders;
+
+	@Setup
+	public void createOrders() {
+		Random generator = new Random(42);
+		orders = new Order[size];
+		for (int index = 0; index < size; index++) {
+			orders[index] = new Order("SYM" + generator.nextInt(100), "ACCT" + generator.nextInt(1000),
+					generator.nextInt(4), (10_000 + generator.nextInt(10_000)) / 100.0, index);
+		}
+	}
+
+	@Benchmark
+	public long heapWithComparator() {
+		Heap<Order> heap = new Heap<>(ORDER);
+		for (Order order : orders) {
+			heap.add(order);
+		}
+		long sum = 0;
+		while (heap.size() > 0) {
+			sum += heap.dequeue().arrival;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long cachedKeyHeap() {
+		CachedKeyHeap<Order> heap = new CachedKeyHeap<>(CachedKeyBenchmark::key);
+		for (Order order : orders) {
+			heap.add(order);
+		}
+		long sum = 0;
+		while (heap.size() > 0) {
+			sum += heap.dequeue().arrival;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,176 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the Heap operations that Timing measures by hand: add,
+ * dequeue, peek, build_heap_from_array and heap_sort, for RANDOM, IN_ORDER
+ * and BACK_ORDER data over a range of sizes.
+ *
+ * Bulk benchmarks report the time for all N operations; divide by size for
+ * the per-operation cost.
+ *
+ * Only dequeue and heap_sort use the heap up, so only they get fresh heaps
+ * before every invocation, BATCH at a time so the per-invocation setup is
+ * spread over enough work to be measured reliably. peek reads one heap built
+ * per trial, and add and build_heap_from_array start from the trial's data.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HeapBenchmark {
+
+	public enum DataOrder {
+		RANDOM, IN_ORDER, BACK_ORDER;
+	}
+
+	/**
+	 * Heaps consumed per invocation of dequeue and heap_sort.
+	 */
+	static final int BATCH = 16;
+
+	/**
+	 * Input data in the requested order, generated once per trial.
+	 */
+	@State(Scope.Thread)
+	public static class Data {
+
+		@Param({ "1000", "100000", "1000000" })
+		public int size;
+
+		@Param({ "RANDOM", "IN_ORDER", "BACK_ORDER" })
+		public DataOrder order;
+
+		Integer[] values;
+
+		@Setup(Level.Trial)
+		public void createData() {
+			Random generator = new Random(42);
+			values = new Integer[size];
+			for (int index = 0; index < size; index++) {
+				switch (order) {
+				case RANDOM:
+					values[index] = generator.nextInt(size);
+					break;
+				case IN_ORDER:
+					values[index] = index;
+					break;
+				case BACK_ORDER:
+					values[index] = size - index;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A full heap built once per trial, for benchmarks that only read it.
+	 */
+	@State(Scope.Thread)
+	public static class FullHeap {
+
+		Heap<Integer> heap;
+
+		@Setup(Level.Trial)
+		public void createHeap(Data data) {
+			heap = new Heap<>();
+			heap.build_heap_from_array(data.values);
+		}
+	}
+
+	/**
+	 * BATCH full heaps, rebuilt before every invocation of a benchmark that
+	 * consumes them.
+	 */
+	@State(Scope.Thread)
+	public static class ConsumableHeaps {
+
+		@SuppressWarnings("unchecked")
+		final Heap<Integer>[] heaps = (Heap<Integer>[]) new Heap<?>[BATCH];
+
+		@Setup(Level.Invocation)
+		public void createHeaps(Data data) {
+			for (int index = 0; index < BATCH; index++) {
+				heaps[index] = new Heap<>();
+				heaps[index].build_heap_from_array(data.values);
+			}
+		}
+	}
+
+	/**
+	 * Add N elements to an empty heap.
+	 */
+	@Benchmark
+	public Heap<Integer> add(Data data) {
+		Heap<Integer> fresh = new Heap<>();
+		for (Integer value : data.values) {
+			fresh.add(value);
+		}
+		return fresh;
+	}
+
+	/**
+	 * Dequeue all N elements.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int dequeue(ConsumableHeaps heaps) {
+		int sum = 0;
+		for (Heap<Integer> heap : heaps.heaps) {
+			while (heap.size() > 0) {
+				sum += heap.dequeue();
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Peek at the minimum of an N element heap.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Integer peek(FullHeap full) {
+		return full.heap.peek();
+	}
+
+	/**
+	 * Build a heap from N elements.
+	 */
+	@Benchmark
+	public Heap<Integer> build_heap_from_array(Data data) {
+		Heap<Integer> fresh = new Heap<>();
+		fresh.build_heap_from_array(data.values);
+		return fresh;
+	}
+
+	/**
+	 * Heap sort an N element heap.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public Heap<Integer> heap_sort(ConsumableHeaps heaps) {
+		for (Heap<Integer> heap : heaps.heaps) {
+			heap.heap_sort();
+		}
+		return heaps.heaps[BATCH - 1];
+	}
+}
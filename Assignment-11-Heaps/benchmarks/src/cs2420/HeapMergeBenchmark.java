@@ -0,0 +1,87 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Combining per-worker shard heaps into one: Heap.mergeAll, pairwise
+ * Heap.merge, and the dequeue/add loop they replace.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HeapMergeBenchmark {
+
+	@Param({ "8", "64" })
+	public int shards;
+
+	@Param({ "10000", "100000" })
+	public int shardSize;
+
+	private Heap<Integer>[] heaps;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void createShards() {
+		Random generator = new Random(42);
+		heaps = (Heap<Integer>[]) new Heap<?>[shards];
+		for (int shard = 0; shard < shards; shard++) {
+			Integer[] data = new Integer[shardSize];
+			for (int index = 0; index < shardSize; index++) {
+				data[index] = generator.nextInt();
+			}
+			heaps[shard] = new Heap<>();
+			heaps[shard].build_heap_from_array(data);
+		}
+	}
+
+	@Benchmark
+	public Heap<Integer> mergeAll() {
+		Heap<Integer> merged = new Heap<>();
+		merged.mergeAll(heaps);
+		return merged;
+	}
+
+	@Benchmark
+	public Heap<Integer> pairwiseMerge() {
+		Heap<Integer> merged = new Heap<>();
+		for (Heap<Integer> heap : heaps) {
+			merged.merge(heap);
+		}
+		return merged;
+	}
+
+	/**
+	 * The loop mergeAll replaces; it drains copies so the shards survive.
+	 */
+	@Benchmark
+	public Heap<Integer> dequeueAddLoop() {
+		Heap<Integer> merged = new Heap<>();
+		for (Heap<Integer> heap : heaps) {
+			Heap<Integer> copy = new Heap<>();
+			copy.merge(heap);
+			while (copy.size() > 0) {
+				merged.add(copy.dequeue());
+			}
+		}
+		return merged;
+	}
+}
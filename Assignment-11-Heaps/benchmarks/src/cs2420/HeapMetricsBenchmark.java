@@ -0,0 +1,67 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of Heap metrics: the same add/dequeue workload with no
+ * listener attached and with a HeapMetrics recorder attached.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HeapMetricsBenchmark {
+
+	@Param({ "100000" })
+	public int size;
+
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	private Integer[] data;
+
+	@Setup
+	public void createData() {
+		Random generator = new Random(42);
+		data = new Integer[size];
+		for (int index = 0; index < size; index++) {
+			data[index] = generator.nextInt(size);
+		}
+	}
+
+	/**
+	 * Add N random elements then dequeue them all.
+	 */
+	@Benchmark
+	public int addThenDequeue() {
+		Heap<Integer> heap = new Heap<>();
+		if (metrics) {
+			heap.setListener(new HeapMetrics());
+		}
+		for (Integer value : data) {
+			heap.add(value);
+		}
+		int sum = 0;
+		while (heap.size() > 0) {
+			sum += heap.dequeue();
+		}
+		return sum;
+	}
+}
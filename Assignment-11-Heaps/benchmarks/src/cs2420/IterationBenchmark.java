@@ -0,0 +1,89 @@
+package cs2420;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading the k smallest items of a Heap through sortedIterator
+ * with copying it through toArray and sorting, and scanning every item
+ * through stream with scanning a toArray copy.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IterationBenchmark {
+
+	@Param({ "1000000" })
+	public int size;
+
+	@Param({ "10", "1000", "100000" })
+	public int k;
+
+	private Heap<Integer> heap;
+
+	@Setup
+	public void createHeap() {
+		Random generator = new Random(42);
+		Integer[] items = new Integer[size];
+		for (int index = 0; index < size; index++) {
+			items[index] = generator.nextInt();
+		}
+		heap = new Heap<>();
+		heap.build_heap_from_array(items);
+	}
+
+	@Benchmark
+	public long firstKSortedIterator() {
+		long sum = 0;
+		Iterator<Integer> iterator = heap.sortedIterator();
+		for (int count = 0; count < k; count++) {
+			sum += iterator.next();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long firstKCopyAndSort() {
+		Object[] copy = heap.toArray();
+		Arrays.sort(copy, 1, copy.length);
+		long sum = 0;
+		for (int count = 1; count <= k; count++) {
+			sum += (Integer) copy[count];
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long scanStream() {
+		return heap.stream().mapToLong(Integer::longValue).sum();
+	}
+
+	@Benchmark
+	public long scanCopy() {
+		long sum = 0;
+		Object[] copy = heap.toArray();
+		for (int index = 1; index < copy.length; index++) {
+			sum += (Integer) copy[index];
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,120 @@
+package cs2420;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merges 1M elements split over fan-in sorted sources: KWayMerge (replace-top)
+ * over Integer iterators, the boxing-free long merge, and the hand-written
+ * dequeue-plus-add merge on Heap it replaces.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MergeBenchmark {
+
+	private static final int TOTAL = 1_000_000;
+
+	@Param({ "2", "10", "100", "1000", "10000" })
+	public int fanIn;
+
+	@Param({ "1", "64" })
+	public int prefetch;
+
+	private List<List<Integer>> lists;
+	private long[][] longs;
+
+	@Setup(Level.Trial)
+	public void createSources() {
+		Random generator = new Random(42);
+		lists = new ArrayList<>(fanIn);
+		longs = new long[fanIn][];
+		for (int source = 0; source < fanIn; source++) {
+			int[] values = generator.ints(TOTAL / fanIn).sorted().toArray();
+			lists.add(Arrays.stream(values).boxed().toList());
+			longs[source] = Arrays.stream(values).asLongStream().toArray();
+		}
+	}
+
+	@Benchmark
+	public long replaceTopMerge() {
+		List<Iterator<Integer>> iterators = new ArrayList<>(fanIn);
+		for (List<Integer> list : lists) {
+			iterators.add(list.iterator());
+		}
+		KWayMerge<Integer> merge = KWayMerge.of(iterators, null, false, prefetch);
+		long sum = 0;
+		while (merge.hasNext()) {
+			sum += merge.next();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long longMerge() {
+		List<PrimitiveIterator.OfLong> cursors = new ArrayList<>(fanIn);
+		for (long[] values : longs) {
+			cursors.add(Arrays.stream(values).iterator());
+		}
+		PrimitiveIterator.OfLong merge = KWayMerge.ofLongs(cursors, false);
+		long sum = 0;
+		while (merge.hasNext()) {
+			sum += merge.nextLong();
+		}
+		return sum;
+	}
+
+	/**
+	 * The merge KWayMerge replaces: dequeue the smallest source, then add it
+	 * back with its next head.
+	 */
+	@Benchmark
+	public long dequeueAddMerge() {
+		final class Cursor {
+			final Iterator<Integer> iterator;
+			Integer head;
+
+			Cursor(Iterator<Integer> iterator) {
+				this.iterator = iterator;
+				head = iterator.next();
+			}
+		}
+		Heap<Cursor> heap = new Heap<>((lhs, rhs) -> lhs.head.compareTo(rhs.head));
+		for (List<Integer> list : lists) {
+			heap.add(new Cursor(list.iterator()));
+		}
+		long sum = 0;
+		while (heap.size() > 0) {
+			Cursor cursor = heap.dequeue();
+			sum += cursor.head;
+			if (cursor.iterator.hasNext()) {
+				cursor.head = cursor.iterator.next();
+				heap.add(cursor);
+			}
+		}
+		return sum;
+	}
+}
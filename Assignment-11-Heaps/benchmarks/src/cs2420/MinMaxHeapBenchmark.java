@@ -0,0 +1,190 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares MinMaxHeap with the usual two-heap double-ended queue (a min Heap
+ * and a max Heap over shared entries, each lazily skipping entries the other
+ * removed) on a steady mix of adds and removals from both ends, and on a
+ * bounded queue that evicts its maximum.
+ *
+ * Every queue starts each invocation already holding size items, filled in
+ * setup, so the OPERATIONS timed steps all run against a queue of that size.
+ * The two-heap queue leaves dead entries behind, so neither kind of queue is
+ * reused across invocations.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(MinMaxHeapBenchmark.OPERATIONS)
+public class MinMaxHeapBenchmark {
+
+	static final int OPERATIONS = 1 << 16;
+
+	/**
+	 * An item of the two-heap queue, marked once either heap removes it.
+	 */
+	static final class Entry {
+		final int value;
+		boolean removed;
+
+		Entry(int value) {
+			this.value = value;
+		}
+	}
+
+	/**
+	 * size values to fill the queues with, then OPERATIONS values to add in
+	 * the timed loop, generated once per trial.
+	 */
+	@State(Scope.Thread)
+	public static class Values {
+
+		@Param({ "1000", "100000" })
+		public int size;
+
+		int[] values;
+
+		@Setup(Level.Trial)
+		public void createValues() {
+			Random generator = new Random(42);
+			values = new int[size + OPERATIONS];
+			for (int index = 0; index < values.length; index++) {
+				values[index] = generator.nextInt();
+			}
+		}
+	}
+
+	/**
+	 * An unbounded and a bounded MinMaxHeap, each holding the first size
+	 * values.
+	 */
+	@State(Scope.Thread)
+	public static class MinMaxHeaps {
+
+		MinMaxHeap<Integer> unbounded;
+		MinMaxHeap<Integer> bounded;
+
+		@Setup(Level.Invocation)
+		public void fill(Values values) {
+			Integer[] first = new Integer[values.size];
+			for (int index = 0; index < values.size; index++) {
+				first[index] = values.values[index];
+			}
+			unbounded = new MinMaxHeap<>();
+			unbounded.build_heap_from_array(first);
+			bounded = new MinMaxHeap<>(values.size, null);
+			bounded.build_heap_from_array(first);
+		}
+	}
+
+	/**
+	 * A min Heap and a max Heap sharing entries for the first size values.
+	 */
+	@State(Scope.Thread)
+	public static class TwoHeaps {
+
+		Heap<Entry> min;
+		Heap<Entry> max;
+
+		@Setup(Level.Invocation)
+		public void fill(Values values) {
+			Entry[] first = new Entry[values.size];
+			for (int index = 0; index < values.size; index++) {
+				first[index] = new Entry(values.values[index]);
+			}
+			min = new Heap<>((lhs, rhs) -> Integer.compare(lhs.value, rhs.value));
+			min.build_heap_from_array(first);
+			max = new Heap<>((lhs, rhs) -> Integer.compare(rhs.value, lhs.value));
+			max.build_heap_from_array(first);
+		}
+	}
+
+	@Benchmark
+	public long minMaxHeapMixed(Values values, MinMaxHeaps heaps) {
+		MinMaxHeap<Integer> heap = heaps.unbounded;
+		long sum = 0;
+		for (int index = 0; index < OPERATIONS; index++) {
+			heap.add(values.values[values.size + index]);
+			sum += (index & 1) == 0 ? heap.dequeueMin() : heap.dequeueMax();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long twoHeapsMixed(Values values, TwoHeaps heaps) {
+		long sum = 0;
+		for (int index = 0; index < OPERATIONS; index++) {
+			Entry entry = new Entry(values.values[values.size + index]);
+			heaps.min.add(entry);
+			heaps.max.add(entry);
+			sum += removeLive((index & 1) == 0 ? heaps.min : heaps.max);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long minMaxHeapBounded(Values values, MinMaxHeaps heaps) {
+		MinMaxHeap<Integer> heap = heaps.bounded;
+		long sum = 0;
+		for (int index = 0; index < OPERATIONS; index++) {
+			Integer evicted = heap.offer(values.values[values.size + index]);
+			if (evicted != null) {
+				sum += evicted;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long twoHeapsBounded(Values values, TwoHeaps heaps) {
+		Heap<Entry> min = heaps.min;
+		Heap<Entry> max = heaps.max;
+		long sum = 0;
+		for (int index = 0; index < OPERATIONS; index++) {
+			Entry entry = new Entry(values.values[values.size + index]);
+			min.add(entry);
+			max.add(entry);
+			// Already full, so every add evicts the maximum.
+			sum += removeLive(max);
+			// Entries evicted from max still sit in min; drop the ones that
+			// reached its top so it cannot grow without bound.
+			while (min.peek().removed) {
+				min.dequeue();
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Dequeues the first entry of heap not already removed through the other
+	 * heap, and marks it removed.
+	 */
+	private static int removeLive(Heap<Entry> heap) {
+		Entry entry = heap.dequeue();
+		while (entry.removed) {
+			entry = heap.dequeue();
+		}
+		entry.removed = true;
+		return entry.value;
+	}
+}
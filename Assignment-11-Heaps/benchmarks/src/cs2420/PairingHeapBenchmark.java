@@ -0,0 +1,200 @@
+package cs2420;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cs2420.PairingHeap.Handle;
+
+/**
+ * PairingHeap against Heap on the Timing workloads (N adds then N dequeues of
+ * RANDOM or BACK_ORDER data) and on Dijkstra over a large sparse graph, where
+ * Heap inserts duplicates and skips stale entries, IndexedHeap and
+ * PairingHeap use decreaseKey.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PairingHeapBenchmark {
+
+	@Param({ "100000", "1000000" })
+	public int size;
+
+	@Param({ "RANDOM", "BACK_ORDER" })
+	public HeapBenchmark.DataOrder order;
+
+	private Integer[] data;
+	private SparseGraph graph;
+	private final PairingHeap<Integer> pooled = new PairingHeap<>();
+	private final PairingHeap<Long> pooledQueue = new PairingHeap<>();
+	private Handle<Long>[] pooledHandles;
+
+	@Setup(Level.Trial)
+	public void createData() {
+		Random generator = new Random(42);
+		data = new Integer[size];
+		for (int index = 0; index < size; index++) {
+			data[index] = order == HeapBenchmark.DataOrder.RANDOM ? generator.nextInt(size) : size - index;
+		}
+		graph = new SparseGraph(size, 8, 1000, 42);
+		@SuppressWarnings("unchecked")
+		Handle<Long>[] handles = (Handle<Long>[]) new Handle<?>[graph.vertices];
+		pooledHandles = handles;
+	}
+
+	@Benchmark
+	public long heapAddDequeue() {
+		Heap<Integer> heap = new Heap<>();
+		for (Integer value : data) {
+			heap.add(value);
+		}
+		long sum = 0;
+		while (heap.size() > 0) {
+			sum += heap.dequeue();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long pairingAddDequeue() {
+		PairingHeap<Integer> heap = new PairingHeap<>();
+		for (Integer value : data) {
+			heap.add(value);
+		}
+		long sum = 0;
+		while (heap.size() > 0) {
+			sum += heap.dequeue();
+		}
+		return sum;
+	}
+
+	/**
+	 * Reuses one heap, so after the first invocation every node comes from
+	 * the pool.
+	 */
+	@Benchmark
+	public long pairingPooledAddDequeue() {
+		for (Integer value : data) {
+			pooled.add(value);
+		}
+		long sum = 0;
+		while (pooled.size() > 0) {
+			sum += pooled.dequeue();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long dijkstraHeap() {
+		long[] distance = new long[graph.vertices];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[0] = 0;
+		Heap<Long> queue = new Heap<>();
+		queue.add(SparseGraph.pack(0, 0));
+		while (queue.size() > 0) {
+			long entry = queue.dequeue();
+			int v = SparseGraph.vertex(entry);
+			if (SparseGraph.distance(entry) > distance[v]) {
+				continue;
+			}
+			for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+				int w = graph.targets[edge];
+				long candidate = distance[v] + graph.weights[edge];
+				if (candidate < distance[w]) {
+					distance[w] = candidate;
+					queue.add(SparseGraph.pack(candidate, w));
+				}
+			}
+		}
+		return distance[graph.vertices - 1];
+	}
+
+	@Benchmark
+	public long dijkstraIndexedHeap() {
+		long[] distance = new long[graph.vertices];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[0] = 0;
+		@SuppressWarnings("unchecked")
+		IndexedHeap.Handle<Long>[] handles = (IndexedHeap.Handle<Long>[]) new IndexedHeap.Handle<?>[graph.vertices];
+		IndexedHeap<Long> queue = new IndexedHeap<>();
+		handles[0] = queue.insert(SparseGraph.pack(0, 0));
+		while (queue.size() > 0) {
+			int v = SparseGraph.vertex(queue.dequeue());
+			for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+				int w = graph.targets[edge];
+				long candidate = distance[v] + graph.weights[edge];
+				if (candidate < distance[w]) {
+					distance[w] = candidate;
+					if (handles[w] == null) {
+						handles[w] = queue.insert(SparseGraph.pack(candidate, w));
+					} else {
+						queue.decreaseKey(handles[w], SparseGraph.pack(candidate, w));
+					}
+				}
+			}
+		}
+		return distance[graph.vertices - 1];
+	}
+
+	@Benchmark
+	public long dijkstraPairingHeap() {
+		@SuppressWarnings("unchecked")
+		Handle<Long>[] handles = (Handle<Long>[]) new Handle<?>[graph.vertices];
+		return dijkstraPairingHeap(new PairingHeap<>(), handles);
+	}
+
+	/**
+	 * Reuses one heap and one handle per vertex, rebinding each handle on
+	 * insert, so after the first invocation the queue does not allocate.
+	 */
+	@Benchmark
+	public long dijkstraPooledPairingHeap() {
+		return dijkstraPairingHeap(pooledQueue, pooledHandles);
+	}
+
+	private long dijkstraPairingHeap(PairingHeap<Long> queue, Handle<Long>[] handles) {
+		long[] distance = new long[graph.vertices];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[0] = 0;
+		boolean[] settled = new boolean[graph.vertices];
+		handles[0] = queue.insert(SparseGraph.pack(0, 0), handles[0]);
+		while (queue.size() > 0) {
+			int v = SparseGraph.vertex(queue.dequeue());
+			settled[v] = true;
+			for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+				int w = graph.targets[edge];
+				long candidate = distance[v] + graph.weights[edge];
+				if (candidate < distance[w]) {
+					distance[w] = candidate;
+					Handle<Long> handle = handles[w];
+					if (handle != null && queue.contains(handle)) {
+						queue.decreaseKey(handle, SparseGraph.pack(candidate, w));
+					} else if (!settled[w]) {
+						// Not queued yet in this run; any handle left from an
+						// earlier run is stale and gets rebound.
+						handles[w] = queue.insert(SparseGraph.pack(candidate, w), handle);
+					}
+				}
+			}
+		}
+		return distance[graph.vertices - 1];
+	}
+}
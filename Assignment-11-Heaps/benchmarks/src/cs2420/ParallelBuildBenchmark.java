@@ -0,0 +1,100 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling of parallel_build_heap_from_array with core count, against the
+ * sequential build_heap_from_array, and the build_heap_from_owned_array path
+ * that skips the copy.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParallelBuildBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	@Param({ "RANDOM", "IN_ORDER", "BACK_ORDER" })
+	public HeapBenchmark.DataOrder order;
+
+	@Param({ "1", "2", "4", "8", "16" })
+	public int cores;
+
+	private Integer[] data;
+	private Integer[] owned;
+	private ForkJoinPool pool;
+
+	@Setup(Level.Trial)
+	public void createData() {
+		Random generator = new Random(42);
+		data = new Integer[size];
+		for (int index = 0; index < size; index++) {
+			switch (order) {
+			case RANDOM:
+				data[index] = generator.nextInt(size);
+				break;
+			case IN_ORDER:
+				data[index] = index;
+				break;
+			case BACK_ORDER:
+				data[index] = size - index;
+				break;
+			}
+		}
+		owned = new Integer[size + 1];
+		pool = new ForkJoinPool(cores);
+	}
+
+	@Setup(Level.Invocation)
+	public void refillOwned() {
+		System.arraycopy(data, 0, owned, 1, size);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public Heap<Integer> sequentialBuild() {
+		Heap<Integer> heap = new Heap<>();
+		heap.build_heap_from_array(data);
+		return heap;
+	}
+
+	@Benchmark
+	public Heap<Integer> parallelBuild() {
+		Heap<Integer> heap = new Heap<>();
+		heap.parallel_build_heap_from_array(data, pool);
+		return heap;
+	}
+
+	@Benchmark
+	public Heap<Integer> parallelBuildOwned() {
+		Heap<Integer> heap = new Heap<>();
+		heap.build_heap_from_owned_array(owned, size, pool);
+		return heap;
+	}
+}
@@ -0,0 +1,121 @@
+package cs2420;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dijkstra over a generated sparse graph with RadixHeap against Heap<Long>
+ * and the primitive LongHeap, all inserting duplicates and skipping stale
+ * entries.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RadixHeapBenchmark {
+
+	@Param({ "1000000" })
+	public int vertices;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	private SparseGraph graph;
+
+	@Setup(Level.Trial)
+	public void createGraph() {
+		graph = new SparseGraph(vertices, degree, 1000, 42);
+	}
+
+	@Benchmark
+	public long dijkstraHeap() {
+		long[] distance = new long[graph.vertices];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[0] = 0;
+		Heap<Long> queue = new Heap<>();
+		queue.add(SparseGraph.pack(0, 0));
+		while (queue.size() > 0) {
+			long entry = queue.dequeue();
+			int v = SparseGraph.vertex(entry);
+			if (SparseGraph.distance(entry) > distance[v]) {
+				continue;
+			}
+			for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+				int w = graph.targets[edge];
+				long candidate = distance[v] + graph.weights[edge];
+				if (candidate < distance[w]) {
+					distance[w] = candidate;
+					queue.add(SparseGraph.pack(candidate, w));
+				}
+			}
+		}
+		return distance[graph.vertices - 1];
+	}
+
+	@Benchmark
+	public long dijkstraLongHeap() {
+		long[] distance = new long[graph.vertices];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[0] = 0;
+		LongHeap queue = new LongHeap();
+		queue.add(SparseGraph.pack(0, 0));
+		while (queue.size() > 0) {
+			long entry = queue.dequeue();
+			int v = SparseGraph.vertex(entry);
+			if (SparseGraph.distance(entry) > distance[v]) {
+				continue;
+			}
+			for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+				int w = graph.targets[edge];
+				long candidate = distance[v] + graph.weights[edge];
+				if (candidate < distance[w]) {
+					distance[w] = candidate;
+					queue.add(SparseGraph.pack(candidate, w));
+				}
+			}
+		}
+		return distance[graph.vertices - 1];
+	}
+
+	@Benchmark
+	public long dijkstraRadixHeap() {
+		long[] distance = new long[graph.vertices];
+		Arrays.fill(distance, Long.MAX_VALUE);
+		distance[0] = 0;
+		RadixHeap queue = new RadixHeap();
+		queue.add(0, 0);
+		while (queue.size() > 0) {
+			long d = queue.peekPriority();
+			int v = (int) queue.dequeue();
+			if (d > distance[v]) {
+				continue;
+			}
+			for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+				int w = graph.targets[edge];
+				long candidate = d + graph.weights[edge];
+				if (candidate < distance[w]) {
+					distance[w] = candidate;
+					queue.add(candidate, w);
+				}
+			}
+		}
+		return distance[graph.vertices - 1];
+	}
+}
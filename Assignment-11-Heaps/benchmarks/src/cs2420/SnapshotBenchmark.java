@@ -0,0 +1,106 @@
+package cs2420;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares Heap.snapshot and Heap.restore with writing the heap's items using
+ * Java serialization and re-adding them on load, for a Heap of Longs.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SnapshotBenchmark {
+
+	@Param({ "1000000", "4000000" })
+	public int size;
+
+	private Heap<Long> heap;
+	private Path snapshot;
+	private Path serialized;
+
+	@Setup
+	public void createFiles() throws IOException {
+		Random generator = new Random(42);
+		Long[] items = new Long[size];
+		for (int index = 0; index < size; index++) {
+			items[index] = generator.nextLong();
+		}
+		heap = new Heap<>();
+		heap.build_heap_from_array(items);
+
+		snapshot = Files.createTempFile("heap", ".snapshot");
+		serialized = Files.createTempFile("heap", ".ser");
+		heap.snapshot(snapshot, ElementCodec.LONG);
+		serialize();
+	}
+
+	@TearDown
+	public void deleteFiles() throws IOException {
+		Files.delete(snapshot);
+		Files.delete(serialized);
+	}
+
+	@Benchmark
+	public Path snapshotWrite() throws IOException {
+		heap.snapshot(snapshot, ElementCodec.LONG);
+		return snapshot;
+	}
+
+	@Benchmark
+	public Path serializeWrite() throws IOException {
+		serialize();
+		return serialized;
+	}
+
+	@Benchmark
+	public Heap<Long> snapshotRestore() throws IOException {
+		Heap<Long> restored = new Heap<>();
+		restored.restore(snapshot, ElementCodec.LONG);
+		return restored;
+	}
+
+	@Benchmark
+	public Heap<Long> deserializeAndAdd() throws IOException, ClassNotFoundException {
+		Heap<Long> restored = new Heap<>();
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(serialized)))) {
+			for (Object item : (Object[]) in.readObject()) {
+				if (item != null) {
+					restored.add((Long) item);
+				}
+			}
+		}
+		return restored;
+	}
+
+	private void serialize() throws IOException {
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(serialized)))) {
+			out.writeObject(heap.toArray());
+		}
+	}
+}
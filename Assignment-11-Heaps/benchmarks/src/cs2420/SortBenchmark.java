@@ -0,0 +1,99 @@
+package cs2420;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares HeapSort with Arrays.sort and Arrays.parallelSort on int[] and
+ * Integer[] inputs.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SortBenchmark {
+
+	@Param({ "100000", "1000000", "10000000" })
+	public int size;
+
+	private int[] source;
+	private int[] ints;
+	private Integer[] objects;
+
+	@Setup(Level.Trial)
+	public void createData() {
+		source = new Random(42).ints(size).toArray();
+	}
+
+	@Setup(Level.Invocation)
+	public void copyData() {
+		ints = source.clone();
+		objects = Arrays.stream(source).boxed().toArray(Integer[]::new);
+	}
+
+	@Benchmark
+	public int[] heapSortInts() {
+		HeapSort.sort(ints);
+		return ints;
+	}
+
+	@Benchmark
+	public int[] heapParallelSortInts() {
+		HeapSort.parallelSort(ints);
+		return ints;
+	}
+
+	@Benchmark
+	public int[] arraysSortInts() {
+		Arrays.sort(ints);
+		return ints;
+	}
+
+	@Benchmark
+	public int[] arraysParallelSortInts() {
+		Arrays.parallelSort(ints);
+		return ints;
+	}
+
+	@Benchmark
+	public Integer[] heapSortObjects() {
+		HeapSort.sort(objects);
+		return objects;
+	}
+
+	@Benchmark
+	public Integer[] heapParallelSortObjects() {
+		HeapSort.parallelSort(objects);
+		return objects;
+	}
+
+	@Benchmark
+	public Integer[] arraysSortObjects() {
+		Arrays.sort(objects);
+		return objects;
+	}
+
+	@Benchmark
+	public Integer[] arraysParallelSortObjects() {
+		Arrays.parallelSort(objects);
+		return objects;
+	}
+}
@@ -0,0 +1,68 @@
+package cs2420;
+
+import java.util.Random;
+
+/**
+ * A random directed graph in compressed sparse row form for the Dijkstra
+ * benchmarks. Every vertex v has an edge to v + 1 (so all are reachable from
+ * 0) plus degree - 1 edges to random vertices, with weights from 1 to
+ * maxWeight.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+final class SparseGraph {
+
+	/**
+	 * Packed queue entries keep the vertex in the low VERTEX_BITS bits and the
+	 * distance above them.
+	 */
+	static final int VERTEX_BITS = 24;
+	static final long VERTEX_MASK = (1L << VERTEX_BITS) - 1;
+
+	final int vertices;
+
+	/**
+	 * The edges of v are targets[offsets[v]] through targets[offsets[v + 1] -
+	 * 1], with matching weights.
+	 */
+	final int[] offsets;
+	final int[] targets;
+	final int[] weights;
+
+	SparseGraph(int vertices, int degree, int maxWeight, long seed) {
+		if (vertices > VERTEX_MASK) {
+			throw new IllegalArgumentException("Too many vertices: " + vertices);
+		}
+		Random generator = new Random(seed);
+		this.vertices = vertices;
+		offsets = new int[vertices + 1];
+		targets = new int[vertices * degree];
+		weights = new int[vertices * degree];
+		int edge = 0;
+		for (int v = 0; v < vertices; v++) {
+			offsets[v] = edge;
+			targets[edge] = (v + 1) % vertices;
+			weights[edge++] = 1 + generator.nextInt(maxWeight);
+			for (int extra = 1; extra < degree; extra++) {
+				targets[edge] = generator.nextInt(vertices);
+				weights[edge++] = 1 + generator.nextInt(maxWeight);
+			}
+		}
+		offsets[vertices] = edge;
+	}
+
+	/**
+	 * @return a queue entry ordering by distance, then vertex.
+	 */
+	static long pack(long distance, int vertex) {
+		return distance << VERTEX_BITS | vertex;
+	}
+
+	static int vertex(long entry) {
+		return (int) (entry & VERTEX_MASK);
+	}
+
+	static long distance(long entry) {
+		return entry >>> VERTEX_BITS;
+	}
+}
@@ -0,0 +1,168 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of first-in-first-out tie-breaking: an unstable Heap, a
+ * stable Heap, and an unstable Heap of wrappers carrying an insertion counter,
+ * on a steady stream of adds and dequeues with few distinct priorities (so
+ * most comparisons tie).
+ *
+ * Every heap starts each invocation already holding size jobs, filled in
+ * setup, so the OPERATIONS timed steps all run against a heap of that size.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@OperationsPerInvocation(StableHeapBenchmark.OPERATIONS)
+public class StableHeapBenchmark {
+
+	static final int OPERATIONS = 1 << 16;
+
+	/**
+	 * A scheduled job with one of a few SLA priorities.
+	 */
+	static final class Job {
+		final int priority;
+
+		Job(int priority) {
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * The usual workaround: a Job plus its insertion counter.
+	 */
+	static final class Sequenced {
+		final Job job;
+		final long sequence;
+
+		Sequenced(Job job, long sequence) {
+			this.job = job;
+			this.sequence = sequence;
+		}
+	}
+
+	private static final Comparator<Job> BY_PRIORITY = (lhs, rhs) -> Integer.compare(lhs.priority, rhs.priority);
+
+	private static final Comparator<Sequenced> BY_PRIORITY_THEN_SEQUENCE = (lhs, rhs) -> {
+		int order = Integer.compare(lhs.job.priority, rhs.job.priority);
+		return order != 0 ? order : Long.compare(lhs.sequence, rhs.sequence);
+	};
+
+	/**
+	 * size jobs to fill the heaps with, then OPERATIONS jobs to add in the
+	 * timed loop, generated once per trial.
+	 */
+	@State(Scope.Thread)
+	public static class Jobs {
+
+		@Param({ "1000", "100000" })
+		public int size;
+
+		@Param({ "4", "1000" })
+		public int priorities;
+
+		Job[] jobs;
+
+		@Setup(Level.Trial)
+		public void createJobs() {
+			Random generator = new Random(42);
+			jobs = new Job[size + OPERATIONS];
+			for (int index = 0; index < jobs.length; index++) {
+				jobs[index] = new Job(generator.nextInt(priorities));
+			}
+		}
+	}
+
+	/**
+	 * An unstable and a stable Heap, each holding the first size jobs.
+	 */
+	@State(Scope.Thread)
+	public static class JobHeaps {
+
+		Heap<Job> unstable;
+		Heap<Job> stable;
+
+		@Setup(Level.Invocation)
+		public void fill(Jobs jobs) {
+			unstable = new Heap<>(2, BY_PRIORITY, false);
+			stable = new Heap<>(2, BY_PRIORITY, true);
+			for (int index = 0; index < jobs.size; index++) {
+				unstable.add(jobs.jobs[index]);
+				stable.add(jobs.jobs[index]);
+			}
+		}
+	}
+
+	/**
+	 * A Heap of the first size jobs wrapped with their insertion counter, and
+	 * the next counter value.
+	 */
+	@State(Scope.Thread)
+	public static class WrappedHeap {
+
+		Heap<Sequenced> heap;
+		long sequence;
+
+		@Setup(Level.Invocation)
+		public void fill(Jobs jobs) {
+			heap = new Heap<>(BY_PRIORITY_THEN_SEQUENCE);
+			sequence = 0;
+			for (int index = 0; index < jobs.size; index++) {
+				heap.add(new Sequenced(jobs.jobs[index], sequence++));
+			}
+		}
+	}
+
+	@Benchmark
+	public long unstable(Jobs jobs, JobHeaps heaps) {
+		return run(jobs, heaps.unstable);
+	}
+
+	@Benchmark
+	public long stable(Jobs jobs, JobHeaps heaps) {
+		return run(jobs, heaps.stable);
+	}
+
+	@Benchmark
+	public long wrapped(Jobs jobs, WrappedHeap wrapped) {
+		Heap<Sequenced> heap = wrapped.heap;
+		long sequence = wrapped.sequence;
+		long sum = 0;
+		for (int index = jobs.size; index < jobs.jobs.length; index++) {
+			heap.add(new Sequenced(jobs.jobs[index], sequence++));
+			sum += heap.dequeue().job.priority;
+		}
+		return sum;
+	}
+
+	private static long run(Jobs jobs, Heap<Job> heap) {
+		long sum = 0;
+		for (int index = jobs.size; index < jobs.jobs.length; index++) {
+			heap.add(jobs.jobs[index]);
+			sum += heap.dequeue().priority;
+		}
+		return sum;
+	}
+}
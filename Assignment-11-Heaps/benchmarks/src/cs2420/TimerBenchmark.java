@@ -0,0 +1,122 @@
+package cs2420;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A timeout workload: every tick schedules new timers with random delays,
+ * cancels most older ones before they fire, and expires whatever is due.
+ * TimingWheel against a plain Heap timer queue that can only cancel by
+ * marking entries and skipping them when they surface.
+ *
+ * Scores are per timer scheduled.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TimerBenchmark {
+
+	private static final int TICKS = 10_000;
+	private static final int PER_TICK = 100;
+	private static final int TIMERS = TICKS * PER_TICK;
+
+	/**
+	 * Percent of timers cancelled before they fire.
+	 */
+	@Param({ "50", "90", "99" })
+	public int cancelPercent;
+
+	/**
+	 * Longest delay, in ticks.
+	 */
+	@Param({ "1000", "100000" })
+	public int maxDelay;
+
+	private long[] delays;
+	private boolean[] cancels;
+
+	@Setup(Level.Trial)
+	public void createWorkload() {
+		Random generator = new Random(42);
+		delays = new long[TIMERS];
+		cancels = new boolean[TIMERS];
+		for (int index = 0; index < TIMERS; index++) {
+			delays[index] = 1 + generator.nextInt(maxDelay);
+			cancels[index] = generator.nextInt(100) < cancelPercent;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TIMERS)
+	public long timingWheel() {
+		TimingWheel<Integer> wheel = new TimingWheel<>(8, 3);
+		@SuppressWarnings("unchecked")
+		TimingWheel.Timer<Integer>[] ring = (TimingWheel.Timer<Integer>[]) new TimingWheel.Timer<?>[PER_TICK];
+		long[] fired = new long[1];
+		int index = 0;
+		for (int tick = 1; tick <= TICKS; tick++) {
+			for (int count = 0; count < PER_TICK; count++, index++) {
+				// Cancel the timer scheduled one tick ago in this position.
+				if (ring[count] != null) {
+					wheel.cancel(ring[count]);
+				}
+				TimingWheel.Timer<Integer> timer = wheel.schedule(index, delays[index]);
+				ring[count] = cancels[index] ? timer : null;
+			}
+			wheel.advanceTo(tick, value -> fired[0]++);
+		}
+		return fired[0] + wheel.size();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TIMERS)
+	public long heapTimerQueue() {
+		final class Entry {
+			final long deadline;
+			boolean cancelled;
+
+			Entry(long deadline) {
+				this.deadline = deadline;
+			}
+		}
+		Heap<Entry> heap = new Heap<>((lhs, rhs) -> Long.compare(lhs.deadline, rhs.deadline));
+		Entry[] ring = new Entry[PER_TICK];
+		long fired = 0;
+		int index = 0;
+		for (int tick = 1; tick <= TICKS; tick++) {
+			for (int count = 0; count < PER_TICK; count++, index++) {
+				if (ring[count] != null) {
+					ring[count].cancelled = true;
+				}
+				Entry entry = new Entry(tick - 1 + delays[index]);
+				heap.add(entry);
+				ring[count] = cancels[index] ? entry : null;
+			}
+			while (heap.size() > 0 && heap.peek().deadline <= tick) {
+				if (!heap.dequeue().cancelled) {
+					fired++;
+				}
+			}
+		}
+		return fired + heap.size();
+	}
+}
@@ -0,0 +1,67 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares TopK.collector with sort-then-limit for picking the K largest of N
+ * items, sequentially and with parallel streams.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TopKBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	@Param({ "10", "1000" })
+	public int k;
+
+	private List<Integer> data;
+
+	@Setup
+	public void createData() {
+		data = new Random(42).ints(size).boxed().collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<Integer> topK() {
+		return data.stream().collect(TopK.collector(k));
+	}
+
+	@Benchmark
+	public List<Integer> topKParallel() {
+		return data.parallelStream().collect(TopK.collector(k));
+	}
+
+	@Benchmark
+	public List<Integer> sortThenLimit() {
+		return data.stream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<Integer> sortThenLimitParallel() {
+		return data.parallelStream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+	}
+}
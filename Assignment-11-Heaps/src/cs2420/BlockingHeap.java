@@ -0,0 +1,397 @@
+package cs2420;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a thread-safe priority queue of generically-typed items whose
+ * consumers can block until an item arrives and whose producers can block
+ * while it is full. The items are kept in a Heap.
+ *
+ * Waiting uses a ReentrantLock with separate notEmpty and notFull Conditions
+ * rather than synchronized with wait/notifyAll, so a waiting virtual thread
+ * unmounts instead of pinning its carrier, and each put wakes one consumer
+ * instead of all of them. takeUpTo drains a batch under one lock acquisition,
+ * so busy consumers take one wakeup per batch rather than per item.
+ *
+ * peek, dequeue and add never block: dequeue throws when empty and add throws
+ * when full, like their Priority_Queue counterparts. The batch operations
+ * (addAll, dequeue(k, out), drainTo) never block either, and each runs under
+ * one lock acquisition, so concurrent callers never see a half-done batch.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class BlockingHeap<Type> implements Priority_Queue<Type> {
+
+	private final Heap<Type> heap;
+	private final int capacity;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+
+	/**
+	 * Constructs an unbounded queue ordering items by their natural ordering.
+	 */
+	public BlockingHeap() {
+		this(Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * Constructs a queue holding at most capacity items, ordered with the
+	 * specified comparator (or naturally if it is null).
+	 *
+	 * @throws IllegalArgumentException
+	 *             if capacity is not positive.
+	 */
+	public BlockingHeap(int capacity, Comparator<? super Type> c) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		heap = new Heap<>(c);
+	}
+
+	/**
+	 * Adds x, waiting for space if the queue is full.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	public void put(Type x) throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == capacity) {
+				notFull.await();
+			}
+			insert(x);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds x, waiting up to timeout for space if the queue is full.
+	 *
+	 * @return false if the queue was still full after timeout.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	public boolean offer(Type x, long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == capacity) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			insert(x);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds x without waiting.
+	 *
+	 * @throws IllegalStateException
+	 *             if the queue is full.
+	 */
+	@Override
+	public void add(Type x) {
+		lock.lock();
+		try {
+			if (heap.size() == capacity) {
+				throw new IllegalStateException("Queue is full");
+			}
+			insert(x);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds every item without waiting, all or none.
+	 *
+	 * @throws IllegalStateException
+	 *             if the items do not all fit.
+	 */
+	@Override
+	public void addAll(Type[] items) {
+		lock.lock();
+		try {
+			checkFits(items.length);
+			heap.addAll(items);
+			signalAdded(items.length);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds every item without waiting, all or none.
+	 *
+	 * @throws IllegalStateException
+	 *             if the items do not all fit.
+	 */
+	@Override
+	public void addAll(Collection<? extends Type> items) {
+		lock.lock();
+		try {
+			checkFits(items.size());
+			heap.addAll(items);
+			signalAdded(items.size());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the minimum item, waiting for one if the queue is
+	 * empty.
+	 *
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	public Type take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == 0) {
+				notEmpty.await();
+			}
+			return remove();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the minimum item, waiting up to timeout for one if
+	 * the queue is empty.
+	 *
+	 * @return the item, or null if the queue was still empty after timeout.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	public Type poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == 0) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return remove();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the queue is not empty, then moves up to max of the smallest
+	 * items, in order, into out. The items are removed under the lock and
+	 * added to out after releasing it, so producers are woken even if out
+	 * rejects an item; as with BlockingQueue.drainTo, items after the one
+	 * rejected are then in neither collection.
+	 *
+	 * @return the number of items moved, at least 1.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 * @throws IllegalArgumentException
+	 *             if max is not positive.
+	 */
+	@SuppressWarnings("unchecked")
+	public int takeUpTo(int max, Collection<? super Type> out) throws InterruptedException {
+		if (max < 1) {
+			throw new IllegalArgumentException("Max must be positive: " + max);
+		}
+		Type[] batch;
+		int count;
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == 0) {
+				notEmpty.await();
+			}
+			batch = (Type[]) new Object[Math.min(max, heap.size())];
+			count = heap.dequeue(batch.length, batch);
+			signalRemoved(count);
+		} finally {
+			lock.unlock();
+		}
+		for (int index = 0; index < count; index++) {
+			out.add(batch[index]);
+		}
+		return count;
+	}
+
+	/**
+	 * Return the value of the smallest item in the queue.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		lock.lock();
+		try {
+			return heap.peek();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the minimum item without waiting.
+	 *
+	 * @throws NoSuchElementException
+	 *             if the queue is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		lock.lock();
+		try {
+			if (heap.size() == 0) {
+				throw new NoSuchElementException();
+			}
+			return remove();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves up to k of the smallest items, in order, into out without waiting.
+	 *
+	 * @return the number of items moved, 0 if the queue is empty.
+	 * @throws IllegalArgumentException
+	 *             if out cannot hold them.
+	 */
+	@Override
+	public int dequeue(int k, Type[] out) {
+		lock.lock();
+		try {
+			int count = heap.dequeue(k, out);
+			signalRemoved(count);
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Passes up to max of the smallest items, in order, to consumer without
+	 * waiting. consumer runs under the queue's lock, so it must not use this
+	 * queue.
+	 *
+	 * @return the number of items passed, 0 if the queue is empty.
+	 */
+	@Override
+	public int drainTo(Consumer<? super Type> consumer, int max) {
+		lock.lock();
+		int before = heap.size();
+		try {
+			return heap.drainTo(consumer, max);
+		} finally {
+			// Signal even if consumer threw, for the items already removed.
+			signalRemoved(before - heap.size());
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of items in the queue.
+	 */
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return heap.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return how many more items fit before put blocks.
+	 */
+	public int remainingCapacity() {
+		lock.lock();
+		try {
+			return capacity - heap.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Empties the queue, waking every blocked producer.
+	 */
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			heap.clear();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds x and wakes one consumer. The lock must be held. A consumer only
+	 * waits after finding the queue empty under the lock, so no signal is
+	 * lost.
+	 */
+	private void insert(Type x) {
+		heap.add(x);
+		notEmpty.signal();
+	}
+
+	/**
+	 * Dequeues and wakes one producer. The lock must be held.
+	 */
+	private Type remove() {
+		Type result = heap.dequeue();
+		notFull.signal();
+		return result;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if count more items do not fit. The lock must be held.
+	 */
+	private void checkFits(int count) {
+		if (count > capacity - heap.size()) {
+			throw new IllegalStateException("Queue has room for " + (capacity - heap.size()) + ", not " + count);
+		}
+	}
+
+	/**
+	 * Wakes one waiting consumer per item added, stopping early once none are
+	 * left waiting. The lock must be held.
+	 */
+	private void signalAdded(int count) {
+		for (int signalled = 0; signalled < count && lock.hasWaiters(notEmpty); signalled++) {
+			notEmpty.signal();
+		}
+	}
+
+	/**
+	 * Wakes one waiting producer per item removed, stopping early once none
+	 * are left waiting. The lock must be held.
+	 */
+	private void signalRemoved(int count) {
+		for (int signalled = 0; signalled < count && lock.hasWaiters(notFull); signalled++) {
+			notFull.signal();
+		}
+	}
+
+}
@@ -0,0 +1,270 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Testing BlockingHeap alone, blocking, and under contention.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class BlockingHeapTest {
+
+	private static final int THREADS = 8;
+	private static final int PER_THREAD = 20000;
+
+	/**
+	 * Non-blocking operations behave like Heap, and add respects capacity.
+	 */
+	@Test
+	public void test_non_blocking() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(3, null);
+		queue.add(5);
+		queue.add(1);
+		queue.add(3);
+		assertEquals(0, queue.remainingCapacity());
+		try {
+			queue.add(0);
+			fail("Should have thrown IllegalStateException");
+		} catch (IllegalStateException e) {
+			// Test passes.
+		}
+		assertFalse(queue.offer(0, 1, TimeUnit.MILLISECONDS));
+
+		assertEquals(1, (int) queue.peek());
+		List<Integer> batch = new ArrayList<>();
+		assertEquals(2, queue.takeUpTo(2, batch));
+		assertEquals(Arrays.asList(1, 3), batch);
+		assertEquals(5, (int) queue.dequeue());
+		assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+		try {
+			queue.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * take waits for a put, and put waits for a take on a full queue.
+	 */
+	@Test
+	public void test_blocking_handoff() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(1, null);
+		AtomicReference<Integer> taken = new AtomicReference<>();
+		Thread consumer = new Thread(() -> {
+			try {
+				taken.set(queue.take());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		consumer.start();
+		queue.put(7);
+		consumer.join(5000);
+		assertEquals(7, (int) taken.get());
+
+		queue.put(1);
+		Thread producer = new Thread(() -> {
+			try {
+				queue.put(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+		assertEquals(1, (int) queue.take());
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertEquals(2, (int) queue.poll(5, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * A blocked producer is woken by takeUpTo and drainTo even when the
+	 * collection or consumer they hand items to throws.
+	 */
+	@Test
+	public void test_failed_batch_still_frees_space() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(2, null);
+		queue.put(1);
+		queue.put(2);
+		Thread producer = startBlockedPut(queue, 3);
+		try {
+			queue.takeUpTo(2, Collections.emptyList());
+			fail("Should have thrown UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+			// Test passes.
+		}
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertEquals(1, queue.size());
+
+		queue.put(4);
+		producer = startBlockedPut(queue, 5);
+		try {
+			queue.drainTo(value -> {
+				throw new IllegalStateException();
+			}, 2);
+			fail("Should have thrown IllegalStateException");
+		} catch (IllegalStateException e) {
+			// Test passes.
+		}
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertEquals(Arrays.asList(4, 5), Arrays.asList(queue.dequeue(), queue.dequeue()));
+	}
+
+	/**
+	 * Starts a thread that puts value into the full queue, and returns once it
+	 * is waiting for space.
+	 */
+	private static Thread startBlockedPut(BlockingHeap<Integer> queue, int value) throws InterruptedException {
+		Thread producer = new Thread(() -> {
+			try {
+				queue.put(value);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+		while (producer.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		return producer;
+	}
+
+	/**
+	 * Producers and batch consumers on a small bounded queue hand over every
+	 * item exactly once.
+	 */
+	@Test
+	public void test_concurrent_producers_and_consumers() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(64, null);
+		AtomicIntegerArray seen = new AtomicIntegerArray(THREADS * PER_THREAD);
+		CountDownLatch done = new CountDownLatch(2 * THREADS);
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			int offset = thread * PER_THREAD;
+			new Thread(() -> {
+				try {
+					for (int index = 0; index < PER_THREAD; index++) {
+						queue.put(offset + index);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				done.countDown();
+			}).start();
+			new Thread(() -> {
+				List<Integer> batch = new ArrayList<>();
+				try {
+					int received = 0;
+					while (received < PER_THREAD) {
+						batch.clear();
+						received += queue.takeUpTo(Math.min(16, PER_THREAD - received), batch);
+						for (int value : batch) {
+							seen.incrementAndGet(value);
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				done.countDown();
+			}).start();
+		}
+
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+		assertEquals(0, queue.size());
+		for (int value = 0; value < seen.length(); value++) {
+			assertEquals(1, seen.get(value));
+		}
+	}
+
+	/**
+	 * Batch producers using addAll and consumers racing on drainTo and
+	 * dequeue(k, out) never fail and hand over every item exactly once; a
+	 * batch that does not fit is rejected whole.
+	 */
+	@Test
+	public void test_concurrent_batch_drain() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>();
+		int total = THREADS * PER_THREAD;
+		AtomicIntegerArray seen = new AtomicIntegerArray(total);
+		AtomicInteger consumed = new AtomicInteger();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(2 * THREADS);
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			int offset = thread * PER_THREAD;
+			boolean useDrainTo = thread % 2 == 0;
+			new Thread(() -> {
+				try {
+					Integer[] batch = new Integer[100];
+					for (int start = 0; start < PER_THREAD; start += batch.length) {
+						for (int index = 0; index < batch.length; index++) {
+							batch[index] = offset + start + index;
+						}
+						queue.addAll(batch);
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+				done.countDown();
+			}).start();
+			new Thread(() -> {
+				try {
+					Integer[] out = new Integer[16];
+					while (consumed.get() < total) {
+						int count;
+						if (useDrainTo) {
+							count = queue.drainTo(value -> seen.incrementAndGet(value), 16);
+						} else {
+							count = queue.dequeue(16, out);
+							for (int index = 0; index < count; index++) {
+								seen.incrementAndGet(out[index]);
+							}
+						}
+						if (consumed.addAndGet(count) < total && count == 0) {
+							Thread.yield();
+						}
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+				done.countDown();
+			}).start();
+		}
+
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+		assertNull(failure.get());
+		assertEquals(0, queue.size());
+		for (int value = 0; value < total; value++) {
+			assertEquals(1, seen.get(value));
+		}
+
+		BlockingHeap<Integer> bounded = new BlockingHeap<>(3, null);
+		bounded.add(1);
+		try {
+			bounded.addAll(Arrays.asList(2, 3, 4));
+			fail("Should have thrown IllegalStateException");
+		} catch (IllegalStateException e) {
+			// Test passes.
+		}
+		assertEquals(1, bounded.size());
+		bounded.addAll(new Integer[] { 3, 2 });
+		assertEquals(0, bounded.remainingCapacity());
+	}
+
+}
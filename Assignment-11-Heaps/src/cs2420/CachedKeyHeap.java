@@ -0,0 +1,235 @@
+package cs2420;
+
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Represents a priority queue of generically-typed items ordered by a long key
+ * extracted from each item once, when it is added. The queue is implemented as
+ * a min heap in a 1 INDEXED array, like Heap.
+ *
+ * The keys are kept in a long array parallel to heap_array, so percolating
+ * compares primitives and never calls back into the items; each item is
+ * moved alongside its key. This pays off when comparing items is expensive
+ * (e.g., a Comparator that reads and combines several fields), at the cost of
+ * eight bytes per item. Keys are cached, so an item whose key changes while it
+ * is in the heap keeps its old position.
+ *
+ * Keys compare as signed longs. doubleKey and packKey turn a double, or a pair
+ * of ints compared lexicographically, into a long with the same order.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class CachedKeyHeap<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * The number of elements in the heap (NOT: the capacity of the array)
+	 */
+	private int size;
+
+	/**
+	 * The implementation array used to store heap values. Bucket 0 is unused.
+	 */
+	private Type[] heap_array;
+
+	/**
+	 * The key of each item in heap_array, at the same index.
+	 */
+	private long[] keys;
+
+	/**
+	 * Computes the key of an item as it is added.
+	 */
+	private final ToLongFunction<? super Type> keyExtractor;
+
+	/**
+	 * Constructs an empty priority queue ordering items by the given key.
+	 *
+	 * @param keyExtractor
+	 *            - computes each item's key, smallest first.
+	 */
+	@SuppressWarnings("unchecked")
+	public CachedKeyHeap(ToLongFunction<? super Type> keyExtractor) {
+		this.keyExtractor = keyExtractor;
+		heap_array = (Type[]) new Object[10];
+		keys = new long[10];
+	}
+
+	/**
+	 * @return a long ordered like value under Double.compare (-0.0 before 0.0,
+	 *         NaN last).
+	 */
+	public static long doubleKey(double value) {
+		long bits = Double.doubleToLongBits(value);
+		// Negative doubles order backwards by their bits; flip all but the sign.
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+
+	/**
+	 * @return a long ordered by high, then by low (both signed).
+	 */
+	public static long packKey(int high, int low) {
+		return ((long) high << 32) | ((low ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Adds an item to this priority queue, computing its key. (Runs in
+	 * logarithmic time.)
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 */
+	@Override
+	public void add(Type x) {
+		long key = keyExtractor.applyAsLong(x);
+		if (heap_array.length - 1 == size) {
+			resize();
+		}
+		size++;
+		percolateUp(size, x, key);
+	}
+
+	/**
+	 * Return the value of the smallest item in our heap.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		return size == 0 ? null : heap_array[1];
+	}
+
+	/**
+	 * @return the key of the smallest item.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public long peekKey() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return keys[1];
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue. (Runs in
+	 * logarithmic time.)
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		Type min = heap_array[1];
+		Type last = heap_array[size];
+		long lastKey = keys[size];
+		heap_array[size] = null;
+		size--;
+		if (size > 0) {
+			percolateDown(1, last, lastKey);
+		}
+		return min;
+	}
+
+	/**
+	 * Replaces the contents of this heap with the items of array, computing
+	 * each key once, in linear time.
+	 *
+	 * @param array
+	 *            - the items to build the heap from (copied).
+	 */
+	@SuppressWarnings("unchecked")
+	public void build_heap_from_array(Type[] array) {
+		heap_array = (Type[]) new Object[array.length + 1];
+		keys = new long[array.length + 1];
+		for (int index = 0; index < array.length; index++) {
+			heap_array[index + 1] = array[index];
+			keys[index + 1] = keyExtractor.applyAsLong(array[index]);
+		}
+		size = array.length;
+		for (int index = size / 2; index > 0; index--) {
+			percolateDown(index, heap_array[index], keys[index]);
+		}
+	}
+
+	/**
+	 * @return a copy of the heap array (bucket 0 is unused)
+	 */
+	public Object[] toArray() {
+		Object[] copy_of_array = new Object[size + 1];
+		System.arraycopy(heap_array, 1, copy_of_array, 1, size);
+		return copy_of_array;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		heap_array = (Type[]) new Object[10];
+		keys = new long[10];
+		size = 0;
+	}
+
+	/**
+	 * Moves parents down into the hole at index until item fits, then stores
+	 * item and its key there.
+	 */
+	private void percolateUp(int index, Type item, long key) {
+		while (index > 1 && key < keys[index / 2]) {
+			heap_array[index] = heap_array[index / 2];
+			keys[index] = keys[index / 2];
+			index /= 2;
+		}
+		heap_array[index] = item;
+		keys[index] = key;
+	}
+
+	/**
+	 * Moves smaller children up into the hole at index until item fits, then
+	 * stores item and its key there.
+	 */
+	private void percolateDown(int index, Type item, long key) {
+		int child = index * 2;
+		while (child <= size) {
+			if (child < size && keys[child + 1] < keys[child]) {
+				child++;
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			heap_array[index] = heap_array[child];
+			keys[index] = keys[child];
+			index = child;
+			child = index * 2;
+		}
+		heap_array[index] = item;
+		keys[index] = key;
+	}
+
+	/**
+	 * Resizes both backing arrays by doubling capacity.
+	 */
+	@SuppressWarnings("unchecked")
+	private void resize() {
+		Type[] newArray = (Type[]) new Object[heap_array.length * 2];
+		long[] newKeys = new long[keys.length * 2];
+		System.arraycopy(heap_array, 1, newArray, 1, size);
+		System.arraycopy(keys, 1, newKeys, 1, size);
+		heap_array = newArray;
+		keys = newKeys;
+	}
+
+}
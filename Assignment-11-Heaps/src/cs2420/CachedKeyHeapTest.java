@@ -0,0 +1,121 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testing CachedKeyHeap and its key encodings.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class CachedKeyHeapTest {
+
+	/**
+	 * A record ordered by priority, then by score.
+	 */
+	private static final class Task {
+		final int priority;
+		final double score;
+
+		Task(int priority, double score) {
+			this.priority = priority;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * doubleKey and packKey order like the values they encode.
+	 */
+	@Test
+	public void test_key_encodings() {
+		double[] doubles = { Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE, -0.0, 0.0,
+				Double.MIN_VALUE, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN };
+		for (double lhs : doubles) {
+			for (double rhs : doubles) {
+				assertEquals(Integer.signum(Double.compare(lhs, rhs)),
+						Long.signum(Long.compare(CachedKeyHeap.doubleKey(lhs), CachedKeyHeap.doubleKey(rhs))));
+			}
+		}
+
+		int[] ints = { Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE };
+		for (int high1 : ints) {
+			for (int low1 : ints) {
+				for (int high2 : ints) {
+					for (int low2 : ints) {
+						int expected = high1 != high2 ? Integer.compare(high1, high2) : Integer.compare(low1, low2);
+						assertEquals(Integer.signum(expected), Long.signum(
+								Long.compare(CachedKeyHeap.packKey(high1, low1), CachedKeyHeap.packKey(high2, low2))));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Random adds, builds and dequeues come out in key order.
+	 */
+	@Test
+	public void test_random_against_sorted() {
+		Random generator = new Random();
+		Comparator<Task> order = Comparator.<Task> comparingInt(task -> task.priority)
+				.thenComparingDouble(task -> task.score);
+		CachedKeyHeap<Task> heap = new CachedKeyHeap<>(task -> CachedKeyHeap.packKey(task.priority,
+				(int) (task.score * 1000)));
+
+		Task[] initial = new Task[500];
+		List<Task> expected = new ArrayList<>();
+		for (int index = 0; index < initial.length; index++) {
+			initial[index] = new Task(generator.nextInt(10) - 5, generator.nextInt(1000) / 1000.0);
+			expected.add(initial[index]);
+		}
+		heap.build_heap_from_array(initial);
+		for (int index = 0; index < 1000; index++) {
+			Task task = new Task(generator.nextInt(10) - 5, generator.nextInt(1000) / 1000.0);
+			expected.add(task);
+			heap.add(task);
+		}
+		expected.sort(order);
+
+		assertEquals(expected.size(), heap.size());
+		for (Task task : expected) {
+			assertEquals(CachedKeyHeap.packKey(task.priority, (int) (task.score * 1000)), heap.peekKey());
+			Task actual = heap.dequeue();
+			assertEquals(0, order.compare(task, actual));
+		}
+
+		assertNull(heap.peek());
+		try {
+			heap.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Keys are read once per item, when it is added.
+	 */
+	@Test
+	public void test_extractor_called_once() {
+		int[] calls = new int[1];
+		CachedKeyHeap<Integer> heap = new CachedKeyHeap<>(value -> {
+			calls[0]++;
+			return CachedKeyHeap.doubleKey(-value);
+		});
+		for (int value = 0; value < 100; value++) {
+			heap.add(value);
+		}
+		for (int value = 99; value >= 0; value--) {
+			assertEquals(value, (int) heap.dequeue());
+		}
+		assertEquals(100, calls[0]);
+	}
+
+}
@@ -0,0 +1,220 @@
+package cs2420;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multi-threaded throughput experiments for the thread-safe priority queues,
+ * compared against a Heap behind a single lock.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ *
+ */
+public class ConcurrentTiming {
+
+	// Thread counts to sweep.
+	public static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+	// Number of elements in the queue before timing starts.
+	public static final int PREFILL = 1000000;
+
+	// Operations performed by each thread.
+	public static final int OPERATIONS = 1000000;
+
+	// Control repetition of tests for accuracy.
+	public static final int TESTS = 5;
+
+	// MultiQueue shards per thread.
+	public static final int SHARDS_PER_THREAD = 2;
+
+	/**
+	 * The baseline: a Heap where every operation takes the same monitor.
+	 */
+	static class LockedHeap<Type> implements Priority_Queue<Type> {
+		private final Heap<Type> heap = new Heap<>();
+
+		@Override
+		public synchronized Type peek() {
+			return heap.peek();
+		}
+
+		@Override
+		public synchronized Type dequeue() {
+			return heap.dequeue();
+		}
+
+		@Override
+		public synchronized void add(Type x) {
+			heap.add(x);
+		}
+
+		@Override
+		public synchronized int size() {
+			return heap.size();
+		}
+
+		@Override
+		public synchronized void clear() {
+			heap.clear();
+		}
+	}
+
+	/**
+	 * Supplies a fresh, empty queue for each test.
+	 */
+	interface QueueFactory {
+		Priority_Queue<Integer> create();
+	}
+
+	/**
+	 * Creates MultiQueues with rank tracking on and keeps every one it created,
+	 * so the rank error can be summarized over all the runs.
+	 */
+	static class TrackedMultiQueues implements QueueFactory {
+		private final int threads;
+		private final List<MultiQueue<Integer>> created = new ArrayList<>();
+
+		TrackedMultiQueues(int threads) {
+			this.threads = threads;
+		}
+
+		@Override
+		public Priority_Queue<Integer> create() {
+			MultiQueue<Integer> queue = new MultiQueue<>(SHARDS_PER_THREAD, threads, null);
+			queue.setRankTracking(true);
+			created.add(queue);
+			return queue;
+		}
+
+		/**
+		 * @return the mean rank error of each run, averaged over the runs.
+		 */
+		double meanRankError() {
+			double total = 0;
+			for (MultiQueue<Integer> queue : created) {
+				total += queue.getMeanRankError();
+			}
+			return created.isEmpty() ? 0 : total / created.size();
+		}
+
+		/**
+		 * @return the largest rank error seen in any run.
+		 */
+		long maxRankError() {
+			long max = 0;
+			for (MultiQueue<Integer> queue : created) {
+				max = Math.max(max, queue.getMaxRankError());
+			}
+			return max;
+		}
+	}
+
+	/**
+	 * Times threads performing a random 50/50 mix of add and dequeue against a
+	 * prefilled queue.
+	 *
+	 * @return operations per millisecond, averaged over TESTS runs.
+	 */
+	static double timeMixedOperations(QueueFactory factory, int threads) throws InterruptedException {
+		double totalThroughput = 0;
+
+		for (int test = 0; test < TESTS; test++) {
+			Priority_Queue<Integer> queue = factory.create();
+			for (int index = 0; index < PREFILL; index++) {
+				queue.add(ThreadLocalRandom.current().nextInt(PREFILL));
+			}
+
+			CountDownLatch start = new CountDownLatch(1);
+			Thread[] workers = new Thread[threads];
+			for (int thread = 0; thread < threads; thread++) {
+				workers[thread] = new Thread(() -> {
+					ThreadLocalRandom generator = ThreadLocalRandom.current();
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int op = 0; op < OPERATIONS; op++) {
+						if (generator.nextBoolean()) {
+							queue.add(generator.nextInt(PREFILL));
+						} else {
+							try {
+								queue.dequeue();
+							} catch (NoSuchElementException e) {
+								// Another thread drained it, keep going.
+							}
+						}
+					}
+				});
+				workers[thread].start();
+			}
+
+			long startTime = System.nanoTime();
+			start.countDown();
+			for (Thread worker : workers) {
+				worker.join();
+			}
+			long elapsed = System.nanoTime() - startTime;
+
+			totalThroughput += (double) threads * OPERATIONS / (elapsed / 1000000.0);
+		}
+
+		return totalThroughput / TESTS;
+	}
+
+	/**
+	 * Compare throughput of a locked Heap and SkipListPriorityQueue as the
+	 * thread count grows.
+	 */
+	public static void testThroughput() throws InterruptedException {
+		StringBuilder throughput = new StringBuilder();
+
+		for (int threads : THREADS) {
+			double locked = timeMixedOperations(LockedHeap::new, threads);
+			double skipList = timeMixedOperations(SkipListPriorityQueue::new, threads);
+
+			throughput.append(threads + "," + locked + "," + skipList + "\n");
+			System.out.println(threads + "," + locked + "," + skipList);
+		}
+
+		Timing.sendToFile(throughput, "concurrentThroughput.csv");
+	}
+
+	/**
+	 * Compare throughput of a locked Heap and a MultiQueue as the thread count
+	 * grows, and record the MultiQueue's rank error, over TESTS separate
+	 * tracked runs.
+	 */
+	public static void testMultiQueue() throws InterruptedException {
+		StringBuilder multiQueueTimes = new StringBuilder();
+
+		for (int threads : THREADS) {
+			double locked = timeMixedOperations(LockedHeap::new, threads);
+			double relaxed = timeMixedOperations(() -> new MultiQueue<>(SHARDS_PER_THREAD, threads, null), threads);
+
+			// Tracking scans every shard per dequeue, so it is not timed.
+			TrackedMultiQueues tracked = new TrackedMultiQueues(threads);
+			timeMixedOperations(tracked, threads);
+
+			String row = threads + "," + locked + "," + relaxed + "," + tracked.meanRankError() + ","
+					+ tracked.maxRankError();
+			multiQueueTimes.append(row + "\n");
+			System.out.println(row);
+		}
+
+		Timing.sendToFile(multiQueueTimes, "multiQueueThroughput.csv");
+	}
+
+	public static void main(String args[]) throws InterruptedException {
+		// Warm up every implementation before recording anything.
+		timeMixedOperations(LockedHeap::new, 2);
+		timeMixedOperations(SkipListPriorityQueue::new, 2);
+		timeMixedOperations(() -> new MultiQueue<>(SHARDS_PER_THREAD, 2, null), 2);
+
+		testThroughput();
+		testMultiQueue();
+	}
+}
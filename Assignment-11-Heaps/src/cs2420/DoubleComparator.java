@@ -0,0 +1,32 @@
+package cs2420;
+
+/**
+ * A comparison function over primitive doubles, used by DoubleHeap to order its
+ * elements without boxing.
+ * 
+ * @author Roman Clark and Mark Van der Merwe
+ */
+@FunctionalInterface
+public interface DoubleComparator {
+
+	/**
+	 * @return a negative number, zero, or a positive number as lhs is less
+	 *         than, equal to, or greater than rhs.
+	 */
+	public int compare(double lhs, double rhs);
+
+	/**
+	 * @return a comparator imposing the reverse of this ordering (use
+	 *         DoubleComparator.natural().reversed() for a max heap).
+	 */
+	public default DoubleComparator reversed() {
+		return (lhs, rhs) -> compare(rhs, lhs);
+	}
+
+	/**
+	 * @return a comparator imposing the natural ordering of doubles (as Double.compare).
+	 */
+	public static DoubleComparator natural() {
+		return Double::compare;
+	}
+}
@@ -0,0 +1,87 @@
+package cs2420;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts heap elements to and from a fixed number of bytes, so a heap's
+ * contents can be written to and read back from files.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public interface ElementCodec<Type> {
+
+	/**
+	 * @return the number of bytes every encoded element occupies.
+	 */
+	public int width();
+
+	/**
+	 * Writes value at the buffer's position, advancing it by width() bytes.
+	 */
+	public void write(ByteBuffer out, Type value);
+
+	/**
+	 * Reads a value at the buffer's position, advancing it by width() bytes.
+	 */
+	public Type read(ByteBuffer in);
+
+	/**
+	 * Encodes Integers as 4 bytes.
+	 */
+	public static final ElementCodec<Integer> INTEGER = new ElementCodec<Integer>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer out, Integer value) {
+			out.putInt(value);
+		}
+
+		@Override
+		public Integer read(ByteBuffer in) {
+			return in.getInt();
+		}
+	};
+
+	/**
+	 * Encodes Longs as 8 bytes.
+	 */
+	public static final ElementCodec<Long> LONG = new ElementCodec<Long>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer out, Long value) {
+			out.putLong(value);
+		}
+
+		@Override
+		public Long read(ByteBuffer in) {
+			return in.getLong();
+		}
+	};
+
+	/**
+	 * Encodes Doubles as 8 bytes.
+	 */
+	public static final ElementCodec<Double> DOUBLE = new ElementCodec<Double>() {
+		@Override
+		public int width() {
+			return Double.BYTES;
+		}
+
+		@Override
+		public void write(ByteBuffer out, Double value) {
+			out.putDouble(value);
+		}
+
+		@Override
+		public Double read(ByteBuffer in) {
+			return in.getDouble();
+		}
+	};
+}
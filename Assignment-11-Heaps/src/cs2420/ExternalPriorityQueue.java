@@ -0,0 +1,470 @@
+package cs2420;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue of generically-typed items that may hold far
+ * more items than fit in memory.
+ *
+ * New items go into a bounded in-memory Heap. When the heap holds runSize
+ * items, they are dequeued in order and spilled to a run file in a compact
+ * binary format (each item encoded by an ElementCodec, back to back). dequeue
+ * takes the smaller of the in-memory minimum and the smallest head among the
+ * runs, which are kept in a second Heap ordered by their heads. Runs are read
+ * sequentially in blocks through direct buffers, so each spilled item is
+ * written once and read once unless the number of runs exceeds the merge
+ * fan-in, in which case the smallest runs are merged into one.
+ *
+ * Memory use is about runSize items plus one read block per run (at most
+ * fanIn + 1 runs) and one write block. The write block is allocated once and
+ * reused by every spill and merge, and a deleted run's read block is kept for
+ * the next run opened, so direct memory stays within that bound instead of
+ * waiting on the garbage collector to free discarded buffers. withMemoryBudget derives runSize and
+ * the block size from a byte budget instead. I/O errors are rethrown as
+ * UncheckedIOException. close() deletes every run file. Instances are not
+ * thread-safe.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class ExternalPriorityQueue<Type> implements Priority_Queue<Type>, AutoCloseable {
+
+	/**
+	 * A spilled run being read back in order.
+	 */
+	private final class Run {
+		private final Path path;
+		private final FileChannel channel;
+		private final ByteBuffer block;
+		private long remaining;
+		private Type head;
+
+		private Run(Path path, long count) throws IOException {
+			this.path = path;
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			block = freeBlocks.isEmpty() ? ByteBuffer.allocateDirect(blockBytes) : freeBlocks.pop();
+			block.clear();
+			block.flip();
+			remaining = count;
+			advance();
+		}
+
+		/**
+		 * Moves head to the next item in the run, or null at the end.
+		 */
+		private void advance() throws IOException {
+			if (remaining == 0) {
+				head = null;
+				return;
+			}
+			if (!block.hasRemaining()) {
+				block.clear();
+				while (block.hasRemaining()) {
+					int read = channel.read(block);
+					if (read < 0) {
+						break;
+					}
+					bytesRead += read;
+				}
+				block.flip();
+			}
+			head = codec.read(block);
+			remaining--;
+		}
+
+		/**
+		 * Closes and deletes the run file, keeping its block for the next run.
+		 */
+		private void delete() throws IOException {
+			freeBlocks.push(block);
+			channel.close();
+			Files.deleteIfExists(path);
+		}
+	}
+
+	/**
+	 * The in-memory insertion buffer.
+	 */
+	private final Heap<Type> buffer;
+
+	/**
+	 * Runs that still have items, ordered by their heads.
+	 */
+	private final Heap<Run> runs;
+
+	/**
+	 * Every run not yet deleted, for merging and cleanup.
+	 */
+	private final List<Run> openRuns = new ArrayList<>();
+
+	private final ElementCodec<Type> codec;
+	private final Comparator<? super Type> comparator;
+	private final Path directory;
+	private final int runSize;
+	private final int fanIn;
+	private final int blockBytes;
+
+	/**
+	 * The block every spill and merge writes through.
+	 */
+	private final ByteBuffer writeBlock;
+
+	/**
+	 * Read blocks of deleted runs, reused by runs opened later.
+	 */
+	private final ArrayDeque<ByteBuffer> freeBlocks = new ArrayDeque<>();
+
+	/**
+	 * Items in runs not yet dequeued.
+	 */
+	private long spilled;
+
+	/**
+	 * Counters for the I/O benchmark.
+	 */
+	private long bytesWritten;
+	private long bytesRead;
+	private int runsWritten;
+
+	/**
+	 * Constructs an empty queue ordering items by their natural ordering.
+	 *
+	 * @param codec
+	 *            - how items are written to run files.
+	 * @param directory
+	 *            - where run files are created.
+	 * @param runSize
+	 *            - items held in memory before a spill.
+	 * @param fanIn
+	 *            - most runs merged at once; more runs trigger a merge.
+	 * @param blockBytes
+	 *            - read and write buffer size per run.
+	 */
+	public ExternalPriorityQueue(ElementCodec<Type> codec, Path directory, int runSize, int fanIn, int blockBytes) {
+		this(codec, null, directory, runSize, fanIn, blockBytes);
+	}
+
+	/**
+	 * Constructs an empty queue ordering items with the specified comparator.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if runSize is not positive, fanIn is below 2, or a block
+	 *             cannot hold one item.
+	 */
+	public ExternalPriorityQueue(ElementCodec<Type> codec, Comparator<? super Type> c, Path directory, int runSize,
+			int fanIn, int blockBytes) {
+		if (runSize < 1 || fanIn < 2 || blockBytes < codec.width()) {
+			throw new IllegalArgumentException("Invalid run size, fan-in or block size");
+		}
+		this.codec = codec;
+		this.comparator = c;
+		this.directory = directory;
+		this.runSize = runSize;
+		this.fanIn = fanIn;
+		// Whole items only, so an item never straddles two blocks.
+		this.blockBytes = blockBytes - blockBytes % codec.width();
+		writeBlock = ByteBuffer.allocateDirect(this.blockBytes);
+		buffer = new Heap<>(c);
+		runs = new Heap<>((lhs, rhs) -> compare(lhs.head, rhs.head));
+	}
+
+	/**
+	 * Constructs an empty queue whose buffer and blocks together stay within
+	 * about memoryBytes. A quarter of the budget is split into fanIn + 2
+	 * blocks (every open run's read block plus the write block), each at most
+	 * 1 MiB and at least one item; the rest holds the in-memory buffer.
+	 *
+	 * @param c
+	 *            - comparator to order items with, or null for natural
+	 *            ordering.
+	 * @param memoryBytes
+	 *            - bytes the queue may use for buffered items and blocks.
+	 * @param itemBytes
+	 *            - estimated heap bytes per buffered item, including its slot
+	 *            in the buffer's array.
+	 * @param fanIn
+	 *            - most runs merged at once; more runs trigger a merge.
+	 * @throws IllegalArgumentException
+	 *             if itemBytes or fanIn is out of range, or the budget cannot
+	 *             hold the blocks plus one item.
+	 */
+	public static <Type> ExternalPriorityQueue<Type> withMemoryBudget(ElementCodec<Type> codec,
+			Comparator<? super Type> c, Path directory, long memoryBytes, int itemBytes, int fanIn) {
+		if (itemBytes < 1 || fanIn < 2) {
+			throw new IllegalArgumentException("Invalid item size or fan-in");
+		}
+		int blocks = fanIn + 2;
+		long blockBytes = Math.min(memoryBytes / 4 / blocks, 1 << 20);
+		blockBytes = Math.max(blockBytes - blockBytes % codec.width(), codec.width());
+		long runSize = Math.min((memoryBytes - blocks * blockBytes) / itemBytes, Integer.MAX_VALUE - 8);
+		if (runSize < 1) {
+			throw new IllegalArgumentException("Memory budget of " + memoryBytes + " bytes cannot hold " + blocks
+					+ " blocks and an item");
+		}
+		return new ExternalPriorityQueue<>(codec, c, directory, (int) runSize, fanIn, (int) blockBytes);
+	}
+
+	/**
+	 * Adds an item to this priority queue, spilling the in-memory buffer to a
+	 * run file when it is full.
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 */
+	@Override
+	public void add(Type x) {
+		if (buffer.size() == runSize) {
+			try {
+				spill();
+				if (openRuns.size() > fanIn) {
+					mergeSmallestRuns();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		buffer.add(x);
+	}
+
+	/**
+	 * Return the value of the smallest item in the queue.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		Type inMemory = buffer.peek();
+		Run run = runs.peek();
+		if (run == null) {
+			return inMemory;
+		}
+		if (inMemory == null || compare(run.head, inMemory) < 0) {
+			return run.head;
+		}
+		return inMemory;
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue.
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		Run run = runs.peek();
+		if (run == null || (buffer.size() > 0 && compare(buffer.peek(), run.head) <= 0)) {
+			return buffer.dequeue();
+		}
+
+		try {
+			Type result = run.head;
+			runs.dequeue();
+			run.advance();
+			spilled--;
+			if (run.head != null) {
+				runs.add(run);
+			} else {
+				openRuns.remove(run);
+				run.delete();
+			}
+			return result;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in memory and on disk, capped at
+	 * Integer.MAX_VALUE.
+	 */
+	@Override
+	public int size() {
+		return (int) Math.min(Integer.MAX_VALUE, buffer.size() + spilled);
+	}
+
+	/**
+	 * Empties the queue and deletes every run file.
+	 */
+	@Override
+	public void clear() {
+		buffer.clear();
+		try {
+			deleteRuns();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Deletes every run file.
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer.clear();
+		deleteRuns();
+	}
+
+	/**
+	 * @return items held in memory before a spill.
+	 */
+	public int get_run_size() {
+		return runSize;
+	}
+
+	/**
+	 * @return the read and write buffer size per run.
+	 */
+	public int get_block_bytes() {
+		return blockBytes;
+	}
+
+	/**
+	 * @return bytes written to run files so far.
+	 */
+	public long get_bytes_written() {
+		return bytesWritten;
+	}
+
+	/**
+	 * @return bytes read from run files so far.
+	 */
+	public long get_bytes_read() {
+		return bytesRead;
+	}
+
+	/**
+	 * @return run files written so far, including merged runs.
+	 */
+	public int get_runs_written() {
+		return runsWritten;
+	}
+
+	/**
+	 * Writes the in-memory buffer to a new run in ascending order.
+	 */
+	private void spill() throws IOException {
+		Path path = Files.createTempFile(directory, "run", ".bin");
+		long count = buffer.size();
+
+		try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			ByteBuffer block = writeBlock;
+			// A failed write may have left items behind.
+			block.clear();
+			while (buffer.size() > 0) {
+				if (block.remaining() < codec.width()) {
+					flush(out, block);
+				}
+				codec.write(block, buffer.dequeue());
+			}
+			flush(out, block);
+		}
+
+		openRun(path, count);
+	}
+
+	/**
+	 * Merges the fanIn runs with the fewest remaining items into one run.
+	 */
+	private void mergeSmallestRuns() throws IOException {
+		openRuns.sort((lhs, rhs) -> Long.compare(lhs.remaining, rhs.remaining));
+		List<Run> merging = new ArrayList<>(openRuns.subList(0, fanIn));
+
+		// Rebuild the head-ordered heap without the runs being merged.
+		runs.clear();
+		openRuns.removeAll(merging);
+		for (Run run : openRuns) {
+			runs.add(run);
+		}
+
+		Heap<Run> mergeHeap = new Heap<>((lhs, rhs) -> compare(lhs.head, rhs.head));
+		long count = 0;
+		for (Run run : merging) {
+			mergeHeap.add(run);
+			// Each head is already read, so count it with the rest.
+			count += run.remaining + 1;
+		}
+
+		Path path = Files.createTempFile(directory, "run", ".bin");
+		try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			ByteBuffer block = writeBlock;
+			// A failed write may have left items behind.
+			block.clear();
+			while (mergeHeap.size() > 0) {
+				Run run = mergeHeap.dequeue();
+				if (block.remaining() < codec.width()) {
+					flush(out, block);
+				}
+				codec.write(block, run.head);
+				run.advance();
+				if (run.head != null) {
+					mergeHeap.add(run);
+				} else {
+					run.delete();
+				}
+			}
+			flush(out, block);
+		}
+
+		spilled -= count;
+		openRun(path, count);
+	}
+
+	/**
+	 * Opens a freshly written run for reading and tracks it.
+	 */
+	private void openRun(Path path, long count) throws IOException {
+		Run run = new Run(path, count);
+		openRuns.add(run);
+		runs.add(run);
+		spilled += count;
+		runsWritten++;
+	}
+
+	/**
+	 * Writes out everything in block and empties it.
+	 */
+	private void flush(FileChannel out, ByteBuffer block) throws IOException {
+		block.flip();
+		while (block.hasRemaining()) {
+			bytesWritten += out.write(block);
+		}
+		block.clear();
+	}
+
+	/**
+	 * Closes and deletes every open run.
+	 */
+	private void deleteRuns() throws IOException {
+		for (Run run : openRuns) {
+			run.delete();
+		}
+		openRuns.clear();
+		runs.clear();
+		spilled = 0;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+}
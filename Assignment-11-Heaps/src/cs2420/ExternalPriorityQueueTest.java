@@ -0,0 +1,172 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing the external-memory priority queue for soundness with tiny buffers
+ * so that spilling and merging happen constantly.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class ExternalPriorityQueueTest {
+
+	private Path directory;
+
+	@Before
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("runs");
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			files.forEach(file -> file.toFile().delete());
+		}
+		Files.delete(directory);
+	}
+
+	/**
+	 * Interleaved adds and dequeues match a reference queue while runs are
+	 * spilled and merged.
+	 */
+	@Test
+	public void test_matches_reference_queue() throws IOException {
+		Random generator = new Random();
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+
+		try (ExternalPriorityQueue<Long> queue = new ExternalPriorityQueue<>(ElementCodec.LONG, directory, 50, 4,
+				64)) {
+			for (int op = 0; op < 20000; op++) {
+				if (expected.isEmpty() || generator.nextInt(3) > 0) {
+					long value = generator.nextInt(100000);
+					queue.add(value);
+					expected.add(value);
+				} else {
+					assertEquals(expected.peek(), queue.peek());
+					assertEquals(expected.poll(), queue.dequeue());
+				}
+				assertEquals(expected.size(), queue.size());
+			}
+
+			assertTrue(queue.get_runs_written() > 4);
+			assertTrue(queue.get_bytes_written() > 0);
+
+			while (!expected.isEmpty()) {
+				assertEquals(expected.poll(), queue.dequeue());
+			}
+			assertNull(queue.peek());
+
+			try {
+				queue.dequeue();
+				fail("Should have thrown NoSuchElementException");
+			} catch (NoSuchElementException e) {
+				// Test passes.
+			}
+		}
+	}
+
+	/**
+	 * Spilled runs are deleted once drained, on clear and on close.
+	 */
+	@Test
+	public void test_run_files_cleaned_up() throws IOException {
+		ExternalPriorityQueue<Integer> queue = new ExternalPriorityQueue<>(ElementCodec.INTEGER,
+				Comparator.reverseOrder(), directory, 10, 3, 16);
+		for (int value = 0; value < 100; value++) {
+			queue.add(value);
+		}
+		assertEquals(99, (int) queue.dequeue());
+		assertTrue(countFiles() > 0);
+
+		queue.clear();
+		assertEquals(0, queue.size());
+		assertEquals(0, countFiles());
+
+		for (int value = 0; value < 100; value++) {
+			queue.add(value);
+		}
+		queue.close();
+		assertEquals(0, countFiles());
+	}
+
+	/**
+	 * A memory budget sets the run size and block size, and a queue built from
+	 * one still spills and drains in order.
+	 */
+	@Test
+	public void test_memory_budget() throws IOException {
+		// 4 + 2 blocks from a quarter of 4800 bytes: 200 bytes, 25 longs each;
+		// the remaining 3600 bytes hold 150 items of 24 bytes.
+		try (ExternalPriorityQueue<Long> queue = ExternalPriorityQueue.withMemoryBudget(ElementCodec.LONG, null,
+				directory, 4800, 24, 4)) {
+			assertEquals(200, queue.get_block_bytes());
+			assertEquals(150, queue.get_run_size());
+
+			for (long value = 1000; value > 0; value--) {
+				queue.add(value);
+			}
+			assertTrue(queue.get_runs_written() > 4);
+			for (long value = 1; value <= 1000; value++) {
+				assertEquals(value, (long) queue.dequeue());
+			}
+		}
+
+		try {
+			ExternalPriorityQueue.withMemoryBudget(ElementCodec.LONG, null, directory, 40, 24, 4);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Spills and merges reuse the queue's blocks rather than allocating new
+	 * direct buffers: at most fanIn + 1 read blocks and one write block.
+	 */
+	@Test
+	public void test_blocks_reused() throws IOException {
+		try (ExternalPriorityQueue<Integer> queue = new ExternalPriorityQueue<>(ElementCodec.INTEGER, directory, 2, 3,
+				16)) {
+			long before = directBufferCount();
+			for (int value = 0; value < 2000; value++) {
+				queue.add(value);
+			}
+			for (int value = 0; value < 2000; value++) {
+				assertEquals(value, (int) queue.dequeue());
+			}
+			assertTrue(queue.get_runs_written() > 1000);
+			assertTrue(directBufferCount() - before <= 3 + 1);
+		}
+	}
+
+	private static long directBufferCount() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				return pool.getCount();
+			}
+		}
+		throw new IllegalStateException("No direct buffer pool");
+	}
+
+	private long countFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package cs2420;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * I/O volume and timing experiments for ExternalPriorityQueue, pushing up to
+ * ten times as many items as its memory budget holds through the queue.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ *
+ */
+public class ExternalTiming {
+
+	// Bytes the queue may use for buffered items and blocks.
+	public static final long MEMORY_BYTES = 64L << 20;
+
+	// Estimated heap bytes per buffered Long: the object plus its array slot.
+	public static final int ITEM_BYTES = 24;
+
+	// Multiples of what fits in MEMORY_BYTES pushed through the queue.
+	public static final int MAX_MULTIPLE = 10;
+
+	// Merge fan-in.
+	public static final int FAN_IN = 64;
+
+	/**
+	 * Add N random longs then dequeue them all, recording time and bytes moved
+	 * to and from disk.
+	 */
+	public static void testSpillAndMerge(Path directory) throws IOException {
+		StringBuilder externalTimes = new StringBuilder();
+		Random generator = new Random();
+
+		for (int multiple = 1; multiple <= MAX_MULTIPLE; multiple++) {
+			long n = MEMORY_BYTES / ITEM_BYTES * multiple;
+
+			try (ExternalPriorityQueue<Long> queue = ExternalPriorityQueue.withMemoryBudget(ElementCodec.LONG, null,
+					directory, MEMORY_BYTES, ITEM_BYTES, FAN_IN)) {
+				long startTime = System.nanoTime();
+				for (long index = 0; index < n; index++) {
+					queue.add(generator.nextLong());
+				}
+				long addTime = (System.nanoTime() - startTime) / 1000000;
+
+				startTime = System.nanoTime();
+				for (long index = 0; index < n; index++) {
+					queue.dequeue();
+				}
+				long dequeueTime = (System.nanoTime() - startTime) / 1000000;
+
+				String row = n + "," + addTime + "," + dequeueTime + "," + queue.get_bytes_written() + ","
+						+ queue.get_bytes_read() + "," + queue.get_runs_written();
+				externalTimes.append(row + "\n");
+				System.out.println(row);
+			}
+		}
+
+		Timing.sendToFile(externalTimes, "externalTimes.csv");
+	}
+
+	public static void main(String args[]) throws IOException {
+		Path directory = Files.createTempDirectory("heap-runs");
+		try {
+			testSpillAndMerge(directory);
+		} finally {
+			Files.deleteIfExists(directory);
+		}
+	}
+}
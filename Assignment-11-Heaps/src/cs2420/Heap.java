@@ -1,400 +1,1581 @@
-package cs2420;
-
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.Comparator;
-import java.util.NoSuchElementException;
-
-/**
- * Represents a priority queue of generically-typed items. The queue is
- * implemented as a min heap.
- * 
- * The min heap is implemented implicitly as an array.
- * 
- * @author Roman Clark and Mark Van der Merwe
- */
-public class Heap<Type> implements Priority_Queue<Type> {
-
-	/**
-	 * The number of elements in the heap (NOT: the capacity of the array)
-	 */
-	private int size;
-
-	/**
-	 * The implementation array used to store heap values.
-	 * 
-	 * NOTE: the capacity of the array will be larger (or equal) to the size (of
-	 * the heap).
-	 * 
-	 * WARNING: to simplify math, you are to use a 1 INDEXED array. (this means
-	 * you ignore 0 bucket) and the capacity of the array has to be 1 larger
-	 */
-	private Type[] heap_array;
-
-	/**
-	 * If the user provides a comparator, use it instead of default comparable
-	 */
-	private Comparator<? super Type> comparator;
-
-	/**
-	 * Keep track of the number of element swaps done through insertions,
-	 * deletions, building heaps, etc.
-	 */
-	private int swaps;
-
-	/**
-	 * Constructs an empty priority queue. Orders elements according to their
-	 * natural ordering (i.e., AnyType is expected to be Comparable)
-	 * 
-	 * AnyType is not forced to be Comparable.
-	 */
-	@SuppressWarnings("unchecked")
-	public Heap() {
-		size = 0;
-		comparator = null;
-		heap_array = (Type[]) new Object[10];
-	}
-
-	/**
-	 * Construct an empty priority queue with a specified comparator.
-	 * 
-	 * Orders elements according to the input Comparator (i.e., AnyType need not
-	 * be Comparable).
-	 */
-	@SuppressWarnings("unchecked")
-	public Heap(Comparator<? super Type> c) {
-		super();
-		comparator = c;
-		heap_array = (Type[]) new Object[10];
-	}
-
-	/**
-	 * Removes and returns the minimum item in this priority queue.
-	 * 
-	 * @throws NoSuchElementException
-	 *             if this priority queue is empty. (Runs in logarithmic time.)
-	 */
-	public Type dequeue() throws NoSuchElementException {
-		// if the heap is empty, throw a NoSuchElementException
-		if (size == 0) {
-			throw new NoSuchElementException();
-		}
-
-		// store the minimum item so that it may be returned at the end
-		Type minItem = heap_array[1];
-
-		// replace the item at minIndex with the last item in the tree
-		swap(1, size);
-		// heap_array[size] = null;
-
-		// update size
-		size--;
-
-		// percolate the item at minIndex down the tree until heap order is
-		// restored
-		percolateDown(1);
-
-		// return the minimum item that was stored
-		return minItem;
-	}
-
-	/**
-	 * Adds an item to this priority queue. (Runs in logarithmic time.) Can
-	 * sometimes terminate early.
-	 * 
-	 * WARNING: make sure you use the compare method defined for you below
-	 * 
-	 * @param x
-	 *            -- the item to be inserted
-	 */
-	public void add(Type x) {
-		// if the array is full, double its capacity
-		if (heap_array.length - 1 == size) {
-			resize();
-		}
-
-		// add the new item to the next available node in the tree, so that
-		// complete tree structure is maintained
-		heap_array[size + 1] = x;
-
-		// update size
-		size++;
-
-		// percolate the new item up the levels of the tree until heap order is
-		// restored
-		percolateUp(size);
-	}
-
-	/**
-	 * Move provided index up the array until it is at correct position relative
-	 * to those around it.
-	 * 
-	 * @param index
-	 *            - index to percolate up.
-	 */
-	private void percolateUp(int index) {
-		Type element = heap_array[index];
-
-		// while its parent is greater than it, swap them.
-		while (index > 1 && compare(element, heap_array[index / 2]) < 0) {
-			swap(index, index / 2);
-			index = index / 2;
-		}
-
-	}
-
-	/**
-	 * If element at index is greater than its children, percolate down until in
-	 * correct position relative to those around it.
-	 * 
-	 * @param index
-	 *            - Initial location of element to percolate down
-	 */
-	private void percolateDown(int index) {
-
-		// If no children, can't percolate down further
-		if (index * 2 > size) {
-			return;
-		}
-
-		Type element = heap_array[index];
-
-		// Find minimum element between two children
-		int compIndex = minElement(index * 2, index * 2 + 1);
-
-		// Continually swap parent with minimum child if children larger than
-		// parent
-		// If minElement returns -1, no children so break loop.
-		while (index < size && (compIndex == -1 ? false : compare(element, heap_array[compIndex]) > 0)) {
-			swap(index, compIndex);
-			index = compIndex;
-			compIndex = minElement(index * 2, index * 2 + 1);
-		}
-	}
-
-	/**
-	 * Finds the minimum element at two indices in the heap array and returns
-	 * its location
-	 * 
-	 * @param index1
-	 *            - Location of first element
-	 * @param index2
-	 *            - Location of second element - should be next element after
-	 *            index1.
-	 * @return - Location of minimum, -1 if no children.
-	 */
-	public int minElement(int index1, int index2) {
-		// If illegal index throw new exception.
-		if (index1 < 1 || index2 < 1) {
-			throw new NoSuchElementException();
-		}
-
-		if (index1 > size) {
-			// If index1 above size, no children.
-			return -1;
-		} else if (index2 > size) {
-			// If index2 above size, one child hence one min.
-			return index1;
-		} else {
-			// If both are
-			Type element1 = heap_array[index1];
-			Type element2 = heap_array[index2];
-			if (compare(element1, element2) > 0) {
-				return index2;
-			}
-			return index1;
-		}
-	}
-
-	/**
-	 * Swaps two provided items.
-	 * 
-	 * @param index1
-	 *            - index of first item.
-	 * @param index2
-	 *            - index of second item.
-	 */
-	public void swap(int index1, int index2) {
-		Type element1 = heap_array[index1];
-		heap_array[index1] = heap_array[index2];
-		heap_array[index2] = element1;
-		swaps++;
-	}
-
-	/**
-	 * Resizes backing array by doubling capacity.
-	 */
-	@SuppressWarnings("unchecked")
-	public void resize() {
-		// New capacity is twice the size of old.
-		Type[] newArray = (Type[]) new Object[2 * heap_array.length];
-
-		// Copy over old elements.
-		for (int index = 1; index < heap_array.length; index++) {
-			newArray[index] = heap_array[index];
-		}
-
-		heap_array = newArray;
-	}
-
-	/**
-	 * Generates a DOT file for visualizing the binary heap.
-	 */
-	public void generateDotFile(String filename) {
-		try (PrintWriter out = new PrintWriter(filename)) {
-			out.println(this);
-		} catch (IOException e) {
-			System.out.println(e);
-		}
-	}
-
-	/**
-	 * Internal method for comparing lhs and rhs using Comparator if provided by
-	 * the user at construction time, or Comparable, if no Comparator was
-	 * provided.
-	 */
-	@SuppressWarnings("unchecked")
-	private int compare(Type lhs, Type rhs) {
-		if (comparator == null) {
-			return ((Comparable<? super Type>) lhs).compareTo(rhs); // safe to
-																	// ignore
-																	// warning
-		}
-
-		// We won't test your code on non-Comparable types if we didn't supply a
-		// Comparator
-		return comparator.compare(lhs, rhs);
-	}
-
-	/**
-	 * @return a copy of the array used in the heap
-	 */
-	public Object[] toArray() {
-		Object[] copy_of_array = new Object[size + 1];
-
-		for (int i = 1; i <= size; i++) {
-			copy_of_array[i] = heap_array[i];
-		}
-
-		return copy_of_array;
-	}
-
-	/**
-	 * @return a string representing the DOT data of the heap
-	 * 
-	 *         This can be further augmented to print out any instrumented
-	 *         values that you think are important. Note: To allow them not to
-	 *         conflict with the DOT notation, simply preface them with the //
-	 *         comment characters: e.g., "// numbers of insertions: 1234"
-	 */
-	@Override
-	public String toString() {
-		String result = "digraph Heap {\n\tnode [shape=record]\n";
-		for (int i = 1; i <= size; i++) {
-			result += "\tnode" + i + " [label = \"<f0> |<f1> " + heap_array[i] + "|<f2> \"]\n";
-			if (((i * 2)) <= size)
-				result += "\tnode" + i + ":f0 -> node" + ((i * 2)) + ":f1\n";
-			if (((i * 2) + 1) <= size)
-				result += "\tnode" + i + ":f2 -> node" + ((i * 2) + 1) + ":f1\n";
-		}
-		result += "}";
-
-		result += "\n//--------------------------------------------\n" + "// Additional Info: \n" + "Size: " + size
-				+ "\n" + "Capacity of backing array: " + heap_array.length + "\n" + "Swaps: " + swaps;
-
-		return result;
-	}
-
-	////////////////////////////////////////////////////////////////////////////
-	/**
-	 * 1) copy data from array into heap storage 2) do an "in place" creation of
-	 * the heap
-	 * 
-	 * @param array
-	 *            - random data (unordered)
-	 */
-	@SuppressWarnings("unchecked")
-	public void build_heap_from_array(Type[] array) {
-		// Create a new empty heap_array with one greater size for the null 0th
-		// index
-		this.heap_array = (Type[]) new Object[array.length + 1];
-		// Add all values from the array to the heap_array
-		for (int index = 1; index < heap_array.length; index++) {
-			heap_array[index] = array[index - 1];
-		}
-		size = array.length;
-		int halfway = size / 2;
-		// Starting halfway down the heap and moving up towards root, percolate
-		// every node down to the correct position
-		for (int index = halfway; index > 0; index--) {
-			percolateDown(index);
-		}
-
-	}
-
-	/**
-	 * convert the heap array into a sorted array from largest to smallest
-	 * 
-	 * Note: this destroys the heap property of the array and should be a
-	 * terminal operation, which is not what we would likely do in a real
-	 * program, but is appropriate to for our purposes (i.e., understanding how
-	 * heap sort works in place).
-	 * 
-	 */
-	public void heap_sort() {
-		int tempSize = size;
-
-		// Dequeue every element in the array
-		while (size > 0) {
-			dequeue();
-		}
-
-		this.size = tempSize;
-	}
-	////////////////////////////////////////////////////////////////////////////
-
-	/**
-	 * Reset swap count for timing analysis
-	 */
-	public void clear_swaps() {
-		swaps = 0;
-	}
-
-	public int get_swaps() {
-		return swaps;
-	}
-
-	/**
-	 * Return the value of the smallest item in our heap.
-	 * 
-	 * @return - smallest value, null if empty.
-	 */
-	@Override
-	public Type peek() {
-		if (size == 0) {
-			return null;
-		}
-		return heap_array[1];
-	}
-
-	/**
-	 * Returns the number of elements in the heap.
-	 */
-	@Override
-	public int size() {
-		return size;
-	}
-
-	/**
-	 * Clear the heap.
-	 */
-	@Override
-	@SuppressWarnings("unchecked")
-	public void clear() {
-
-		heap_array = (Type[]) new Object[10];
-		size = 0;
-
-	}
-
+package cs2420;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Represents a priority queue of generically-typed items. The queue is
+ * implemented as a min heap.
+ * 
+ * The min heap is implemented implicitly as an array. By default the heap is
+ * binary, but any arity d >= 2 can be requested at construction time. The
+ * children of the node at index i live contiguously at d*(i-1)+2 through
+ * d*i+1, so a wider heap is shallower (about log_d(n) levels) and each
+ * percolateDown step reads one run of adjacent siblings.
+ * 
+ * Items that compare equal come out in no particular order, unless the heap is
+ * constructed as stable: then each item is stamped with an insertion sequence
+ * in an int array parallel to heap_array, and ties are dequeued first in,
+ * first out. Sequences wrap around and are compared by their difference, and
+ * the live items are renumbered every 2^30 insertions, so a long-lived queue
+ * keeps its order indefinitely (as long as it holds fewer than 2^30 items).
+ * 
+ * The contents can be read without copying or dequeuing, in array order
+ * through spliterator and stream, or in ascending order through
+ * sortedIterator and sortedStream. These views are fail-fast: once the heap
+ * is modified, using them throws ConcurrentModificationException.
+ * 
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class Heap<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * Subtrees with fewer nodes than this are heapified without forking by
+	 * parallel builds.
+	 */
+	static final int PARALLEL_BUILD_THRESHOLD = 1 << 14;
+
+	/**
+	 * Stable heaps renumber their sequences after this many insertions, which
+	 * keeps the age difference between any two live items below 2^31.
+	 */
+	static final int SEQUENCE_RENUMBER_INTERVAL = 1 << 30;
+
+	/**
+	 * The longest backing array to allocate; some JVMs reserve header words
+	 * in arrays, so lengths right up to Integer.MAX_VALUE can fail.
+	 */
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Snapshot files start with "HEAP" and a format version.
+	 */
+	private static final int SNAPSHOT_MAGIC = 0x48454150;
+	private static final int SNAPSHOT_VERSION = 1;
+
+	/**
+	 * Magic, version, arity, flags, element width, size, next sequence and
+	 * sequences stamped since the last renumber, as ints.
+	 */
+	private static final int SNAPSHOT_HEADER_BYTES = 8 * Integer.BYTES;
+
+	/**
+	 * Header flag: every element is followed by its int insertion sequence.
+	 */
+	private static final int SNAPSHOT_STABLE = 1;
+
+	/**
+	 * Snapshots are written and read through a direct buffer of about this
+	 * size, so memory use does not grow with the heap.
+	 */
+	private static final int SNAPSHOT_BLOCK_BYTES = 1 << 20;
+
+	/**
+	 * The number of elements in the heap (NOT: the capacity of the array)
+	 */
+	private int size;
+
+	/**
+	 * The implementation array used to store heap values.
+	 * 
+	 * NOTE: the capacity of the array will be larger (or equal) to the size (of
+	 * the heap).
+	 * 
+	 * WARNING: to simplify math, you are to use a 1 INDEXED array. (this means
+	 * you ignore 0 bucket) and the capacity of the array has to be 1 larger
+	 */
+	private Type[] heap_array;
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private Comparator<? super Type> comparator;
+
+	/**
+	 * The number of children per node (2 for a binary heap).
+	 */
+	private final int arity;
+
+	/**
+	 * In a stable heap, the insertion sequence of the item at each index of
+	 * heap_array; null otherwise.
+	 */
+	private int[] sequences;
+
+	/**
+	 * The sequence stamped on the next item inserted into a stable heap.
+	 * Package-private so tests can start it near the wraparound.
+	 */
+	int nextSequence;
+
+	/**
+	 * Sequences stamped since the last renumber, and how many trigger the next
+	 * (package-private for tests).
+	 */
+	private int stampedSinceRenumber;
+	int renumberInterval = SEQUENCE_RENUMBER_INTERVAL;
+
+	/**
+	 * Keep track of the number of element swaps done through insertions,
+	 * deletions, building heaps, etc.
+	 */
+	private long swaps;
+
+	/**
+	 * Keep track of the number of element comparisons, like swaps, but only
+	 * while a listener is attached, so that an unobserved heap pays nothing
+	 * beyond a null check. Listeners are handed per-operation differences.
+	 */
+	private long comparisons;
+
+	/**
+	 * Receives per-operation metrics, or null (the default) to skip recording
+	 * entirely.
+	 */
+	private HeapListener listener;
+
+	/**
+	 * Counts modifications, so iterators and spliterators can detect that the
+	 * heap changed under them.
+	 */
+	private int modCount;
+
+	/**
+	 * Constructs an empty priority queue. Orders elements according to their
+	 * natural ordering (i.e., AnyType is expected to be Comparable)
+	 * 
+	 * AnyType is not forced to be Comparable.
+	 */
+	public Heap() {
+		this(2, null);
+	}
+
+	/**
+	 * Construct an empty priority queue with a specified comparator.
+	 * 
+	 * Orders elements according to the input Comparator (i.e., AnyType need not
+	 * be Comparable).
+	 */
+	public Heap(Comparator<? super Type> c) {
+		this(2, c);
+	}
+
+	/**
+	 * Constructs an empty d-ary priority queue using natural ordering.
+	 * 
+	 * @param arity
+	 *            - number of children per node, typically 2, 4, 8 or 16.
+	 * @throws IllegalArgumentException
+	 *             if arity is less than 2.
+	 */
+	public Heap(int arity) {
+		this(arity, null);
+	}
+
+	/**
+	 * Constructs an empty d-ary priority queue with a specified comparator.
+	 * 
+	 * @param arity
+	 *            - number of children per node, typically 2, 4, 8 or 16.
+	 * @param c
+	 *            - comparator to order elements with, or null for natural
+	 *            ordering.
+	 * @throws IllegalArgumentException
+	 *             if arity is less than 2.
+	 */
+	public Heap(int arity, Comparator<? super Type> c) {
+		this(arity, c, false);
+	}
+
+	/**
+	 * Constructs an empty d-ary priority queue with a specified comparator,
+	 * optionally stable.
+	 * 
+	 * @param arity
+	 *            - number of children per node, typically 2, 4, 8 or 16.
+	 * @param c
+	 *            - comparator to order elements with, or null for natural
+	 *            ordering.
+	 * @param stable
+	 *            - true to dequeue items that compare equal in the order they
+	 *            were added.
+	 * @throws IllegalArgumentException
+	 *             if arity is less than 2.
+	 */
+	@SuppressWarnings("unchecked")
+	public Heap(int arity, Comparator<? super Type> c, boolean stable) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+		}
+		this.arity = arity;
+		size = 0;
+		comparator = c;
+		heap_array = (Type[]) new Object[10];
+		if (stable) {
+			sequences = new int[10];
+		}
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue.
+	 * 
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty. (Runs in logarithmic time.)
+	 */
+	public Type dequeue() throws NoSuchElementException {
+		// if the heap is empty, throw a NoSuchElementException
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+		modCount++;
+
+		// store the minimum item so that it may be returned at the end
+		Type minItem = heap_array[1];
+
+		// replace the item at minIndex with the last item in the tree
+		swap(1, size);
+		// heap_array[size] = null;
+
+		// update size
+		size--;
+
+		// percolate the item at minIndex down the tree until heap order is
+		// restored
+		int depth = percolateDown(1);
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.DEQUEUE, depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+
+		// return the minimum item that was stored
+		return minItem;
+	}
+
+	/**
+	 * Removes and returns the minimum item and adds x in its place, with a
+	 * single percolateDown from the root instead of a dequeue and an add.
+	 * 
+	 * @param x
+	 *            -- the item to be inserted
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty. (Runs in logarithmic time.)
+	 */
+	public Type replace(Type x) throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+
+		modCount++;
+		Type minItem = heap_array[1];
+		heap_array[1] = x;
+		stamp(1, 1);
+		int depth = percolateDown(1);
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.REPLACE, depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+
+		return minItem;
+	}
+
+	/**
+	 * Adds an item to this priority queue. (Runs in logarithmic time.) Can
+	 * sometimes terminate early.
+	 * 
+	 * WARNING: make sure you use the compare method defined for you below
+	 * 
+	 * @param x
+	 *            -- the item to be inserted
+	 */
+	public void add(Type x) {
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+
+		// if the array is full, double its capacity
+		if (heap_array.length - 1 == size) {
+			resize();
+		}
+
+		// add the new item to the next available node in the tree, so that
+		// complete tree structure is maintained
+		heap_array[size + 1] = x;
+
+		// update size
+		size++;
+		modCount++;
+		stamp(size, size);
+
+		// percolate the new item up the levels of the tree until heap order is
+		// restored
+		int depth = percolateUp(size);
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.ADD, depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+	}
+
+	/**
+	 * Adds every item in the array with one resize at most. When the batch is
+	 * at least as large as the heap, the new items are appended and only the
+	 * subtrees containing them are re-heapified bottom-up, as in
+	 * build_heap_from_array (linear in the batch size). Smaller batches are
+	 * percolated up one at a time, which usually stops after a level or two.
+	 * 
+	 * @param items
+	 *            - the items to be inserted
+	 * @throws IllegalArgumentException
+	 *             if the heap cannot grow to hold every item; it is left
+	 *             unchanged.
+	 */
+	@Override
+	public void addAll(Type[] items) {
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+
+		int oldSize = size;
+		ensureCapacity((long) size + items.length);
+		System.arraycopy(items, 0, heap_array, size + 1, items.length);
+		size += items.length;
+		modCount++;
+		stamp(oldSize + 1, size);
+
+		int depth = heapifyAppended(oldSize);
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.BUILD, depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+	}
+
+	/**
+	 * Adds every item in the collection; see addAll(Type[]). The items are
+	 * copied out with toArray first, so a collection that changes size while
+	 * being read can not overrun the space reserved for it.
+	 * 
+	 * @param items
+	 *            - the items to be inserted
+	 * @throws IllegalArgumentException
+	 *             if the heap cannot grow to hold every item; it is left
+	 *             unchanged.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void addAll(Collection<? extends Type> items) {
+		addAll((Type[]) items.toArray());
+	}
+
+	/**
+	 * Adds every item of other to this heap; see mergeAll. other is left
+	 * unchanged.
+	 * 
+	 * @param other
+	 *            - the heap whose items are added.
+	 */
+	public void merge(Heap<? extends Type> other) {
+		mergeAll(other);
+	}
+
+	/**
+	 * Adds every item of each heap in others to this heap in one step, leaving
+	 * the others unchanged.
+	 * 
+	 * The largest heap that already orders its items the way this one does
+	 * (same comparator instance, or both natural ordering, and same arity)
+	 * becomes the base: its array is kept as is, and everything else is
+	 * appended after it in a single allocation. Heap order is then restored
+	 * like addAll: by sifting each appended item up when they are fewer than
+	 * the base, otherwise by a bottom-up heapify. Items of heaps with a
+	 * different comparator or arity are always appended and reordered by this
+	 * heap's comparator, so mixing orderings is safe as long as this heap's
+	 * comparator accepts their items.
+	 * 
+	 * A stable heap is always its own base, and the merged items count as
+	 * inserted by the merge, in no particular order among themselves.
+	 * 
+	 * A heap listed more than once is merged once.
+	 * 
+	 * @param others
+	 *            - the heaps whose items are added.
+	 * @throws IllegalArgumentException
+	 *             if others contains this heap.
+	 */
+	@SafeVarargs
+	@SuppressWarnings("unchecked")
+	public final void mergeAll(Heap<? extends Type>... others) {
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+
+		Heap<? extends Type> base = this;
+		int total = size;
+		IdentityHashMap<Heap<? extends Type>, Boolean> seen = new IdentityHashMap<>();
+		List<Heap<? extends Type>> distinct = new ArrayList<>(others.length);
+		for (Heap<? extends Type> other : others) {
+			if (other == this) {
+				throw new IllegalArgumentException("Cannot merge a heap into itself");
+			}
+			if (seen.put(other, Boolean.TRUE) != null) {
+				continue;
+			}
+			distinct.add(other);
+			total = Math.addExact(total, other.size);
+			if (sequences == null && other.size > base.size && other.arity == arity && Objects.equals(other.comparator, comparator)) {
+				base = other;
+			}
+		}
+
+		int baseSize = base.size;
+		if (base == this) {
+			ensureCapacity(total);
+		} else {
+			Type[] merged = (Type[]) new Object[Math.max(heap_array.length, total + 1)];
+			System.arraycopy(base.heap_array, 1, merged, 1, baseSize);
+			System.arraycopy(heap_array, 1, merged, baseSize + 1, size);
+			if (listener != null) {
+				listener.onResize(heap_array.length, merged.length, size);
+			}
+			heap_array = merged;
+			size += baseSize;
+		}
+		for (Heap<? extends Type> other : distinct) {
+			if (other != base) {
+				System.arraycopy(other.heap_array, 1, heap_array, size + 1, other.size);
+				size += other.size;
+			}
+		}
+
+		modCount++;
+		stamp(baseSize + 1, size);
+		int depth = heapifyAppended(baseSize);
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.BUILD, depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+	}
+
+	/**
+	 * Restores heap order after the items at oldSize+1 through size were
+	 * appended, choosing between sifting each one up and re-heapifying.
+	 * 
+	 * @return total levels the items percolated.
+	 */
+	private int heapifyAppended(int oldSize) {
+		int added = size - oldSize;
+		int depth = 0;
+
+		if (added < oldSize) {
+			for (int index = oldSize + 1; index <= size; index++) {
+				depth += percolateUp(index);
+			}
+			return depth;
+		}
+
+		// Percolate down every ancestor of an appended item exactly once, in
+		// decreasing index order so children are always heaps before their
+		// parent is processed. [low, high] starts as the parents of the
+		// appended items; each next range is the parents of the current one,
+		// minus the indices at or above low that were already processed.
+		int low = parent(oldSize + 1);
+		int high = parent(size);
+		while (true) {
+			for (int index = high; index >= low; index--) {
+				depth += percolateDown(index);
+			}
+			if (low == 1) {
+				break;
+			}
+			high = Math.min(parent(high), low - 1);
+			low = parent(low);
+		}
+		return depth;
+	}
+
+	/**
+	 * Move provided index up the array until it is at correct position relative
+	 * to those around it.
+	 * 
+	 * @param index
+	 *            - index to percolate up.
+	 * @return the number of levels the element moved.
+	 */
+	private int percolateUp(int index) {
+		int depth = 0;
+
+		// while its parent is greater than it, swap them.
+		while (index > 1 && compareAt(index, parent(index)) < 0) {
+			swap(index, parent(index));
+			index = parent(index);
+			depth++;
+		}
+
+		return depth;
+	}
+
+	/**
+	 * If element at index is greater than its children, percolate down until in
+	 * correct position relative to those around it.
+	 * 
+	 * @param index
+	 *            - Initial location of element to percolate down
+	 * @return the number of levels the element moved.
+	 */
+	private int percolateDown(int index) {
+
+		// If no children, can't percolate down further
+		if (firstChild(index) > size) {
+			return 0;
+		}
+
+		// Find minimum element among the children
+		int compIndex = minChild(index);
+
+		// Continually swap parent with minimum child if children larger than
+		// parent
+		// If minChild returns -1, no children so break loop.
+		int depth = 0;
+		while (index < size && (compIndex == -1 ? false : compareAt(index, compIndex) > 0)) {
+			swap(index, compIndex);
+			index = compIndex;
+			compIndex = minChild(index);
+			depth++;
+		}
+		return depth;
+	}
+
+	/**
+	 * Finds the minimum child of the node at index.
+	 * 
+	 * @param index
+	 *            - Location of the parent
+	 * @return - Location of minimum child, -1 if no children.
+	 */
+	private int minChild(int index) {
+		if (arity == 2) {
+			return minElement(index * 2, index * 2 + 1);
+		}
+
+		int first = firstChild(index);
+		if (first > size) {
+			return -1;
+		}
+
+		// Scan the contiguous sibling group, keeping the first of any ties.
+		int last = Math.min(first + arity - 1, size);
+		int minIndex = first;
+		for (int child = first + 1; child <= last; child++) {
+			if (compareAt(minIndex, child) > 0) {
+				minIndex = child;
+			}
+		}
+		return minIndex;
+	}
+
+	/**
+	 * @return the index of the first child of the node at index.
+	 */
+	private int firstChild(int index) {
+		return arity * (index - 1) + 2;
+	}
+
+	/**
+	 * @return the index of the parent of the node at index (index > 1).
+	 */
+	private int parent(int index) {
+		return (index - 2) / arity + 1;
+	}
+
+	/**
+	 * Finds the minimum element at two indices in the heap array and returns
+	 * its location
+	 * 
+	 * @param index1
+	 *            - Location of first element
+	 * @param index2
+	 *            - Location of second element - should be next element after
+	 *            index1.
+	 * @return - Location of minimum, -1 if no children.
+	 */
+	public int minElement(int index1, int index2) {
+		// If illegal index throw new exception.
+		if (index1 < 1 || index2 < 1) {
+			throw new NoSuchElementException();
+		}
+
+		if (index1 > size) {
+			// If index1 above size, no children.
+			return -1;
+		} else if (index2 > size) {
+			// If index2 above size, one child hence one min.
+			return index1;
+		} else {
+			// If both are
+			if (compareAt(index1, index2) > 0) {
+				return index2;
+			}
+			return index1;
+		}
+	}
+
+	/**
+	 * Swaps two provided items.
+	 * 
+	 * @param index1
+	 *            - index of first item.
+	 * @param index2
+	 *            - index of second item.
+	 */
+	public void swap(int index1, int index2) {
+		exchange(index1, index2);
+		swaps++;
+		modCount++;
+	}
+
+	/**
+	 * swap without counting, for parallel builds that count per task. Moves
+	 * the sequences of a stable heap along with the items.
+	 */
+	private void exchange(int index1, int index2) {
+		Type element1 = heap_array[index1];
+		heap_array[index1] = heap_array[index2];
+		heap_array[index2] = element1;
+		if (sequences != null) {
+			int sequence1 = sequences[index1];
+			sequences[index1] = sequences[index2];
+			sequences[index2] = sequence1;
+		}
+	}
+
+	/**
+	 * In a stable heap, stamps the items at from through to with the next
+	 * insertion sequences, in index order, renumbering every item once enough
+	 * sequences have been used. Does nothing in an unstable heap.
+	 */
+	private void stamp(int from, int to) {
+		if (sequences == null) {
+			return;
+		}
+		for (int index = from; index <= to; index++) {
+			sequences[index] = nextSequence++;
+		}
+		stampedSinceRenumber += to - from + 1;
+		if (stampedSinceRenumber >= renumberInterval) {
+			renumber();
+		}
+	}
+
+	/**
+	 * Replaces the sequences of a stable heap with 0 through size-1, keeping
+	 * their order, so the oldest item is at most size insertions older than the
+	 * next. Runs in n log n time once every 2^30 insertions.
+	 */
+	private void renumber() {
+		long[] byAge = new long[size];
+		for (int index = 1; index <= size; index++) {
+			// Every live item is less than 2^31 insertions old, so its age
+			// relative to nextSequence is a negative int even across the
+			// wraparound.
+			byAge[index - 1] = ((long) (sequences[index] - nextSequence) << 32) | index;
+		}
+		Arrays.sort(byAge);
+		for (int rank = 0; rank < size; rank++) {
+			sequences[(int) byAge[rank]] = rank;
+		}
+		nextSequence = size;
+		stampedSinceRenumber = 0;
+	}
+
+	/**
+	 * Resizes backing array by doubling capacity.
+	 */
+	@SuppressWarnings("unchecked")
+	public void resize() {
+		// New capacity is twice the size of old.
+		Type[] newArray = (Type[]) new Object[2 * heap_array.length];
+
+		// Copy over old elements.
+		for (int index = 1; index < heap_array.length; index++) {
+			newArray[index] = heap_array[index];
+		}
+		if (sequences != null) {
+			sequences = Arrays.copyOf(sequences, newArray.length);
+		}
+
+		if (listener != null) {
+			listener.onResize(heap_array.length, newArray.length, heap_array.length - 1);
+		}
+
+		heap_array = newArray;
+	}
+
+	/**
+	 * Grows the backing array, at least doubling it up to the largest array
+	 * the JVM reliably allocates, so that it can hold minSize elements.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if minSize elements can never fit.
+	 */
+	@SuppressWarnings("unchecked")
+	private void ensureCapacity(long minSize) {
+		if (heap_array.length - 1 >= minSize) {
+			return;
+		}
+		if (minSize > MAX_ARRAY_LENGTH - 1) {
+			throw new IllegalArgumentException("Heap cannot hold " + minSize + " items");
+		}
+
+		int length = (int) Math.min(Math.max(2L * heap_array.length, minSize + 1), MAX_ARRAY_LENGTH);
+		Type[] newArray = (Type[]) new Object[length];
+		System.arraycopy(heap_array, 1, newArray, 1, size);
+		if (sequences != null) {
+			sequences = Arrays.copyOf(sequences, newArray.length);
+		}
+
+		if (listener != null) {
+			listener.onResize(heap_array.length, newArray.length, size);
+		}
+
+		heap_array = newArray;
+	}
+
+	/**
+	 * Generates a DOT file for visualizing the binary heap.
+	 */
+	public void generateDotFile(String filename) {
+		try (PrintWriter out = new PrintWriter(filename)) {
+			out.println(this);
+		} catch (IOException e) {
+			System.out.println(e);
+		}
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	private int compare(Type lhs, Type rhs) {
+		if (listener != null) {
+			comparisons++;
+		}
+		return compareUncounted(lhs, rhs);
+	}
+
+	/**
+	 * Compares the items at two indices, breaking ties in a stable heap by
+	 * which was inserted first.
+	 */
+	private int compareAt(int index1, int index2) {
+		if (listener != null) {
+			comparisons++;
+		}
+		return compareAtUncounted(index1, index2);
+	}
+
+	/**
+	 * compareAt without counting, for parallel builds that count per task.
+	 */
+	private int compareAtUncounted(int index1, int index2) {
+		int order = compareUncounted(heap_array[index1], heap_array[index2]);
+		if (order == 0 && sequences != null) {
+			// The difference, not Integer.compare, so sequences that wrapped
+			// around still order by age.
+			order = sequences[index1] - sequences[index2];
+		}
+		return order;
+	}
+
+	/**
+	 * compare without counting, for parallel builds that count per task.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compareUncounted(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs); // safe to
+																	// ignore
+																	// warning
+		}
+
+		// We won't test your code on non-Comparable types if we didn't supply a
+		// Comparator
+		return comparator.compare(lhs, rhs);
+	}
+
+	/**
+	 * @return a copy of the array used in the heap
+	 */
+	public Object[] toArray() {
+		Object[] copy_of_array = new Object[size + 1];
+
+		for (int i = 1; i <= size; i++) {
+			copy_of_array[i] = heap_array[i];
+		}
+
+		return copy_of_array;
+	}
+
+	/**
+	 * @return a Spliterator over the items in heap array order (no particular
+	 *         order), without copying. It splits the array in halves for
+	 *         parallel streams.
+	 */
+	public Spliterator<Type> spliterator() {
+		return new HeapSpliterator(1, size + 1, modCount);
+	}
+
+	/**
+	 * @return a sequential Stream of the items in no particular order.
+	 */
+	public Stream<Type> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * @return a parallel Stream of the items in no particular order.
+	 */
+	public Stream<Type> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * Returns an iterator over the items in ascending order that leaves the
+	 * heap untouched. It keeps a frontier of the heap indices whose parents
+	 * have been returned, itself a small binary heap, so reading the first k
+	 * items takes O(k log k) time (times the arity) however large the heap is.
+	 * Ties come out in no particular order, or in insertion order in a stable
+	 * heap.
+	 */
+	public Iterator<Type> sortedIterator() {
+		return new SortedIterator();
+	}
+
+	/**
+	 * @return a lazy, sequential Stream of the items in ascending order; see
+	 *         sortedIterator.
+	 */
+	public Stream<Type> sortedStream() {
+		Iterator<Type> iterator = sortedIterator();
+		int characteristics = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED;
+		return StreamSupport.stream(new Spliterators.AbstractSpliterator<Type>(size, characteristics) {
+			@Override
+			public boolean tryAdvance(Consumer<? super Type> action) {
+				if (!iterator.hasNext()) {
+					return false;
+				}
+				action.accept(iterator.next());
+				return true;
+			}
+
+			@Override
+			public Comparator<? super Type> getComparator() {
+				return comparator;
+			}
+		}, false);
+	}
+
+	/**
+	 * Traverses heap_array from index up to fence, splitting the range in
+	 * halves.
+	 */
+	private final class HeapSpliterator implements Spliterator<Type> {
+		private int index;
+		private final int fence;
+		private final int expectedModCount;
+
+		private HeapSpliterator(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Type> action) {
+			checkForComodification(expectedModCount);
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(heap_array[index++]);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Type> action) {
+			checkForComodification(expectedModCount);
+			Type[] items = heap_array;
+			for (; index < fence; index++) {
+				action.accept(items[index]);
+			}
+			checkForComodification(expectedModCount);
+		}
+
+		@Override
+		public Spliterator<Type> trySplit() {
+			int middle = (index + fence) >>> 1;
+			if (middle <= index) {
+				return null;
+			}
+			HeapSpliterator prefix = new HeapSpliterator(index, middle, expectedModCount);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	/**
+	 * Walks the heap in ascending order with a frontier heap of indices: the
+	 * smallest frontier index is the next item, and returning it adds its
+	 * children to the frontier.
+	 */
+	private final class SortedIterator implements Iterator<Type> {
+		private int[] frontier = new int[16];
+		private int count;
+		private final int expectedModCount = modCount;
+
+		private SortedIterator() {
+			if (size > 0) {
+				frontier[count++] = 1;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return count > 0;
+		}
+
+		@Override
+		public Type next() {
+			checkForComodification(expectedModCount);
+			if (count == 0) {
+				throw new NoSuchElementException();
+			}
+			int next = frontier[0];
+			count--;
+			if (count > 0) {
+				frontier[0] = frontier[count];
+				siftDown(0);
+			}
+
+			int first = firstChild(next);
+			int last = Math.min(first + arity - 1, size);
+			for (int child = first; child <= last; child++) {
+				if (count == frontier.length) {
+					frontier = Arrays.copyOf(frontier, 2 * count);
+				}
+				frontier[count] = child;
+				siftUp(count++);
+			}
+			return heap_array[next];
+		}
+
+		private void siftUp(int position) {
+			int index = frontier[position];
+			while (position > 0) {
+				int parent = (position - 1) / 2;
+				if (compareAtUncounted(index, frontier[parent]) >= 0) {
+					break;
+				}
+				frontier[position] = frontier[parent];
+				position = parent;
+			}
+			frontier[position] = index;
+		}
+
+		private void siftDown(int position) {
+			int index = frontier[position];
+			int child = 2 * position + 1;
+			while (child < count) {
+				if (child + 1 < count && compareAtUncounted(frontier[child + 1], frontier[child]) < 0) {
+					child++;
+				}
+				if (compareAtUncounted(index, frontier[child]) <= 0) {
+					break;
+				}
+				frontier[position] = frontier[child];
+				position = child;
+				child = 2 * position + 1;
+			}
+			frontier[position] = index;
+		}
+	}
+
+	/**
+	 * @throws ConcurrentModificationException
+	 *             if the heap was modified since expectedModCount was read.
+	 */
+	private void checkForComodification(int expectedModCount) {
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * @return a string representing the DOT data of the heap
+	 * 
+	 *         This can be further augmented to print out any instrumented
+	 *         values that you think are important. Note: To allow them not to
+	 *         conflict with the DOT notation, simply preface them with the //
+	 *         comment characters: e.g., "// numbers of insertions: 1234"
+	 */
+	@Override
+	public String toString() {
+		String result = "digraph Heap {\n\tnode [shape=record]\n";
+		for (int i = 1; i <= size; i++) {
+			result += "\tnode" + i + " [label = \"<f0> |<f1> " + heap_array[i] + "|<f2> \"]\n";
+			// Leftmost child hangs off f0, rightmost off f2, any others off f1.
+			for (int k = 0; k < arity && firstChild(i) + k <= size; k++) {
+				String port = k == 0 ? "f0" : (k == arity - 1 ? "f2" : "f1");
+				result += "\tnode" + i + ":" + port + " -> node" + (firstChild(i) + k) + ":f1\n";
+			}
+		}
+		result += "}";
+
+		result += "\n//--------------------------------------------\n" + "// Additional Info: \n" + "Size: " + size
+				+ "\n" + "Arity: " + arity + "\n" + "Capacity of backing array: " + heap_array.length + "\n" + "Swaps: "
+				+ swaps;
+
+		return result;
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	/**
+	 * 1) copy data from array into heap storage 2) do an "in place" creation of
+	 * the heap
+	 * 
+	 * @param array
+	 *            - random data (unordered)
+	 */
+	@SuppressWarnings("unchecked")
+	public void build_heap_from_array(Type[] array) {
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+
+		// Create a new empty heap_array with one greater size for the null 0th
+		// index
+		this.heap_array = (Type[]) new Object[array.length + 1];
+		// Add all values from the array to the heap_array
+		for (int index = 1; index < heap_array.length; index++) {
+			heap_array[index] = array[index - 1];
+		}
+		size = array.length;
+		modCount++;
+		if (sequences != null) {
+			sequences = new int[heap_array.length];
+			stamp(1, size);
+		}
+		int halfway = parent(size + 1);
+		// Starting at the last parent and moving up towards root, percolate
+		// every node down to the correct position
+		int depth = 0;
+		for (int index = halfway; index > 0; index--) {
+			depth += percolateDown(index);
+		}
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.BUILD, depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+	}
+
+	/**
+	 * Builds this heap from array like build_heap_from_array, but heapifies
+	 * disjoint subtrees concurrently on pool. Each task heapifies the subtrees
+	 * under its children (forking those that are still large) and then
+	 * percolates its own root down, so the top levels are finished
+	 * sequentially once everything below them is a heap. The result, swaps and
+	 * comparisons are the same as build_heap_from_array.
+	 * 
+	 * @param array
+	 *            - the items to build the heap from (copied).
+	 * @param pool
+	 *            - pool to run on, e.g. ForkJoinPool.commonPool().
+	 */
+	@SuppressWarnings("unchecked")
+	public void parallel_build_heap_from_array(Type[] array, ForkJoinPool pool) {
+		Type[] owned = (Type[]) new Object[array.length + 1];
+		System.arraycopy(array, 0, owned, 1, array.length);
+		build_heap_from_owned_array(owned, array.length, pool);
+	}
+
+	/**
+	 * Builds this heap directly in the caller's array without copying it. The
+	 * heap takes ownership of array: it becomes the backing array (1 INDEXED,
+	 * items at 1 through count, index 0 ignored) and must not be used by the
+	 * caller afterwards.
+	 * 
+	 * @param array
+	 *            - 1 indexed items to build the heap from.
+	 * @param count
+	 *            - the number of items, at most array.length - 1.
+	 * @param pool
+	 *            - pool to build on, or null to build on this thread.
+	 * @throws IllegalArgumentException
+	 *             if count does not fit in array.
+	 */
+	public void build_heap_from_owned_array(Type[] array, int count, ForkJoinPool pool) {
+		if (count < 0 || count >= array.length) {
+			throw new IllegalArgumentException("Count " + count + " does not fit in array of length " + array.length);
+		}
+		long startTime = listener == null ? 0 : System.nanoTime();
+		long startComparisons = comparisons;
+
+		heap_array = array;
+		size = count;
+		modCount++;
+		if (sequences != null) {
+			sequences = new int[array.length];
+			stamp(1, size);
+		}
+
+		// Subtrees at most this tall are heapified without forking.
+		int height = 0;
+		for (long nodes = 1; nodes < PARALLEL_BUILD_THRESHOLD; nodes *= arity) {
+			height++;
+		}
+
+		BuildTask root = new BuildTask(1, height);
+		if (size > 0) {
+			if (pool == null) {
+				root.compute();
+			} else {
+				pool.invoke(root);
+			}
+		}
+		swaps += root.swaps;
+		comparisons += root.comparisons;
+
+		if (listener != null) {
+			listener.onOperation(HeapListener.Operation.BUILD, root.depth, comparisons - startComparisons,
+					System.nanoTime() - startTime, size);
+		}
+	}
+
+	/**
+	 * Heapifies the subtree rooted at one node, keeping its own counts so
+	 * concurrent tasks never share the swaps and comparisons fields.
+	 */
+	private final class BuildTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int root;
+		private final int sequentialHeight;
+		private long swaps;
+		private long comparisons;
+		private final boolean counting = listener != null;
+		private int depth;
+
+		private BuildTask(int root, int sequentialHeight) {
+			this.root = root;
+			this.sequentialHeight = sequentialHeight;
+		}
+
+		@Override
+		protected void compute() {
+			if (subtreeHeight(root) <= sequentialHeight || getPool() == null) {
+				heapify(root);
+				return;
+			}
+
+			int first = firstChild(root);
+			int last = Math.min(first + arity - 1, size);
+			List<BuildTask> children = new ArrayList<>(last - first + 1);
+			for (int child = first; child <= last; child++) {
+				children.add(new BuildTask(child, sequentialHeight));
+			}
+			invokeAll(children);
+			for (BuildTask child : children) {
+				swaps += child.swaps;
+				comparisons += child.comparisons;
+				depth += child.depth;
+			}
+			depth += percolateDown(root);
+		}
+
+		/**
+		 * Heapifies every subtree below index, then percolates index down.
+		 */
+		private void heapify(int index) {
+			int first = firstChild(index);
+			if (first > size) {
+				return;
+			}
+			int last = Math.min(first + arity - 1, size);
+			for (int child = first; child <= last; child++) {
+				heapify(child);
+			}
+			depth += percolateDown(index);
+		}
+
+		/**
+		 * Heap.percolateDown, counting into this task.
+		 */
+		private int percolateDown(int index) {
+			int levels = 0;
+			int first = firstChild(index);
+			while (first <= size) {
+				int last = Math.min(first + arity - 1, size);
+				int minIndex = first;
+				for (int child = first + 1; child <= last; child++) {
+					if (counting) {
+						comparisons++;
+					}
+					if (compareAtUncounted(minIndex, child) > 0) {
+						minIndex = child;
+					}
+				}
+				if (counting) {
+					comparisons++;
+				}
+				if (compareAtUncounted(index, minIndex) <= 0) {
+					break;
+				}
+				exchange(index, minIndex);
+				swaps++;
+				levels++;
+				index = minIndex;
+				first = firstChild(index);
+			}
+			return levels;
+		}
+
+		/**
+		 * @return the number of levels from index down to the deepest leaf.
+		 */
+		private int subtreeHeight(int index) {
+			int height = 1;
+			for (int first = firstChild(index); first <= size; first = firstChild(first)) {
+				height++;
+			}
+			return height;
+		}
+	}
+
+	/**
+	 * Writes the heap to path (replacing any existing file) as a snapshot that
+	 * restore can load in linear time. The heap array is written as is, in
+	 * index order, so no ordering work is done. (Runs in linear time.)
+	 * 
+	 * The format is big-endian: a header of SNAPSHOT_HEADER_BYTES, then size
+	 * records of codec.width() bytes (each followed by its 4-byte insertion
+	 * sequence if the heap is stable), then a CRC32C of everything before it
+	 * as 8 bytes. Records are streamed through a fixed-size buffer.
+	 * 
+	 * @param path
+	 *            - file to write.
+	 * @param codec
+	 *            - encodes each element in a fixed number of bytes.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	public void snapshot(Path path, ElementCodec<? super Type> codec) throws IOException {
+		int width = codec.width();
+		boolean stable = sequences != null;
+		int recordBytes = width + (stable ? Integer.BYTES : 0);
+		CRC32C checksum = new CRC32C();
+
+		try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer block = ByteBuffer.allocateDirect(Math.max(SNAPSHOT_BLOCK_BYTES, SNAPSHOT_HEADER_BYTES + recordBytes));
+			block.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(arity).putInt(stable ? SNAPSHOT_STABLE : 0)
+					.putInt(width).putInt(size).putInt(nextSequence).putInt(stampedSinceRenumber);
+			for (int index = 1; index <= size; index++) {
+				if (block.remaining() < recordBytes) {
+					writeBlock(out, block, checksum);
+				}
+				codec.write(block, heap_array[index]);
+				if (stable) {
+					block.putInt(sequences[index]);
+				}
+			}
+			writeBlock(out, block, checksum);
+
+			block.putLong(checksum.getValue());
+			block.flip();
+			while (block.hasRemaining()) {
+				out.write(block);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the contents of this heap with a snapshot written by a heap of
+	 * the same arity and ordering. The array is loaded as is, without
+	 * re-heapifying, so the snapshot must come from a heap that ordered its
+	 * items the way this one does. (Runs in linear time.)
+	 * 
+	 * A stable heap keeps the insertion order recorded by a stable snapshot;
+	 * items from an unstable snapshot count as inserted in array order. If the
+	 * snapshot is rejected, this heap is left unchanged.
+	 * 
+	 * @param path
+	 *            - file written by snapshot.
+	 * @param codec
+	 *            - decodes elements; must match the codec used to write.
+	 * @throws IOException
+	 *             if the file cannot be read, is not a snapshot, is truncated,
+	 *             or fails its checksum.
+	 * @throws IllegalArgumentException
+	 *             if the snapshot's arity or element width differs from this
+	 *             heap's or the codec's.
+	 */
+	@SuppressWarnings("unchecked")
+	public void restore(Path path, ElementCodec<? extends Type> codec) throws IOException {
+		try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+			CRC32C checksum = new CRC32C();
+			ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+			readBlock(in, header, checksum);
+			if (header.getInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("Not a heap snapshot: " + path);
+			}
+			int version = header.getInt();
+			if (version != SNAPSHOT_VERSION) {
+				throw new IOException("Unsupported heap snapshot version: " + version);
+			}
+			int snapshotArity = header.getInt();
+			boolean snapshotStable = (header.getInt() & SNAPSHOT_STABLE) != 0;
+			int width = header.getInt();
+			int count = header.getInt();
+			int snapshotNextSequence = header.getInt();
+			int snapshotStamped = header.getInt();
+			if (snapshotArity != arity) {
+				throw new IllegalArgumentException("Snapshot of a " + snapshotArity + "-ary heap cannot be restored into a "
+						+ arity + "-ary heap");
+			}
+			if (width != codec.width()) {
+				throw new IllegalArgumentException(
+						"Snapshot elements are " + width + " bytes but the codec reads " + codec.width());
+			}
+			int recordBytes = width + (snapshotStable ? Integer.BYTES : 0);
+			if (count < 0 || in.size() != SNAPSHOT_HEADER_BYTES + (long) count * recordBytes + Long.BYTES) {
+				throw new IOException("Truncated or corrupt heap snapshot: " + path);
+			}
+
+			boolean keepSequences = snapshotStable && sequences != null;
+			Type[] restored = (Type[]) new Object[count + 1];
+			int[] restoredSequences = keepSequences ? new int[count + 1] : null;
+			ByteBuffer block = ByteBuffer
+					.allocateDirect(Math.max(recordBytes, SNAPSHOT_BLOCK_BYTES - SNAPSHOT_BLOCK_BYTES % recordBytes));
+			int index = 1;
+			while (index <= count) {
+				block.clear();
+				block.limit((int) Math.min(block.capacity(), (long) (count - index + 1) * recordBytes));
+				readBlock(in, block, checksum);
+				while (block.hasRemaining()) {
+					restored[index] = codec.read(block);
+					if (keepSequences) {
+						restoredSequences[index] = block.getInt();
+					} else if (snapshotStable) {
+						block.getInt();
+					}
+					index++;
+				}
+			}
+
+			ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+			readBlock(in, trailer, null);
+			if (trailer.getLong() != checksum.getValue()) {
+				throw new IOException("Heap snapshot checksum mismatch: " + path);
+			}
+
+			heap_array = restored;
+			size = count;
+			modCount++;
+			if (keepSequences) {
+				sequences = restoredSequences;
+				nextSequence = snapshotNextSequence;
+				stampedSinceRenumber = snapshotStamped;
+			} else if (sequences != null) {
+				sequences = new int[count + 1];
+				stamp(1, size);
+			}
+		}
+	}
+
+	/**
+	 * Writes out a filled block, adding it to the checksum, and clears it.
+	 */
+	private static void writeBlock(FileChannel out, ByteBuffer block, CRC32C checksum) throws IOException {
+		block.flip();
+		checksum.update(block.duplicate());
+		while (block.hasRemaining()) {
+			out.write(block);
+		}
+		block.clear();
+	}
+
+	/**
+	 * Fills the block up to its limit, adds it to the checksum (if any) and
+	 * flips it for reading.
+	 * 
+	 * @throws EOFException
+	 *             if the file ends first.
+	 */
+	private static void readBlock(FileChannel in, ByteBuffer block, CRC32C checksum) throws IOException {
+		while (block.hasRemaining()) {
+			if (in.read(block) < 0) {
+				throw new EOFException("Heap snapshot ended early");
+			}
+		}
+		block.flip();
+		if (checksum != null) {
+			checksum.update(block.duplicate());
+		}
+	}
+
+	/**
+	 * convert the heap array into a sorted array from largest to smallest
+	 * 
+	 * Note: this destroys the heap property of the array and should be a
+	 * terminal operation, which is not what we would likely do in a real
+	 * program, but is appropriate to for our purposes (i.e., understanding how
+	 * heap sort works in place).
+	 * 
+	 */
+	public void heap_sort() {
+		int tempSize = size;
+
+		// Dequeue every element in the array
+		while (size > 0) {
+			dequeue();
+		}
+
+		this.size = tempSize;
+	}
+	////////////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Reset swap count for timing analysis
+	 */
+	public void clear_swaps() {
+		swaps = 0;
+	}
+
+	public long get_swaps() {
+		return swaps;
+	}
+
+	/**
+	 * Reset comparison count for timing analysis. Comparisons are only
+	 * counted while a listener is attached.
+	 */
+	public void clear_comparisons() {
+		comparisons = 0;
+	}
+
+	/**
+	 * Comparisons are only counted while a listener is attached (see
+	 * setListener); with none attached this count does not change.
+	 *
+	 * @return comparisons made while a listener was attached, since the last
+	 *         clear_comparisons.
+	 */
+	public long get_comparisons() {
+		return comparisons;
+	}
+
+	/**
+	 * Attach a listener that receives metrics for every add, dequeue, build
+	 * and resize, or pass null to stop recording.
+	 */
+	public void setListener(HeapListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @return the attached listener, or null if none.
+	 */
+	public HeapListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Return the value of the smallest item in our heap.
+	 * 
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		if (size == 0) {
+			return null;
+		}
+		return heap_array[1];
+	}
+
+	/**
+	 * Returns true if items that compare equal are dequeued in insertion
+	 * order.
+	 */
+	public boolean is_stable() {
+		return sequences != null;
+	}
+
+	/**
+	 * Returns the number of children per node.
+	 */
+	public int get_arity() {
+		return arity;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+
+		heap_array = (Type[]) new Object[10];
+		if (sequences != null) {
+			sequences = new int[10];
+		}
+		size = 0;
+		modCount++;
+
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package cs2420;
+
+/**
+ * Receives metrics from a Heap as it works. Attach one with
+ * Heap.setListener; when no listener is attached the heap skips recording.
+ *
+ * Callbacks run on the thread using the heap, inside the operation, so they
+ * should be cheap.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public interface HeapListener {
+
+	/**
+	 * The heap operations that are reported. REPLACE is a dequeue and an add
+	 * done as one percolateDown, so it is counted as neither.
+	 */
+	public enum Operation {
+		ADD, DEQUEUE, BUILD, REPLACE;
+	}
+
+	/**
+	 * Called after each add, dequeue, replace and build_heap_from_array.
+	 *
+	 * @param operation
+	 *            - which operation completed.
+	 * @param depth
+	 *            - levels the element percolated (for BUILD, the total over
+	 *            every percolateDown).
+	 * @param comparisons
+	 *            - element comparisons the operation made.
+	 * @param nanos
+	 *            - time the operation took.
+	 * @param size
+	 *            - heap size afterwards.
+	 */
+	public void onOperation(Operation operation, int depth, long comparisons, long nanos, int size);
+
+	/**
+	 * Called when the backing array grows.
+	 *
+	 * @param oldCapacity
+	 *            - old array length.
+	 * @param newCapacity
+	 *            - new array length.
+	 * @param elementsCopied
+	 *            - element references copied into the new array; multiply
+	 *            by the JVM's reference size (4 bytes with compressed oops,
+	 *            otherwise 8) for bytes copied.
+	 */
+	public void onResize(int oldCapacity, int newCapacity, int elementsCopied);
+}
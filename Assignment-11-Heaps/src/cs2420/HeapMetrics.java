@@ -0,0 +1,219 @@
+package cs2420;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A HeapListener that aggregates what a Heap reports: operation counts,
+ * comparisons, percolation depth histograms, latency histograms, resizes and
+ * peak size. The heap records from its own thread; snapshot() may be called
+ * from any thread.
+ *
+ * Latencies are kept in power-of-two nanosecond buckets, so percentiles are
+ * reported as the upper bound of the bucket they fall in.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class HeapMetrics implements HeapListener {
+
+	/**
+	 * Histogram buckets per operation, enough for any int depth or long
+	 * latency.
+	 */
+	private static final int BUCKETS = 64;
+
+	private static final int OPERATIONS = Operation.values().length;
+
+	/**
+	 * Latency percentiles exported as the summary's quantiles, with their
+	 * labels written out so they print exactly.
+	 */
+	private static final double[] QUANTILE_PERCENTILES = { 50, 90, 99, 99.9 };
+	private static final String[] QUANTILE_LABELS = { "0.5", "0.9", "0.99", "0.999" };
+
+	private final AtomicLongArray counts = new AtomicLongArray(OPERATIONS);
+	private final AtomicLongArray comparisons = new AtomicLongArray(OPERATIONS);
+	private final AtomicLongArray depths = new AtomicLongArray(OPERATIONS * BUCKETS);
+	private final AtomicLongArray depthTotals = new AtomicLongArray(OPERATIONS);
+	private final AtomicLongArray latencies = new AtomicLongArray(OPERATIONS * BUCKETS);
+	private final AtomicLongArray latencyTotals = new AtomicLongArray(OPERATIONS);
+	private final LongAdder resizes = new LongAdder();
+	private final LongAdder elementsCopied = new LongAdder();
+	private final AtomicInteger peakSize = new AtomicInteger();
+
+	@Override
+	public void onOperation(Operation operation, int depth, long operationComparisons, long nanos, int size) {
+		int op = operation.ordinal();
+		counts.incrementAndGet(op);
+		comparisons.addAndGet(op, operationComparisons);
+		depths.incrementAndGet(op * BUCKETS + Math.min(depth, BUCKETS - 1));
+		depthTotals.addAndGet(op, depth);
+		latencies.incrementAndGet(op * BUCKETS + latencyBucket(nanos));
+		latencyTotals.addAndGet(op, nanos);
+		if (size > peakSize.get()) {
+			peakSize.accumulateAndGet(size, Math::max);
+		}
+	}
+
+	@Override
+	public void onResize(int oldCapacity, int newCapacity, int copied) {
+		resizes.increment();
+		elementsCopied.add(copied);
+	}
+
+	/**
+	 * @return a consistent-enough copy of the current metrics.
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+
+	/**
+	 * Bucket b holds latencies in [2^(b-1), 2^b) nanoseconds; bucket 0 holds 0.
+	 */
+	private static int latencyBucket(long nanos) {
+		return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+	}
+
+	/**
+	 * An immutable copy of HeapMetrics at one point in time.
+	 */
+	public static final class Snapshot {
+		private final long[] counts = new long[OPERATIONS];
+		private final long[] comparisons = new long[OPERATIONS];
+		private final long[][] depths = new long[OPERATIONS][BUCKETS];
+		private final long[] depthTotals = new long[OPERATIONS];
+		private final long[][] latencies = new long[OPERATIONS][BUCKETS];
+		private final long[] latencyTotals = new long[OPERATIONS];
+		private final long resizes;
+		private final long elementsCopied;
+		private final int peakSize;
+
+		private Snapshot(HeapMetrics metrics) {
+			for (int op = 0; op < OPERATIONS; op++) {
+				counts[op] = metrics.counts.get(op);
+				comparisons[op] = metrics.comparisons.get(op);
+				depthTotals[op] = metrics.depthTotals.get(op);
+				latencyTotals[op] = metrics.latencyTotals.get(op);
+				for (int bucket = 0; bucket < BUCKETS; bucket++) {
+					depths[op][bucket] = metrics.depths.get(op * BUCKETS + bucket);
+					latencies[op][bucket] = metrics.latencies.get(op * BUCKETS + bucket);
+				}
+			}
+			resizes = metrics.resizes.sum();
+			elementsCopied = metrics.elementsCopied.sum();
+			peakSize = metrics.peakSize.get();
+		}
+
+		/**
+		 * @return how many times operation ran.
+		 */
+		public long count(Operation operation) {
+			return counts[operation.ordinal()];
+		}
+
+		/**
+		 * @return total comparisons made by operation.
+		 */
+		public long comparisons(Operation operation) {
+			return comparisons[operation.ordinal()];
+		}
+
+		/**
+		 * @return mean comparisons per call of operation, 0 if never called.
+		 */
+		public double meanComparisons(Operation operation) {
+			long count = count(operation);
+			return count == 0 ? 0 : (double) comparisons(operation) / count;
+		}
+
+		/**
+		 * @return histogram of percolation depth: element d counts calls that
+		 *         moved d levels (the last element also counts deeper ones).
+		 */
+		public long[] depthHistogram(Operation operation) {
+			return depths[operation.ordinal()].clone();
+		}
+
+		/**
+		 * @param percentile
+		 *            - between 0 and 100.
+		 * @return an upper bound in nanoseconds on the given latency percentile
+		 *         of operation, 0 if never called.
+		 */
+		public long latencyPercentile(Operation operation, double percentile) {
+			long[] histogram = latencies[operation.ordinal()];
+			long target = (long) Math.ceil(count(operation) * percentile / 100.0);
+			long seen = 0;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				seen += histogram[bucket];
+				if (seen >= target && seen > 0) {
+					return bucket == 0 ? 0 : 1L << Math.min(bucket, 62);
+				}
+			}
+			return 0;
+		}
+
+		public long resizes() {
+			return resizes;
+		}
+
+		public long elementsCopied() {
+			return elementsCopied;
+		}
+
+		public int peakSize() {
+			return peakSize;
+		}
+
+		/**
+		 * @return these metrics in the Prometheus text exposition format, each
+		 *         metric name starting with prefix. Latency is a summary of
+		 *         bucket upper bounds; depth is a histogram with a cumulative
+		 *         bucket for every depth up to 62, then +Inf.
+		 */
+		public String toPrometheus(String prefix) {
+			StringBuilder out = new StringBuilder();
+			out.append("# TYPE " + prefix + "_operations_total counter\n");
+			for (Operation operation : Operation.values()) {
+				out.append(prefix + "_operations_total{op=\"" + operation + "\"} " + count(operation) + "\n");
+			}
+			out.append("# TYPE " + prefix + "_comparisons_total counter\n");
+			for (Operation operation : Operation.values()) {
+				out.append(prefix + "_comparisons_total{op=\"" + operation + "\"} " + comparisons(operation) + "\n");
+			}
+			out.append("# TYPE " + prefix + "_latency_nanos summary\n");
+			for (Operation operation : Operation.values()) {
+				for (int quantile = 0; quantile < QUANTILE_LABELS.length; quantile++) {
+					out.append(prefix + "_latency_nanos{op=\"" + operation + "\",quantile=\"" + QUANTILE_LABELS[quantile]
+							+ "\"} " + latencyPercentile(operation, QUANTILE_PERCENTILES[quantile]) + "\n");
+				}
+				out.append(prefix + "_latency_nanos_sum{op=\"" + operation + "\"} " + latencyTotals[operation.ordinal()]
+						+ "\n");
+				out.append(prefix + "_latency_nanos_count{op=\"" + operation + "\"} " + count(operation) + "\n");
+			}
+			out.append("# TYPE " + prefix + "_depth histogram\n");
+			for (Operation operation : Operation.values()) {
+				long cumulative = 0;
+				long[] histogram = depths[operation.ordinal()];
+				for (int bucket = 0; bucket < BUCKETS - 1; bucket++) {
+					cumulative += histogram[bucket];
+					out.append(prefix + "_depth_bucket{op=\"" + operation + "\",le=\"" + bucket + "\"} " + cumulative
+							+ "\n");
+				}
+				out.append(prefix + "_depth_bucket{op=\"" + operation + "\",le=\"+Inf\"} " + count(operation) + "\n");
+				out.append(prefix + "_depth_sum{op=\"" + operation + "\"} " + depthTotals[operation.ordinal()] + "\n");
+				out.append(prefix + "_depth_count{op=\"" + operation + "\"} " + count(operation) + "\n");
+			}
+			out.append("# TYPE " + prefix + "_resizes_total counter\n");
+			out.append(prefix + "_resizes_total " + resizes + "\n");
+			out.append("# TYPE " + prefix + "_resize_elements_copied_total counter\n");
+			out.append(prefix + "_resize_elements_copied_total " + elementsCopied + "\n");
+			out.append("# TYPE " + prefix + "_peak_size gauge\n");
+			out.append(prefix + "_peak_size " + peakSize + "\n");
+			return out.toString();
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+package cs2420;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves a HeapMetrics snapshot over HTTP at /metrics in the Prometheus text
+ * format, so a scraper can collect it.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class HeapMetricsExporter implements AutoCloseable {
+
+	private final HttpServer server;
+
+	/**
+	 * Starts serving metrics on port of the loopback address only (0 picks a
+	 * free port).
+	 *
+	 * @param metrics
+	 *            - the metrics to export.
+	 * @param prefix
+	 *            - prefix for every metric name, e.g. "job_queue".
+	 * @throws IOException
+	 *             if the port cannot be bound.
+	 */
+	public HeapMetricsExporter(HeapMetrics metrics, String prefix, int port) throws IOException {
+		this(metrics, prefix, InetAddress.getLoopbackAddress(), port);
+	}
+
+	/**
+	 * Starts serving metrics on port of the given local address (0 picks a
+	 * free port). Pass a wildcard address to expose them on every interface.
+	 *
+	 * @param address
+	 *            - the local address to listen on.
+	 * @throws IOException
+	 *             if the port cannot be bound.
+	 */
+	public HeapMetricsExporter(HeapMetrics metrics, String prefix, InetAddress address, int port)
+			throws IOException {
+		server = HttpServer.create(new InetSocketAddress(address, port), 0);
+		server.createContext("/metrics", exchange -> {
+			byte[] body = metrics.snapshot().toPrometheus(prefix).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+	}
+
+	/**
+	 * @return the address being served.
+	 */
+	public InetAddress getAddress() {
+		return server.getAddress().getAddress();
+	}
+
+	/**
+	 * @return the port being served.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops serving.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
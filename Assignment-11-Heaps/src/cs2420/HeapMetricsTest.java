@@ -0,0 +1,161 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import cs2420.HeapListener.Operation;
+
+/**
+ * Testing that Heap reports accurate metrics to HeapMetrics and that they can
+ * be exported.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class HeapMetricsTest {
+
+	/**
+	 * Counts, depths, resizes and peak size for a known sequence.
+	 */
+	@Test
+	public void test_recorded_metrics() {
+		Heap<Integer> heap = new Heap<>();
+		HeapMetrics metrics = new HeapMetrics();
+		heap.setListener(metrics);
+
+		// Descending inserts each percolate all the way to the root.
+		for (int value = 20; value > 0; value--) {
+			heap.add(value);
+		}
+		heap.dequeue();
+
+		HeapMetrics.Snapshot snapshot = metrics.snapshot();
+		assertEquals(20, snapshot.count(Operation.ADD));
+		assertEquals(1, snapshot.count(Operation.DEQUEUE));
+		assertEquals(20, snapshot.peakSize());
+		assertEquals(heap.get_comparisons(),
+				snapshot.comparisons(Operation.ADD) + snapshot.comparisons(Operation.DEQUEUE));
+
+		// Sizes 1..20 have depths 0,1,1,2,2,2,2,3x8,4x5.
+		long[] depths = snapshot.depthHistogram(Operation.ADD);
+		assertEquals(1, depths[0]);
+		assertEquals(2, depths[1]);
+		assertEquals(4, depths[2]);
+		assertEquals(8, depths[3]);
+		assertEquals(5, depths[4]);
+
+		// Capacity 10 holds 9, grows to 20, then to 40.
+		assertEquals(2, snapshot.resizes());
+		assertEquals(9 + 19, snapshot.elementsCopied());
+
+		assertTrue(snapshot.latencyPercentile(Operation.ADD, 99) >= snapshot.latencyPercentile(Operation.ADD, 50));
+		assertEquals(0, snapshot.latencyPercentile(Operation.BUILD, 99));
+	}
+
+	/**
+	 * replace is recorded as its own operation, not as a dequeue without a
+	 * matching add.
+	 */
+	@Test
+	public void test_replace_metrics() {
+		Heap<Integer> heap = new Heap<>();
+		HeapMetrics metrics = new HeapMetrics();
+		heap.build_heap_from_array(new Integer[] { 1, 2, 3, 4, 5, 6, 7 });
+		heap.setListener(metrics);
+
+		// Each new item belongs at the bottom, so percolates 2 levels.
+		assertEquals(Integer.valueOf(1), heap.replace(10));
+		assertEquals(Integer.valueOf(2), heap.replace(11));
+
+		HeapMetrics.Snapshot snapshot = metrics.snapshot();
+		assertEquals(2, snapshot.count(Operation.REPLACE));
+		assertEquals(0, snapshot.count(Operation.DEQUEUE));
+		assertEquals(0, snapshot.count(Operation.ADD));
+		assertEquals(2, snapshot.depthHistogram(Operation.REPLACE)[2]);
+		assertEquals(0, snapshot.depthHistogram(Operation.DEQUEUE)[2]);
+		assertEquals(heap.get_comparisons(), snapshot.comparisons(Operation.REPLACE));
+		assertTrue(metrics.snapshot().toPrometheus("h").contains("h_operations_total{op=\"REPLACE\"} 2\n"));
+	}
+
+	/**
+	 * Detaching the listener stops recording.
+	 */
+	@Test
+	public void test_detach_listener() {
+		Heap<Integer> heap = new Heap<>();
+		HeapMetrics metrics = new HeapMetrics();
+		heap.setListener(metrics);
+		heap.build_heap_from_array(new Integer[] { 3, 2, 1 });
+		heap.setListener(null);
+		heap.add(0);
+
+		assertNull(heap.getListener());
+		assertEquals(1, metrics.snapshot().count(Operation.BUILD));
+		assertEquals(0, metrics.snapshot().count(Operation.ADD));
+
+		// Without a listener, comparisons are not counted either.
+		long comparisons = heap.get_comparisons();
+		assertTrue(comparisons > 0);
+		heap.add(-1);
+		heap.dequeue();
+		assertEquals(comparisons, heap.get_comparisons());
+	}
+
+	/**
+	 * Quantile labels print exactly, and the depth histogram has every
+	 * cumulative bucket plus _sum and _count.
+	 */
+	@Test
+	public void test_prometheus_format() {
+		Heap<Integer> heap = new Heap<>();
+		HeapMetrics metrics = new HeapMetrics();
+		heap.setListener(metrics);
+		// Depths 0, 1, 1, 2.
+		for (int value = 4; value > 0; value--) {
+			heap.add(value);
+		}
+
+		String body = metrics.snapshot().toPrometheus("h");
+		assertTrue(body.contains("h_latency_nanos{op=\"ADD\",quantile=\"0.999\"} "));
+		assertFalse(body.contains("0.9990000000000001"));
+		assertTrue(body.contains("h_latency_nanos_count{op=\"ADD\"} 4\n"));
+
+		assertTrue(body.contains("h_depth_bucket{op=\"ADD\",le=\"0\"} 1\n"));
+		assertTrue(body.contains("h_depth_bucket{op=\"ADD\",le=\"1\"} 3\n"));
+		assertTrue(body.contains("h_depth_bucket{op=\"ADD\",le=\"2\"} 4\n"));
+		assertTrue(body.contains("h_depth_bucket{op=\"ADD\",le=\"62\"} 4\n"));
+		assertTrue(body.contains("h_depth_bucket{op=\"ADD\",le=\"+Inf\"} 4\n"));
+		assertTrue(body.contains("h_depth_sum{op=\"ADD\"} 4\n"));
+		assertTrue(body.contains("h_depth_count{op=\"ADD\"} 4\n"));
+		// Operations that never ran still get every bucket.
+		assertTrue(body.contains("h_depth_bucket{op=\"BUILD\",le=\"0\"} 0\n"));
+		assertTrue(body.contains("h_depth_count{op=\"BUILD\"} 0\n"));
+	}
+
+	/**
+	 * The exporter serves the Prometheus text format.
+	 */
+	@Test
+	public void test_exporter() throws IOException {
+		Heap<Integer> heap = new Heap<>();
+		HeapMetrics metrics = new HeapMetrics();
+		heap.setListener(metrics);
+		heap.add(1);
+
+		try (HeapMetricsExporter exporter = new HeapMetricsExporter(metrics, "test_heap", 0)) {
+			assertTrue(exporter.getAddress().isLoopbackAddress());
+			URL url = new URL("http://localhost:" + exporter.getPort() + "/metrics");
+			try (InputStream in = url.openStream()) {
+				String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+				assertTrue(body.contains("test_heap_operations_total{op=\"ADD\"} 1"));
+				assertTrue(body.contains("test_heap_peak_size 1"));
+			}
+		}
+	}
+
+}
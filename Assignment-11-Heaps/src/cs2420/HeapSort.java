@@ -0,0 +1,470 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Static, in-place heapsort over caller-owned arrays.
+ *
+ * sort builds a max heap over the array with the same bottom-up percolateDown
+ * pass as Heap.build_heap_from_array, then repeatedly moves the root to the
+ * end of the shrinking heap. It allocates nothing and sorts ascending by the
+ * given ordering; pass a reversed comparator (e.g., Comparator.reverseOrder()
+ * or IntComparator.natural().reversed()) for descending order. Heapsort is
+ * not stable.
+ *
+ * parallelSort heapsorts chunks of the array concurrently on the common
+ * ForkJoinPool and merges neighbouring chunks, which needs one scratch array
+ * as long as the input.
+ *
+ * Arrays here are 0 INDEXED: the children of i are 2i+1 and 2i+2.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public final class HeapSort {
+
+	/**
+	 * Chunks at or below this length are heapsorted without splitting.
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	private HeapSort() {
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// Objects
+
+	/**
+	 * Sorts array ascending by natural ordering.
+	 */
+	public static <Type extends Comparable<? super Type>> void sort(Type[] array) {
+		sort(array, 0, array.length, Comparator.naturalOrder());
+	}
+
+	/**
+	 * Sorts array ascending by comparator.
+	 */
+	public static <Type> void sort(Type[] array, Comparator<? super Type> c) {
+		sort(array, 0, array.length, c);
+	}
+
+	/**
+	 * Sorts array[from..to) ascending by comparator.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             if from..to is not a range of array; array is untouched.
+	 */
+	public static <Type> void sort(Type[] array, int from, int to, Comparator<? super Type> c) {
+		Objects.checkFromToIndex(from, to, array.length);
+		int length = to - from;
+		for (int index = length / 2 - 1; index >= 0; index--) {
+			percolateDown(array, from, index, length, c);
+		}
+		for (int end = length - 1; end > 0; end--) {
+			Type max = array[from];
+			array[from] = array[from + end];
+			array[from + end] = max;
+			percolateDown(array, from, 0, end, c);
+		}
+	}
+
+	/**
+	 * Sorts array ascending by natural ordering using every core.
+	 */
+	public static <Type extends Comparable<? super Type>> void parallelSort(Type[] array) {
+		parallelSort(array, Comparator.naturalOrder());
+	}
+
+	/**
+	 * Sorts array ascending by comparator using every core.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <Type> void parallelSort(Type[] array, Comparator<? super Type> c) {
+		if (array.length <= PARALLEL_THRESHOLD) {
+			sort(array, c);
+			return;
+		}
+		Type[] scratch = (Type[]) new Object[array.length];
+		ForkJoinPool.commonPool().invoke(new ObjectSortTask<>(array, scratch, 0, array.length, c));
+	}
+
+	/**
+	 * Moves the element at index (relative to from) down the max heap of the
+	 * given length, shifting larger children up into the hole.
+	 */
+	private static <Type> void percolateDown(Type[] array, int from, int index, int length,
+			Comparator<? super Type> c) {
+		Type element = array[from + index];
+		int child = 2 * index + 1;
+		while (child < length) {
+			if (child + 1 < length && c.compare(array[from + child + 1], array[from + child]) > 0) {
+				child++;
+			}
+			if (c.compare(element, array[from + child]) >= 0) {
+				break;
+			}
+			array[from + index] = array[from + child];
+			index = child;
+			child = 2 * index + 1;
+		}
+		array[from + index] = element;
+	}
+
+	private static final class ObjectSortTask<Type> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Type[] array;
+		private final Type[] scratch;
+		private final int from;
+		private final int to;
+		private final Comparator<? super Type> c;
+
+		private ObjectSortTask(Type[] array, Type[] scratch, int from, int to, Comparator<? super Type> c) {
+			this.array = array;
+			this.scratch = scratch;
+			this.from = from;
+			this.to = to;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				sort(array, from, to, c);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new ObjectSortTask<>(array, scratch, from, mid, c),
+					new ObjectSortTask<>(array, scratch, mid, to, c));
+
+			// Merge: copy the left run aside, then merge it with the right run.
+			System.arraycopy(array, from, scratch, from, mid - from);
+			int left = from, right = mid, out = from;
+			while (left < mid && right < to) {
+				array[out++] = c.compare(array[right], scratch[left]) < 0 ? array[right++] : scratch[left++];
+			}
+			System.arraycopy(scratch, left, array, out, mid - left);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// ints
+
+	/**
+	 * Sorts array ascending.
+	 */
+	public static void sort(int[] array) {
+		sort(array, 0, array.length, IntComparator.natural());
+	}
+
+	/**
+	 * Sorts array ascending by comparator.
+	 */
+	public static void sort(int[] array, IntComparator c) {
+		sort(array, 0, array.length, c);
+	}
+
+	/**
+	 * Sorts array[from..to) ascending by comparator.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             if from..to is not a range of array; array is untouched.
+	 */
+	public static void sort(int[] array, int from, int to, IntComparator c) {
+		Objects.checkFromToIndex(from, to, array.length);
+		int length = to - from;
+		for (int index = length / 2 - 1; index >= 0; index--) {
+			percolateDown(array, from, index, length, c);
+		}
+		for (int end = length - 1; end > 0; end--) {
+			int max = array[from];
+			array[from] = array[from + end];
+			array[from + end] = max;
+			percolateDown(array, from, 0, end, c);
+		}
+	}
+
+	/**
+	 * Sorts array ascending using every core.
+	 */
+	public static void parallelSort(int[] array) {
+		parallelSort(array, IntComparator.natural());
+	}
+
+	/**
+	 * Sorts array ascending by comparator using every core.
+	 */
+	public static void parallelSort(int[] array, IntComparator c) {
+		if (array.length <= PARALLEL_THRESHOLD) {
+			sort(array, c);
+			return;
+		}
+		ForkJoinPool.commonPool().invoke(new IntSortTask(array, new int[array.length], 0, array.length, c));
+	}
+
+	private static void percolateDown(int[] array, int from, int index, int length, IntComparator c) {
+		int element = array[from + index];
+		int child = 2 * index + 1;
+		while (child < length) {
+			if (child + 1 < length && c.compare(array[from + child + 1], array[from + child]) > 0) {
+				child++;
+			}
+			if (c.compare(element, array[from + child]) >= 0) {
+				break;
+			}
+			array[from + index] = array[from + child];
+			index = child;
+			child = 2 * index + 1;
+		}
+		array[from + index] = element;
+	}
+
+	private static final class IntSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] array;
+		private final int[] scratch;
+		private final int from;
+		private final int to;
+		private final IntComparator c;
+
+		private IntSortTask(int[] array, int[] scratch, int from, int to, IntComparator c) {
+			this.array = array;
+			this.scratch = scratch;
+			this.from = from;
+			this.to = to;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				sort(array, from, to, c);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new IntSortTask(array, scratch, from, mid, c), new IntSortTask(array, scratch, mid, to, c));
+
+			System.arraycopy(array, from, scratch, from, mid - from);
+			int left = from, right = mid, out = from;
+			while (left < mid && right < to) {
+				array[out++] = c.compare(array[right], scratch[left]) < 0 ? array[right++] : scratch[left++];
+			}
+			System.arraycopy(scratch, left, array, out, mid - left);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// longs
+
+	/**
+	 * Sorts array ascending.
+	 */
+	public static void sort(long[] array) {
+		sort(array, 0, array.length, LongComparator.natural());
+	}
+
+	/**
+	 * Sorts array ascending by comparator.
+	 */
+	public static void sort(long[] array, LongComparator c) {
+		sort(array, 0, array.length, c);
+	}
+
+	/**
+	 * Sorts array[from..to) ascending by comparator.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             if from..to is not a range of array; array is untouched.
+	 */
+	public static void sort(long[] array, int from, int to, LongComparator c) {
+		Objects.checkFromToIndex(from, to, array.length);
+		int length = to - from;
+		for (int index = length / 2 - 1; index >= 0; index--) {
+			percolateDown(array, from, index, length, c);
+		}
+		for (int end = length - 1; end > 0; end--) {
+			long max = array[from];
+			array[from] = array[from + end];
+			array[from + end] = max;
+			percolateDown(array, from, 0, end, c);
+		}
+	}
+
+	/**
+	 * Sorts array ascending using every core.
+	 */
+	public static void parallelSort(long[] array) {
+		parallelSort(array, LongComparator.natural());
+	}
+
+	/**
+	 * Sorts array ascending by comparator using every core.
+	 */
+	public static void parallelSort(long[] array, LongComparator c) {
+		if (array.length <= PARALLEL_THRESHOLD) {
+			sort(array, c);
+			return;
+		}
+		ForkJoinPool.commonPool().invoke(new LongSortTask(array, new long[array.length], 0, array.length, c));
+	}
+
+	private static void percolateDown(long[] array, int from, int index, int length, LongComparator c) {
+		long element = array[from + index];
+		int child = 2 * index + 1;
+		while (child < length) {
+			if (child + 1 < length && c.compare(array[from + child + 1], array[from + child]) > 0) {
+				child++;
+			}
+			if (c.compare(element, array[from + child]) >= 0) {
+				break;
+			}
+			array[from + index] = array[from + child];
+			index = child;
+			child = 2 * index + 1;
+		}
+		array[from + index] = element;
+	}
+
+	private static final class LongSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final long[] array;
+		private final long[] scratch;
+		private final int from;
+		private final int to;
+		private final LongComparator c;
+
+		private LongSortTask(long[] array, long[] scratch, int from, int to, LongComparator c) {
+			this.array = array;
+			this.scratch = scratch;
+			this.from = from;
+			this.to = to;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				sort(array, from, to, c);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new LongSortTask(array, scratch, from, mid, c), new LongSortTask(array, scratch, mid, to, c));
+
+			System.arraycopy(array, from, scratch, from, mid - from);
+			int left = from, right = mid, out = from;
+			while (left < mid && right < to) {
+				array[out++] = c.compare(array[right], scratch[left]) < 0 ? array[right++] : scratch[left++];
+			}
+			System.arraycopy(scratch, left, array, out, mid - left);
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////////////
+	// doubles
+
+	/**
+	 * Sorts array ascending (in Double.compare order).
+	 */
+	public static void sort(double[] array) {
+		sort(array, 0, array.length, DoubleComparator.natural());
+	}
+
+	/**
+	 * Sorts array ascending by comparator.
+	 */
+	public static void sort(double[] array, DoubleComparator c) {
+		sort(array, 0, array.length, c);
+	}
+
+	/**
+	 * Sorts array[from..to) ascending by comparator.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             if from..to is not a range of array; array is untouched.
+	 */
+	public static void sort(double[] array, int from, int to, DoubleComparator c) {
+		Objects.checkFromToIndex(from, to, array.length);
+		int length = to - from;
+		for (int index = length / 2 - 1; index >= 0; index--) {
+			percolateDown(array, from, index, length, c);
+		}
+		for (int end = length - 1; end > 0; end--) {
+			double max = array[from];
+			array[from] = array[from + end];
+			array[from + end] = max;
+			percolateDown(array, from, 0, end, c);
+		}
+	}
+
+	/**
+	 * Sorts array ascending using every core.
+	 */
+	public static void parallelSort(double[] array) {
+		parallelSort(array, DoubleComparator.natural());
+	}
+
+	/**
+	 * Sorts array ascending by comparator using every core.
+	 */
+	public static void parallelSort(double[] array, DoubleComparator c) {
+		if (array.length <= PARALLEL_THRESHOLD) {
+			sort(array, c);
+			return;
+		}
+		ForkJoinPool.commonPool().invoke(new DoubleSortTask(array, new double[array.length], 0, array.length, c));
+	}
+
+	private static void percolateDown(double[] array, int from, int index, int length, DoubleComparator c) {
+		double element = array[from + index];
+		int child = 2 * index + 1;
+		while (child < length) {
+			if (child + 1 < length && c.compare(array[from + child + 1], array[from + child]) > 0) {
+				child++;
+			}
+			if (c.compare(element, array[from + child]) >= 0) {
+				break;
+			}
+			array[from + index] = array[from + child];
+			index = child;
+			child = 2 * index + 1;
+		}
+		array[from + index] = element;
+	}
+
+	private static final class DoubleSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final double[] array;
+		private final double[] scratch;
+		private final int from;
+		private final int to;
+		private final DoubleComparator c;
+
+		private DoubleSortTask(double[] array, double[] scratch, int from, int to, DoubleComparator c) {
+			this.array = array;
+			this.scratch = scratch;
+			this.from = from;
+			this.to = to;
+			this.c = c;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				sort(array, from, to, c);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new DoubleSortTask(array, scratch, from, mid, c),
+					new DoubleSortTask(array, scratch, mid, to, c));
+
+			System.arraycopy(array, from, scratch, from, mid - from);
+			int left = from, right = mid, out = from;
+			while (left < mid && right < to) {
+				array[out++] = c.compare(array[right], scratch[left]) < 0 ? array[right++] : scratch[left++];
+			}
+			System.arraycopy(scratch, left, array, out, mid - left);
+		}
+	}
+
+}
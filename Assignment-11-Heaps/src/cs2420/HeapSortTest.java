@@ -0,0 +1,133 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testing the static heapsort utility against Arrays.sort.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class HeapSortTest {
+
+	private static final int[] SIZES = { 0, 1, 2, 7, 1000, 3 * HeapSort.PARALLEL_THRESHOLD + 17 };
+
+	/**
+	 * Objects, ascending and descending, sequential and parallel.
+	 */
+	@Test
+	public void test_sort_objects() {
+		Random generator = new Random();
+		for (int size : SIZES) {
+			Integer[] expected = new Integer[size];
+			for (int index = 0; index < size; index++) {
+				expected[index] = generator.nextInt(size + 1);
+			}
+			Integer[] sorted = expected.clone();
+			Integer[] parallel = expected.clone();
+			Integer[] descending = expected.clone();
+			Arrays.sort(expected);
+
+			HeapSort.sort(sorted);
+			HeapSort.parallelSort(parallel);
+			HeapSort.parallelSort(descending, Comparator.reverseOrder());
+			assertArrayEquals(expected, sorted);
+			assertArrayEquals(expected, parallel);
+
+			for (int index = 0; index < size; index++) {
+				assertEquals(expected[index], descending[size - 1 - index]);
+			}
+		}
+	}
+
+	/**
+	 * Primitive arrays, sequential and parallel, plus a reversed comparator.
+	 */
+	@Test
+	public void test_sort_primitives() {
+		Random generator = new Random();
+		for (int size : SIZES) {
+			int[] ints = generator.ints(size).toArray();
+			long[] longs = generator.longs(size).toArray();
+			double[] doubles = generator.doubles(size).toArray();
+			int[] expectedInts = ints.clone();
+			long[] expectedLongs = longs.clone();
+			double[] expectedDoubles = doubles.clone();
+			Arrays.sort(expectedInts);
+			Arrays.sort(expectedLongs);
+			Arrays.sort(expectedDoubles);
+
+			int[] parallelInts = ints.clone();
+			HeapSort.sort(ints);
+			HeapSort.parallelSort(parallelInts);
+			HeapSort.parallelSort(longs);
+			HeapSort.sort(doubles);
+			assertArrayEquals(expectedInts, ints);
+			assertArrayEquals(expectedInts, parallelInts);
+			assertArrayEquals(expectedLongs, longs);
+			assertArrayEquals(expectedDoubles, doubles, 0.0);
+		}
+
+		int[] descending = { 5, 6, 3, 7, 8, 1 };
+		HeapSort.sort(descending, IntComparator.natural().reversed());
+		assertArrayEquals(new int[] { 8, 7, 6, 5, 3, 1 }, descending);
+	}
+
+	/**
+	 * Sorting a range leaves the rest of the array alone.
+	 */
+	@Test
+	public void test_sort_range() {
+		int[] array = { 9, 5, 6, 3, 7, 0 };
+		HeapSort.sort(array, 1, 5, IntComparator.natural());
+		assertArrayEquals(new int[] { 9, 3, 5, 6, 7, 0 }, array);
+	}
+
+	/**
+	 * A range outside the array is rejected before anything moves.
+	 */
+	@Test
+	public void test_sort_bad_range() {
+		int[] ints = { 9, 5, 6, 3, 7, 0 };
+		long[] longs = { 9, 5, 6, 3, 7, 0 };
+		double[] doubles = { 9, 5, 6, 3, 7, 0 };
+		Integer[] objects = { 9, 5, 6, 3, 7, 0 };
+		int[][] ranges = { { 2, 7 }, { 4, 2 }, { -1, 3 } };
+		for (int[] range : ranges) {
+			try {
+				HeapSort.sort(ints, range[0], range[1], IntComparator.natural());
+				fail("Should have thrown IndexOutOfBoundsException");
+			} catch (IndexOutOfBoundsException e) {
+				// Test passes.
+			}
+			try {
+				HeapSort.sort(longs, range[0], range[1], LongComparator.natural());
+				fail("Should have thrown IndexOutOfBoundsException");
+			} catch (IndexOutOfBoundsException e) {
+				// Test passes.
+			}
+			try {
+				HeapSort.sort(doubles, range[0], range[1], DoubleComparator.natural());
+				fail("Should have thrown IndexOutOfBoundsException");
+			} catch (IndexOutOfBoundsException e) {
+				// Test passes.
+			}
+			try {
+				HeapSort.sort(objects, range[0], range[1], Comparator.naturalOrder());
+				fail("Should have thrown IndexOutOfBoundsException");
+			} catch (IndexOutOfBoundsException e) {
+				// Test passes.
+			}
+		}
+		assertArrayEquals(new int[] { 9, 5, 6, 3, 7, 0 }, ints);
+		assertArrayEquals(new long[] { 9, 5, 6, 3, 7, 0 }, longs);
+		assertArrayEquals(new double[] { 9, 5, 6, 3, 7, 0 }, doubles, 0);
+		assertArrayEquals(new Integer[] { 9, 5, 6, 3, 7, 0 }, objects);
+	}
+
+}
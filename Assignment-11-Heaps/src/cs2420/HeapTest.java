@@ -5,8 +5,25 @@ package cs2420;
 
 import static org.junit.Assert.*;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -220,4 +237,564 @@ public class HeapTest {
 
 	}
 
+	/**
+	 * A 4-ary heap keeps the same ordering guarantees with the wider layout.
+	 */
+	@Test
+	public void test_d_ary_layout() {
+		Heap<Integer> quadHeap = new Heap<>(4);
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			quadHeap.add(value);
+		}
+
+		// Root's children are indices 2 through 5, index 6 is a child of 2.
+		assertArrayEquals(new Integer[] { null, 1, 3, 5, 7, 8, 6 }, quadHeap.toArray());
+		assertEquals(1, (int) quadHeap.dequeue());
+		assertEquals(3, (int) quadHeap.peek());
+
+		quadHeap.build_heap_from_array(new Integer[] { 8, 7, 6, 5, 3, 1 });
+		assertArrayEquals(new Integer[] { null, 1, 7, 6, 5, 3, 8 }, quadHeap.toArray());
+	}
+
+	/**
+	 * Many inserts and dequeues across every arity we sweep in Timing.
+	 */
+	@Test
+	public void test_d_ary_insertions_deletions() {
+		Random generator = new Random();
+		for (int arity : Timing.ARITIES) {
+			Heap<Integer> wideHeap = new Heap<>(arity);
+			for (int element = 0; element < 1000; element++) {
+				wideHeap.add(generator.nextInt(1000));
+			}
+
+			int smallest = wideHeap.dequeue();
+			while (wideHeap.size() > 0) {
+				int nextSmallest = wideHeap.dequeue();
+				assertTrue(nextSmallest >= smallest);
+				smallest = nextSmallest;
+			}
+		}
+	}
+
+	/**
+	 * Arity below 2 is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void test_illegal_arity() {
+		new Heap<Integer>(1);
+	}
+
+	/**
+	 * Bulk adds keep heap order whether they sift or re-heapify, including
+	 * on wider heaps.
+	 */
+	@Test
+	public void test_add_all() {
+		Random generator = new Random();
+		for (int arity : Timing.ARITIES) {
+			for (int batch : new int[] { 0, 1, 10, 100, 5000 }) {
+				Heap<Integer> bulkHeap = new Heap<>(arity);
+				for (int element = 0; element < 100; element++) {
+					bulkHeap.add(generator.nextInt(1000));
+				}
+
+				Integer[] items = new Integer[batch];
+				for (int element = 0; element < batch; element++) {
+					items[element] = generator.nextInt(1000);
+				}
+				bulkHeap.addAll(items);
+				bulkHeap.addAll(Arrays.asList(items));
+				assertEquals(100 + 2 * batch, bulkHeap.size());
+
+				int smallest = bulkHeap.dequeue();
+				while (bulkHeap.size() > 0) {
+					int nextSmallest = bulkHeap.dequeue();
+					assertTrue(nextSmallest >= smallest);
+					smallest = nextSmallest;
+				}
+			}
+		}
+
+		// Re-heapifying into an empty heap matches build_heap_from_array.
+		zeroSizeHeap.addAll(new Integer[] { 8, 7, 6, 5, 3, 1 });
+		assertArrayEquals(new Integer[] { null, 1, 3, 6, 5, 7, 8 }, zeroSizeHeap.toArray());
+	}
+
+	/**
+	 * addAll goes by the items a collection actually holds, not the size it
+	 * reports.
+	 */
+	@Test
+	public void test_add_all_misreported_size() {
+		for (int reported : new int[] { 0, 1, 1000 }) {
+			Heap<Integer> bulkHeap = new Heap<>();
+			bulkHeap.add(50);
+			bulkHeap.addAll(new AbstractCollection<Integer>() {
+				@Override
+				public Iterator<Integer> iterator() {
+					return IntStream.range(0, 100).iterator();
+				}
+
+				@Override
+				public int size() {
+					return reported;
+				}
+			});
+			assertEquals(101, bulkHeap.size());
+			for (int expected = 0; expected < 100; expected++) {
+				assertEquals(expected, (int) bulkHeap.dequeue());
+				if (expected == 50) {
+					assertEquals(50, (int) bulkHeap.dequeue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Batch dequeue fills the caller's array in order.
+	 */
+	@Test
+	public void test_dequeue_batch() {
+		Integer[] out = new Integer[4];
+		assertEquals(4, heap.dequeue(4, out));
+		assertArrayEquals(new Integer[] { 1, 3, 5, 6 }, out);
+
+		assertEquals(2, heap.dequeue(4, out));
+		assertEquals(7, (int) out[0]);
+		assertEquals(8, (int) out[1]);
+		assertEquals(0, heap.dequeue(4, out));
+
+		try {
+			oneSizeHeap.dequeue(1, new Integer[0]);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * drainTo hands elements to the consumer in order, up to max.
+	 */
+	@Test
+	public void test_drain_to() {
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(3, heap.drainTo(drained::add, 3));
+		assertEquals(Arrays.asList(1, 3, 5), drained);
+		assertEquals(3, heap.drainTo(drained::add, 10));
+		assertEquals(Arrays.asList(1, 3, 5, 6, 7, 8), drained);
+		assertEquals(0, heap.size());
+	}
+
+	/**
+	 * replace swaps out the minimum with a single percolate down.
+	 */
+	@Test
+	public void test_replace() {
+		assertEquals(1, (int) heap.replace(9));
+		assertArrayEquals(new Integer[] { null, 3, 6, 5, 7, 8, 9 }, heap.toArray());
+		assertEquals(3, (int) heap.replace(0));
+		assertEquals(0, (int) heap.peek());
+
+		try {
+			zeroSizeHeap.replace(1);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * merge and mergeAll combine heaps of any ordering and leave the others
+	 * alone.
+	 */
+	@Test
+	public void test_merge() {
+		Random generator = new Random();
+		Heap<Integer> small = new Heap<>();
+		Heap<Integer> large = new Heap<>();
+		Heap<Integer> reversed = new Heap<>(Comparator.reverseOrder());
+		Heap<Integer> quad = new Heap<>(4);
+		List<Integer> expected = new ArrayList<>(Arrays.asList(5, 6, 3, 7, 8, 1));
+		for (int index = 0; index < 1000; index++) {
+			int value = generator.nextInt(500);
+			Heap<Integer> target = index % 10 == 0 ? small : index % 3 == 0 ? reversed : index % 3 == 1 ? quad : large;
+			target.add(value);
+			expected.add(value);
+		}
+		int largeSize = large.size();
+		Integer largeMin = large.peek();
+
+		// The larger natural-order heap becomes the base.
+		heap.merge(small);
+		heap.mergeAll(large, reversed, quad);
+		assertEquals(largeSize, large.size());
+		assertEquals(largeMin, large.peek());
+		assertEquals(expected.size(), heap.size());
+
+		expected.sort(null);
+		for (Integer value : expected) {
+			assertEquals(value, heap.dequeue());
+		}
+
+		// Merging into an empty heap, and merging empty heaps.
+		zeroSizeHeap.mergeAll(oneSizeHeap, new Heap<Integer>());
+		assertEquals(1, zeroSizeHeap.size());
+		assertEquals(4, (int) zeroSizeHeap.peek());
+
+		try {
+			heap.merge(heap);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * A heap passed to mergeAll more than once is merged once, whether or not
+	 * it becomes the base.
+	 */
+	@Test
+	public void test_merge_duplicates() {
+		Heap<Integer> big = new Heap<>();
+		Heap<Integer> little = new Heap<>(Comparator.reverseOrder());
+		for (int value = 0; value < 100; value++) {
+			big.add(value);
+		}
+		for (int value = 100; value < 110; value++) {
+			little.add(value);
+		}
+
+		Heap<Integer> target = new Heap<>();
+		target.add(-1);
+		// big becomes the base; little is appended.
+		target.mergeAll(big, little, big, little);
+		assertEquals(111, target.size());
+		assertEquals(100, big.size());
+		assertEquals(10, little.size());
+		for (int expected = -1; expected < 110; expected++) {
+			assertEquals(expected, (int) target.dequeue());
+		}
+	}
+
+	/**
+	 * A parallel build matches a sequential one exactly, swaps and comparisons
+	 * included, for each arity and data order.
+	 */
+	@Test
+	public void test_parallel_build() {
+		Random generator = new Random();
+		int n = 4 * Heap.PARALLEL_BUILD_THRESHOLD + 123;
+		for (int arity : new int[] { 2, 4, 16 }) {
+			Integer[][] orders = new Integer[3][n];
+			for (int index = 0; index < n; index++) {
+				orders[0][index] = generator.nextInt(n);
+				orders[1][index] = index;
+				orders[2][index] = n - index;
+			}
+			for (Integer[] data : orders) {
+				Heap<Integer> sequential = new Heap<>(arity);
+				Heap<Integer> parallel = new Heap<>(arity);
+				// Comparisons are only counted while a listener is attached.
+				sequential.setListener(new HeapMetrics());
+				parallel.setListener(new HeapMetrics());
+				sequential.build_heap_from_array(data);
+				parallel.parallel_build_heap_from_array(data, ForkJoinPool.commonPool());
+
+				assertArrayEquals(sequential.toArray(), parallel.toArray());
+				assertEquals(sequential.get_swaps(), parallel.get_swaps());
+				assertTrue(sequential.get_comparisons() > 0);
+				assertEquals(sequential.get_comparisons(), parallel.get_comparisons());
+			}
+		}
+	}
+
+	/**
+	 * An owned array becomes the heap without being copied.
+	 */
+	@Test
+	public void test_build_from_owned_array() {
+		Integer[] owned = { null, 5, 6, 3, 7, 8, 1, null };
+		Heap<Integer> ownedHeap = new Heap<>();
+		ownedHeap.build_heap_from_owned_array(owned, 6, null);
+		heap.build_heap_from_array(new Integer[] { 5, 6, 3, 7, 8, 1 });
+		assertArrayEquals(heap.toArray(), ownedHeap.toArray());
+		assertEquals(1, (int) owned[1]);
+
+		// Adding percolates 2 up past 3, in the caller's array.
+		ownedHeap.add(2);
+		assertEquals(2, (int) owned[3]);
+		assertEquals(3, (int) owned[7]);
+		assertEquals(1, (int) ownedHeap.dequeue());
+
+		try {
+			ownedHeap.build_heap_from_owned_array(new Integer[3], 3, null);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * A stable heap dequeues equal items first in, first out, through adds,
+	 * addAll, replace, builds and merges, and across sequence wraparound and
+	 * renumbering.
+	 */
+	@Test
+	public void test_stable() {
+		Random generator = new Random();
+		// Items are {priority, insertion id}; only the priority is compared.
+		Comparator<int[]> byPriority = Comparator.comparingInt(item -> item[0]);
+		Comparator<int[]> expectedOrder = byPriority.thenComparingInt(item -> item[1]);
+
+		for (int arity : new int[] { 2, 4 }) {
+			Heap<int[]> stable = new Heap<>(arity, byPriority, true);
+			assertTrue(stable.is_stable());
+			// Start just before the wraparound and renumber often.
+			stable.nextSequence = Integer.MAX_VALUE - 100;
+			stable.renumberInterval = 300;
+
+			int[][] initial = new int[200][];
+			int id = 0;
+			for (int index = 0; index < initial.length; index++) {
+				initial[index] = new int[] { generator.nextInt(5), id++ };
+			}
+			stable.build_heap_from_array(initial);
+			List<int[]> live = new ArrayList<>(Arrays.asList(initial));
+
+			for (int step = 0; step < 5000; step++) {
+				int operation = generator.nextInt(5);
+				if (operation == 0) {
+					List<int[]> batch = new ArrayList<>();
+					for (int count = generator.nextInt(20); count > 0; count--) {
+						batch.add(new int[] { generator.nextInt(5), id++ });
+					}
+					stable.addAll(batch);
+					live.addAll(batch);
+				} else if (operation == 1 && !live.isEmpty()) {
+					int[] item = new int[] { generator.nextInt(5), id++ };
+					int[] expected = live.stream().min(expectedOrder).get();
+					assertSame(expected, stable.replace(item));
+					live.remove(expected);
+					live.add(item);
+				} else if (operation == 2 || live.isEmpty()) {
+					int[] item = new int[] { generator.nextInt(5), id++ };
+					stable.add(item);
+					live.add(item);
+				} else {
+					int[] expected = live.stream().min(expectedOrder).get();
+					assertSame(expected, stable.dequeue());
+					live.remove(expected);
+				}
+				assertEquals(live.size(), stable.size());
+			}
+
+			// Merged items come after everything already in the heap.
+			Heap<int[]> other = new Heap<>(byPriority);
+			int firstMerged = id;
+			for (int index = 0; index < 50; index++) {
+				int[] item = new int[] { generator.nextInt(5), id++ };
+				other.add(item);
+				live.add(item);
+			}
+			stable.merge(other);
+			live.sort(byPriority.thenComparingInt(item -> item[1] < firstMerged ? 0 : 1));
+			for (int[] expected : live) {
+				int[] actual = stable.dequeue();
+				assertEquals(expected[0], actual[0]);
+				if (expected[1] < firstMerged) {
+					assertSame(expected, actual);
+				}
+			}
+		}
+
+		assertFalse(new Heap<Integer>().is_stable());
+	}
+
+	/**
+	 * A snapshot restores the exact heap array, for binary, 4-ary and stable
+	 * heaps, and corrupt or mismatched snapshots are rejected without changing
+	 * the heap.
+	 */
+	@Test
+	public void test_snapshot_restore() throws IOException {
+		Path file = Files.createTempFile("heap", ".snapshot");
+		try {
+			Random generator = new Random();
+			for (int arity : new int[] { 2, 4 }) {
+				Heap<Integer> original = new Heap<>(arity);
+				for (int index = 0; index < 300000; index++) {
+					original.add(generator.nextInt(1000));
+				}
+				original.snapshot(file, ElementCodec.INTEGER);
+
+				Heap<Integer> restored = new Heap<>(arity);
+				restored.add(42);
+				restored.restore(file, ElementCodec.INTEGER);
+				assertArrayEquals(original.toArray(), restored.toArray());
+				restored.add(-1);
+				assertEquals(-1, (int) restored.dequeue());
+				while (original.size() > 0) {
+					assertEquals(original.dequeue(), restored.dequeue());
+				}
+			}
+
+			// Empty heaps round-trip too.
+			zeroSizeHeap.snapshot(file, ElementCodec.INTEGER);
+			heap.restore(file, ElementCodec.INTEGER);
+			assertEquals(0, heap.size());
+			heap.add(3);
+			assertEquals(3, (int) heap.peek());
+
+			// Stable heaps keep their insertion order.
+			Heap<Integer> stable = new Heap<>(2, Comparator.comparingInt(value -> value / 10), true);
+			for (int value = 99; value >= 0; value--) {
+				stable.add(value);
+			}
+			stable.snapshot(file, ElementCodec.INTEGER);
+			Heap<Integer> stableRestored = new Heap<>(2, Comparator.comparingInt(value -> value / 10), true);
+			stableRestored.restore(file, ElementCodec.INTEGER);
+			stableRestored.add(5);
+			for (int tens = 0; tens < 10; tens++) {
+				for (int ones = 9; ones >= 0; ones--) {
+					assertEquals(tens * 10 + ones, (int) stableRestored.dequeue());
+				}
+				if (tens == 0) {
+					assertEquals(5, (int) stableRestored.dequeue());
+				}
+			}
+
+			// Mismatched arity and codec width are caller errors.
+			oneSizeHeap.snapshot(file, ElementCodec.INTEGER);
+			try {
+				new Heap<Integer>(4).restore(file, ElementCodec.INTEGER);
+				fail("Should have thrown IllegalArgumentException");
+			} catch (IllegalArgumentException e) {
+				// Test passes.
+			}
+			try {
+				new Heap<Long>().restore(file, ElementCodec.LONG);
+				fail("Should have thrown IllegalArgumentException");
+			} catch (IllegalArgumentException e) {
+				// Test passes.
+			}
+
+			// A flipped byte fails the checksum and leaves the heap as it was.
+			heap.snapshot(file, ElementCodec.INTEGER);
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				ByteBuffer one = ByteBuffer.allocate(1);
+				channel.read(one, 33);
+				one.put(0, (byte) ~one.get(0));
+				channel.write(one.rewind(), 33);
+			}
+			Object[] before = oneSizeHeap.toArray();
+			try {
+				oneSizeHeap.restore(file, ElementCodec.INTEGER);
+				fail("Should have thrown IOException");
+			} catch (IOException e) {
+				// Test passes.
+			}
+			assertArrayEquals(before, oneSizeHeap.toArray());
+
+			// So does a truncated file.
+			heap.snapshot(file, ElementCodec.INTEGER);
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.truncate(channel.size() - 1);
+			}
+			try {
+				oneSizeHeap.restore(file, ElementCodec.INTEGER);
+				fail("Should have thrown IOException");
+			} catch (IOException e) {
+				// Test passes.
+			}
+			assertArrayEquals(before, oneSizeHeap.toArray());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * The unordered and sorted views see every item, leave the heap
+	 * untouched, and fail fast once the heap changes.
+	 */
+	@Test
+	public void test_iteration() {
+		Random generator = new Random();
+		for (int arity : new int[] { 2, 3 }) {
+			Heap<Integer> random = new Heap<>(arity);
+			List<Integer> expected = new ArrayList<>();
+			for (int index = 0; index < 20000; index++) {
+				int value = generator.nextInt(5000);
+				random.add(value);
+				expected.add(value);
+			}
+			expected.sort(null);
+			Object[] before = random.toArray();
+
+			List<Integer> unordered = random.parallelStream().collect(Collectors.toList());
+			unordered.sort(null);
+			assertEquals(expected, unordered);
+			assertEquals(expected.size(), random.stream().count());
+
+			List<Integer> sorted = new ArrayList<>();
+			for (Iterator<Integer> iterator = random.sortedIterator(); iterator.hasNext();) {
+				sorted.add(iterator.next());
+			}
+			assertEquals(expected, sorted);
+			assertEquals(expected.subList(0, 10), random.sortedStream().limit(10).collect(Collectors.toList()));
+			assertArrayEquals(before, random.toArray());
+		}
+
+		Spliterator<Integer> spliterator = heap.spliterator();
+		assertEquals(6, spliterator.estimateSize());
+		Spliterator<Integer> prefix = spliterator.trySplit();
+		assertEquals(3, prefix.estimateSize());
+		assertEquals(3, spliterator.estimateSize());
+		assertFalse(spliterator.hasCharacteristics(Spliterator.ORDERED));
+
+		// Ties come out in insertion order from a stable heap.
+		Heap<Integer> stable = new Heap<>(2, Comparator.comparingInt(value -> value / 10), true);
+		for (int value = 99; value >= 0; value--) {
+			stable.add(value);
+		}
+		Iterator<Integer> stableIterator = stable.sortedIterator();
+		for (int tens = 0; tens < 10; tens++) {
+			for (int ones = 9; ones >= 0; ones--) {
+				assertEquals(tens * 10 + ones, (int) stableIterator.next());
+			}
+		}
+		assertFalse(stableIterator.hasNext());
+		try {
+			stableIterator.next();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+
+		// Modifying the heap invalidates both views.
+		Iterator<Integer> iterator = heap.sortedIterator();
+		iterator.next();
+		Spliterator<Integer> stale = heap.spliterator();
+		heap.add(0);
+		try {
+			iterator.next();
+			fail("Should have thrown ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// Test passes.
+		}
+		try {
+			stale.tryAdvance(value -> {
+			});
+			fail("Should have thrown ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// Test passes.
+		}
+		try {
+			heap.stream().forEach(value -> heap.dequeue());
+			fail("Should have thrown ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// Test passes.
+		}
+	}
+
 }
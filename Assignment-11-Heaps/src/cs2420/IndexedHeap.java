@@ -0,0 +1,333 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue of generically-typed items whose priorities can
+ * be changed after insertion. The queue is implemented as a binary min heap
+ * over a 1 INDEXED array, like Heap.
+ *
+ * Every inserted item is wrapped in a Handle that remembers its current index
+ * in the array. The handles are the position map: swap keeps them up to date
+ * as items move, so decreaseKey, increaseKey and remove find their item in
+ * constant time and run in logarithmic time overall.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class IndexedHeap<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * A reference to an item in an IndexedHeap, returned by insert.
+	 */
+	public static final class Handle<Type> {
+
+		/**
+		 * The item this handle refers to.
+		 */
+		private Type value;
+
+		/**
+		 * Current index of this handle in heap_array, or 0 once the item has
+		 * left the heap.
+		 */
+		private int index;
+
+		private Handle(Type value) {
+			this.value = value;
+		}
+
+		/**
+		 * @return the item this handle refers to.
+		 */
+		public Type get() {
+			return value;
+		}
+	}
+
+	/**
+	 * The number of elements in the heap (NOT: the capacity of the array)
+	 */
+	private int size;
+
+	/**
+	 * The implementation array used to store handles. Bucket 0 is unused.
+	 */
+	private Handle<Type>[] heap_array;
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private Comparator<? super Type> comparator;
+
+	/**
+	 * Constructs an empty priority queue. Orders elements according to their
+	 * natural ordering.
+	 */
+	public IndexedHeap() {
+		this(null);
+	}
+
+	/**
+	 * Construct an empty priority queue with a specified comparator.
+	 */
+	@SuppressWarnings("unchecked")
+	public IndexedHeap(Comparator<? super Type> c) {
+		size = 0;
+		comparator = c;
+		heap_array = (Handle<Type>[]) new Handle<?>[10];
+	}
+
+	/**
+	 * Adds an item to this priority queue and returns a handle to it. (Runs in
+	 * logarithmic time.)
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 * @return a handle for later decreaseKey, increaseKey, remove or contains
+	 *         calls.
+	 */
+	public Handle<Type> insert(Type x) {
+		if (heap_array.length - 1 == size) {
+			resize();
+		}
+
+		Handle<Type> handle = new Handle<>(x);
+		size++;
+		heap_array[size] = handle;
+		handle.index = size;
+
+		percolateUp(size);
+		return handle;
+	}
+
+	/**
+	 * Adds an item to this priority queue, discarding its handle.
+	 */
+	@Override
+	public void add(Type x) {
+		insert(x);
+	}
+
+	/**
+	 * Return the value of the smallest item in our heap.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		if (size == 0) {
+			return null;
+		}
+		return heap_array[1].value;
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue. Its handle
+	 * is no longer contained in the heap afterwards.
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return removeAt(1);
+	}
+
+	/**
+	 * Lowers the priority of the item behind handle to newValue.
+	 *
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 * @throws IllegalArgumentException
+	 *             if newValue is greater than the current value.
+	 */
+	public void decreaseKey(Handle<Type> handle, Type newValue) {
+		checkContains(handle);
+		if (compare(newValue, handle.value) > 0) {
+			throw new IllegalArgumentException("New value is greater than the current value");
+		}
+		handle.value = newValue;
+		percolateUp(handle.index);
+	}
+
+	/**
+	 * Raises the priority of the item behind handle to newValue.
+	 *
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 * @throws IllegalArgumentException
+	 *             if newValue is less than the current value.
+	 */
+	public void increaseKey(Handle<Type> handle, Type newValue) {
+		checkContains(handle);
+		if (compare(newValue, handle.value) < 0) {
+			throw new IllegalArgumentException("New value is less than the current value");
+		}
+		handle.value = newValue;
+		percolateDown(handle.index);
+	}
+
+	/**
+	 * Removes the item behind handle from the heap.
+	 *
+	 * @return the removed item.
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 */
+	public Type remove(Handle<Type> handle) {
+		checkContains(handle);
+		return removeAt(handle.index);
+	}
+
+	/**
+	 * @return true if handle refers to an item currently in this heap.
+	 */
+	public boolean contains(Handle<Type> handle) {
+		int index = handle.index;
+		return index > 0 && index <= size && heap_array[index] == handle;
+	}
+
+	/**
+	 * Removes the handle at index by swapping it with the last handle and
+	 * restoring heap order around the moved handle.
+	 */
+	private Type removeAt(int index) {
+		Handle<Type> removed = heap_array[index];
+
+		swap(index, size);
+		heap_array[size] = null;
+		size--;
+
+		// The moved handle may belong above or below its new position.
+		if (index <= size) {
+			percolateUp(index);
+			percolateDown(index);
+		}
+
+		removed.index = 0;
+		return removed.value;
+	}
+
+	/**
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 */
+	private void checkContains(Handle<Type> handle) {
+		if (!contains(handle)) {
+			throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * Move provided index up the array until it is at correct position relative
+	 * to those around it.
+	 *
+	 * @param index
+	 *            - index to percolate up.
+	 */
+	private void percolateUp(int index) {
+		while (index > 1 && compare(heap_array[index].value, heap_array[index / 2].value) < 0) {
+			swap(index, index / 2);
+			index = index / 2;
+		}
+	}
+
+	/**
+	 * If element at index is greater than its children, percolate down until in
+	 * correct position relative to those around it.
+	 *
+	 * @param index
+	 *            - Initial location of element to percolate down
+	 */
+	private void percolateDown(int index) {
+		int child = index * 2;
+
+		while (child <= size) {
+			if (child < size && compare(heap_array[child + 1].value, heap_array[child].value) < 0) {
+				child++;
+			}
+			if (compare(heap_array[index].value, heap_array[child].value) <= 0) {
+				break;
+			}
+			swap(index, child);
+			index = child;
+			child = index * 2;
+		}
+	}
+
+	/**
+	 * Swaps two handles and records their new positions.
+	 *
+	 * @param index1
+	 *            - index of first item.
+	 * @param index2
+	 *            - index of second item.
+	 */
+	private void swap(int index1, int index2) {
+		Handle<Type> element1 = heap_array[index1];
+		heap_array[index1] = heap_array[index2];
+		heap_array[index2] = element1;
+		heap_array[index1].index = index1;
+		heap_array[index2].index = index2;
+	}
+
+	/**
+	 * Resizes backing array by doubling capacity.
+	 */
+	@SuppressWarnings("unchecked")
+	private void resize() {
+		Handle<Type>[] newArray = (Handle<Type>[]) new Handle<?>[2 * heap_array.length];
+		System.arraycopy(heap_array, 1, newArray, 1, size);
+		heap_array = newArray;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+	/**
+	 * @return a copy of the items in heap order (bucket 0 is unused)
+	 */
+	public Object[] toArray() {
+		Object[] copy_of_array = new Object[size + 1];
+		for (int i = 1; i <= size; i++) {
+			copy_of_array[i] = heap_array[i].value;
+		}
+		return copy_of_array;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap. Outstanding handles are no longer contained.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		for (int i = 1; i <= size; i++) {
+			heap_array[i].index = 0;
+		}
+		heap_array = (Handle<Type>[]) new Handle<?>[10];
+		size = 0;
+	}
+
+}
@@ -0,0 +1,195 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cs2420.IndexedHeap.Handle;
+
+/**
+ * Testing the indexed heaps (IndexedHeap, IntKeyedHeap) for soundness.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class IndexedHeapTest {
+
+	private IndexedHeap<Integer> heap;
+	private List<Handle<Integer>> handles;
+
+	/**
+	 * Creates the same simple heap used by HeapTest, keeping every handle.
+	 */
+	@Before
+	public void createSimpleHeap() {
+		heap = new IndexedHeap<>();
+		handles = new ArrayList<>();
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			handles.add(heap.insert(value));
+		}
+	}
+
+	/**
+	 * The indexed heap should lay out its array exactly like Heap.
+	 */
+	@Test
+	public void test_basic_insertion() {
+		assertEquals(6, heap.size());
+		assertArrayEquals(new Integer[] { null, 1, 6, 3, 7, 8, 5 }, heap.toArray());
+		assertEquals(1, (int) heap.peek());
+	}
+
+	/**
+	 * Test changing priorities through handles.
+	 */
+	@Test
+	public void test_decrease_and_increase_key() {
+		// 8 becomes the new minimum.
+		heap.decreaseKey(handles.get(4), 0);
+		assertEquals(0, (int) heap.peek());
+
+		// 1 (the old root) sinks to the bottom.
+		heap.increaseKey(handles.get(5), 10);
+		assertEquals(0, (int) heap.dequeue());
+		assertEquals(3, (int) heap.dequeue());
+		assertEquals(5, (int) heap.dequeue());
+		assertEquals(6, (int) heap.dequeue());
+		assertEquals(7, (int) heap.dequeue());
+		assertEquals(10, (int) heap.dequeue());
+
+		try {
+			heap.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * decreaseKey must not be used to raise a priority.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void test_decrease_key_rejects_larger_value() {
+		heap.decreaseKey(handles.get(0), 100);
+	}
+
+	/**
+	 * Test removing by handle and contains.
+	 */
+	@Test
+	public void test_remove_and_contains() {
+		Handle<Integer> three = handles.get(2);
+		assertTrue(heap.contains(three));
+		assertEquals(3, (int) heap.remove(three));
+		assertFalse(heap.contains(three));
+		assertEquals(5, heap.size());
+
+		// Dequeued handles are no longer contained either.
+		heap.dequeue();
+		assertFalse(heap.contains(handles.get(5)));
+
+		try {
+			heap.remove(three);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+
+		// Handles from another heap are never contained.
+		IndexedHeap<Integer> other = new IndexedHeap<>();
+		assertFalse(other.contains(handles.get(0)));
+	}
+
+	/**
+	 * Random changes and removals against the heap order invariant.
+	 */
+	@Test
+	public void test_lots_of_updates() {
+		Random generator = new Random();
+		IndexedHeap<Integer> bigHeap = new IndexedHeap<>();
+		List<Handle<Integer>> bigHandles = new ArrayList<>();
+		for (int element = 0; element < 1000; element++) {
+			bigHandles.add(bigHeap.insert(generator.nextInt(1000)));
+		}
+
+		for (Handle<Integer> handle : bigHandles) {
+			int choice = generator.nextInt(3);
+			if (choice == 0) {
+				bigHeap.decreaseKey(handle, handle.get() - generator.nextInt(100));
+			} else if (choice == 1) {
+				bigHeap.increaseKey(handle, handle.get() + generator.nextInt(100));
+			} else {
+				bigHeap.remove(handle);
+			}
+		}
+
+		int smallest = Integer.MIN_VALUE;
+		while (bigHeap.size() > 0) {
+			int nextSmallest = bigHeap.dequeue();
+			assertTrue(nextSmallest >= smallest);
+			smallest = nextSmallest;
+		}
+	}
+
+	/**
+	 * Test the int-keyed variant the way Dijkstra would use it.
+	 */
+	@Test
+	public void test_int_keyed_heap() {
+		IntKeyedHeap<Integer> keyed = new IntKeyedHeap<>(5);
+		keyed.add(0, 50);
+		keyed.add(1, 10);
+		keyed.add(2, 30);
+		keyed.add(4, 20);
+
+		assertEquals(1, keyed.peek());
+		assertEquals(10, (int) keyed.peekPriority());
+		assertFalse(keyed.contains(3));
+
+		keyed.decreaseKey(0, 5);
+		assertEquals(0, keyed.peek());
+		keyed.increaseKey(0, 40);
+		assertEquals(40, (int) keyed.priority(0));
+		assertEquals(30, (int) keyed.remove(2));
+
+		assertEquals(1, keyed.dequeue());
+		assertEquals(4, keyed.dequeue());
+		assertEquals(0, keyed.dequeue());
+		assertEquals(0, keyed.size());
+
+		// A dequeued key may be added again.
+		keyed.add(1, 1);
+		assertTrue(keyed.contains(1));
+		keyed.clear();
+		assertFalse(keyed.contains(1));
+	}
+
+	/**
+	 * Duplicate and out of range keys are rejected.
+	 */
+	@Test
+	public void test_int_keyed_heap_rejects_bad_keys() {
+		IntKeyedHeap<Integer> keyed = new IntKeyedHeap<>(2);
+		keyed.add(0, 1);
+
+		try {
+			keyed.add(0, 2);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+
+		try {
+			keyed.add(2, 2);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+	}
+
+}
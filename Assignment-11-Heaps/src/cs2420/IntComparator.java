@@ -0,0 +1,32 @@
+package cs2420;
+
+/**
+ * A comparison function over primitive ints, used by IntHeap to order its
+ * elements without boxing.
+ * 
+ * @author Roman Clark and Mark Van der Merwe
+ */
+@FunctionalInterface
+public interface IntComparator {
+
+	/**
+	 * @return a negative number, zero, or a positive number as lhs is less
+	 *         than, equal to, or greater than rhs.
+	 */
+	public int compare(int lhs, int rhs);
+
+	/**
+	 * @return a comparator imposing the reverse of this ordering (use
+	 *         IntComparator.natural().reversed() for a max heap).
+	 */
+	public default IntComparator reversed() {
+		return (lhs, rhs) -> compare(rhs, lhs);
+	}
+
+	/**
+	 * @return a comparator imposing the natural ordering of ints.
+	 */
+	public static IntComparator natural() {
+		return Integer::compare;
+	}
+}
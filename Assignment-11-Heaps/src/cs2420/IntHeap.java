@@ -0,0 +1,228 @@
+package cs2420;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue of int values. The queue is implemented as a
+ * min heap.
+ * 
+ * This is a primitive specialization of Heap: values are stored directly in
+ * an int array, so no operation boxes its argument or allocates (other than
+ * growing the backing array).
+ * 
+ * The min heap is implemented implicitly as a 1 INDEXED array, exactly like
+ * Heap.
+ * 
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class IntHeap {
+
+	/**
+	 * The number of elements in the heap (NOT: the capacity of the array)
+	 */
+	private int size;
+
+	/**
+	 * The implementation array used to store heap values. Bucket 0 is unused.
+	 */
+	private int[] heap_array;
+
+	/**
+	 * If the user provides a comparator, use it instead of natural ordering
+	 */
+	private IntComparator comparator;
+
+	/**
+	 * Constructs an empty priority queue. Orders elements according to their
+	 * natural ordering.
+	 */
+	public IntHeap() {
+		this(null);
+	}
+
+	/**
+	 * Construct an empty priority queue with a specified comparator (e.g.,
+	 * IntComparator.natural().reversed() for a max heap).
+	 */
+	public IntHeap(IntComparator c) {
+		size = 0;
+		comparator = c;
+		heap_array = new int[10];
+	}
+
+	/**
+	 * Return the value of the smallest item in our heap.
+	 * 
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public int peek() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap_array[1];
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue.
+	 * 
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty. (Runs in logarithmic time.)
+	 */
+	public int dequeue() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+
+		// Move the last item to the root and park the minimum just past the
+		// end, so heap_sort leaves the array sorted like Heap does.
+		int minItem = heap_array[1];
+		heap_array[1] = heap_array[size];
+		heap_array[size] = minItem;
+		size--;
+
+		percolateDown(1);
+
+		return minItem;
+	}
+
+	/**
+	 * Adds an item to this priority queue. (Runs in logarithmic time.)
+	 * 
+	 * @param x
+	 *            -- the item to be inserted
+	 */
+	public void add(int x) {
+		if (heap_array.length - 1 == size) {
+			resize();
+		}
+
+		size++;
+		heap_array[size] = x;
+		percolateUp(size);
+	}
+
+	/**
+	 * Move provided index up the array until it is at correct position relative
+	 * to those around it. Parents are shifted down into the hole rather than
+	 * swapped, and the element is written once at the end.
+	 * 
+	 * @param index
+	 *            - index to percolate up.
+	 */
+	private void percolateUp(int index) {
+		int element = heap_array[index];
+
+		while (index > 1 && compare(element, heap_array[index / 2]) < 0) {
+			heap_array[index] = heap_array[index / 2];
+			index = index / 2;
+		}
+
+		heap_array[index] = element;
+	}
+
+	/**
+	 * If element at index is greater than its children, percolate down until in
+	 * correct position relative to those around it.
+	 * 
+	 * @param index
+	 *            - Initial location of element to percolate down
+	 */
+	private void percolateDown(int index) {
+		int element = heap_array[index];
+		int child = index * 2;
+
+		while (child <= size) {
+			// Pick the smaller of the two children.
+			if (child < size && compare(heap_array[child + 1], heap_array[child]) < 0) {
+				child++;
+			}
+			if (compare(element, heap_array[child]) <= 0) {
+				break;
+			}
+			heap_array[index] = heap_array[child];
+			index = child;
+			child = index * 2;
+		}
+
+		heap_array[index] = element;
+	}
+
+	/**
+	 * Resizes backing array by doubling capacity.
+	 */
+	private void resize() {
+		int[] newArray = new int[2 * heap_array.length];
+		System.arraycopy(heap_array, 1, newArray, 1, size);
+		heap_array = newArray;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using the IntComparator if
+	 * provided by the user at construction time, or natural ordering otherwise.
+	 */
+	private int compare(int lhs, int rhs) {
+		if (comparator == null) {
+			return Integer.compare(lhs, rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+	/**
+	 * @return a copy of the array used in the heap (bucket 0 is unused)
+	 */
+	public int[] toArray() {
+		int[] copy_of_array = new int[size + 1];
+		System.arraycopy(heap_array, 1, copy_of_array, 1, size);
+		return copy_of_array;
+	}
+
+	/**
+	 * 1) copy data from array into heap storage 2) do an "in place" creation of
+	 * the heap
+	 * 
+	 * @param array
+	 *            - random data (unordered)
+	 */
+	public void build_heap_from_array(int[] array) {
+		heap_array = new int[array.length + 1];
+		System.arraycopy(array, 0, heap_array, 1, array.length);
+		size = array.length;
+
+		for (int index = size / 2; index > 0; index--) {
+			percolateDown(index);
+		}
+	}
+
+	/**
+	 * convert the heap array into a sorted array from largest to smallest
+	 * 
+	 * Note: this destroys the heap property of the array, just like
+	 * Heap.heap_sort.
+	 */
+	public void heap_sort() {
+		int tempSize = size;
+
+		while (size > 0) {
+			dequeue();
+		}
+
+		this.size = tempSize;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap.
+	 */
+	public void clear() {
+		heap_array = new int[10];
+		size = 0;
+	}
+
+}
@@ -0,0 +1,309 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue of dense int keys (e.g., vertex ids 0..n-1),
+ * each with a generically-typed priority that can be changed after insertion.
+ * The queue is implemented as a binary min heap over a 1 INDEXED array of
+ * keys, like Heap.
+ *
+ * Instead of per-item handles, the position map is a plain int array indexed
+ * by key, so no operation allocates. decreaseKey, increaseKey and remove run
+ * in logarithmic time.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class IntKeyedHeap<Type> {
+
+	/**
+	 * The number of keys in the heap (NOT: the capacity of the array)
+	 */
+	private int size;
+
+	/**
+	 * The keys in heap order. Bucket 0 is unused.
+	 */
+	private int[] heap_array;
+
+	/**
+	 * For each key, its index in heap_array, or 0 if it is not in the heap.
+	 */
+	private int[] position;
+
+	/**
+	 * For each key in the heap, its priority.
+	 */
+	private Type[] priorities;
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private Comparator<? super Type> comparator;
+
+	/**
+	 * Constructs an empty priority queue accepting keys 0 through capacity-1,
+	 * ordering priorities according to their natural ordering.
+	 */
+	public IntKeyedHeap(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * Constructs an empty priority queue accepting keys 0 through capacity-1,
+	 * ordering priorities with the specified comparator.
+	 */
+	@SuppressWarnings("unchecked")
+	public IntKeyedHeap(int capacity, Comparator<? super Type> c) {
+		size = 0;
+		comparator = c;
+		heap_array = new int[capacity + 1];
+		position = new int[capacity];
+		priorities = (Type[]) new Object[capacity];
+	}
+
+	/**
+	 * Adds key with the given priority. (Runs in logarithmic time.)
+	 *
+	 * @throws IllegalArgumentException
+	 *             if key is out of range or already in the heap.
+	 */
+	public void add(int key, Type priority) {
+		checkKey(key);
+		if (position[key] != 0) {
+			throw new IllegalArgumentException("Key is already in the heap: " + key);
+		}
+
+		size++;
+		heap_array[size] = key;
+		position[key] = size;
+		priorities[key] = priority;
+
+		percolateUp(size);
+	}
+
+	/**
+	 * @return the key with the smallest priority.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public int peek() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap_array[1];
+	}
+
+	/**
+	 * @return the smallest priority.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public Type peekPriority() throws NoSuchElementException {
+		return priorities[peek()];
+	}
+
+	/**
+	 * Removes and returns the key with the smallest priority.
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public int dequeue() throws NoSuchElementException {
+		int key = peek();
+		removeAt(1);
+		return key;
+	}
+
+	/**
+	 * @return true if key is currently in the heap.
+	 */
+	public boolean contains(int key) {
+		return key >= 0 && key < position.length && position[key] != 0;
+	}
+
+	/**
+	 * @return the priority of key.
+	 * @throws NoSuchElementException
+	 *             if key is not in the heap.
+	 */
+	public Type priority(int key) {
+		checkContains(key);
+		return priorities[key];
+	}
+
+	/**
+	 * Lowers the priority of key to newPriority.
+	 *
+	 * @throws NoSuchElementException
+	 *             if key is not in the heap.
+	 * @throws IllegalArgumentException
+	 *             if newPriority is greater than the current priority.
+	 */
+	public void decreaseKey(int key, Type newPriority) {
+		checkContains(key);
+		if (compare(newPriority, priorities[key]) > 0) {
+			throw new IllegalArgumentException("New priority is greater than the current priority");
+		}
+		priorities[key] = newPriority;
+		percolateUp(position[key]);
+	}
+
+	/**
+	 * Raises the priority of key to newPriority.
+	 *
+	 * @throws NoSuchElementException
+	 *             if key is not in the heap.
+	 * @throws IllegalArgumentException
+	 *             if newPriority is less than the current priority.
+	 */
+	public void increaseKey(int key, Type newPriority) {
+		checkContains(key);
+		if (compare(newPriority, priorities[key]) < 0) {
+			throw new IllegalArgumentException("New priority is less than the current priority");
+		}
+		priorities[key] = newPriority;
+		percolateDown(position[key]);
+	}
+
+	/**
+	 * Removes key from the heap.
+	 *
+	 * @return the priority key had.
+	 * @throws NoSuchElementException
+	 *             if key is not in the heap.
+	 */
+	public Type remove(int key) {
+		checkContains(key);
+		Type priority = priorities[key];
+		removeAt(position[key]);
+		return priority;
+	}
+
+	/**
+	 * Removes the key at index by swapping it with the last key and restoring
+	 * heap order around the moved key.
+	 */
+	private void removeAt(int index) {
+		int key = heap_array[index];
+
+		swap(index, size);
+		size--;
+
+		// The moved key may belong above or below its new position.
+		if (index <= size) {
+			percolateUp(index);
+			percolateDown(index);
+		}
+
+		position[key] = 0;
+		priorities[key] = null;
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if key is outside 0 through capacity-1.
+	 */
+	private void checkKey(int key) {
+		if (key < 0 || key >= position.length) {
+			throw new IllegalArgumentException("Key out of range: " + key);
+		}
+	}
+
+	/**
+	 * @throws NoSuchElementException
+	 *             if key is not in the heap.
+	 */
+	private void checkContains(int key) {
+		if (!contains(key)) {
+			throw new NoSuchElementException("Key is not in the heap: " + key);
+		}
+	}
+
+	/**
+	 * Move provided index up the array until it is at correct position relative
+	 * to those around it.
+	 *
+	 * @param index
+	 *            - index to percolate up.
+	 */
+	private void percolateUp(int index) {
+		while (index > 1 && compare(priorities[heap_array[index]], priorities[heap_array[index / 2]]) < 0) {
+			swap(index, index / 2);
+			index = index / 2;
+		}
+	}
+
+	/**
+	 * If key at index has a greater priority than its children, percolate down
+	 * until in correct position relative to those around it.
+	 *
+	 * @param index
+	 *            - Initial location of key to percolate down
+	 */
+	private void percolateDown(int index) {
+		int child = index * 2;
+
+		while (child <= size) {
+			if (child < size && compare(priorities[heap_array[child + 1]], priorities[heap_array[child]]) < 0) {
+				child++;
+			}
+			if (compare(priorities[heap_array[index]], priorities[heap_array[child]]) <= 0) {
+				break;
+			}
+			swap(index, child);
+			index = child;
+			child = index * 2;
+		}
+	}
+
+	/**
+	 * Swaps two keys and records their new positions.
+	 *
+	 * @param index1
+	 *            - index of first key.
+	 * @param index2
+	 *            - index of second key.
+	 */
+	private void swap(int index1, int index2) {
+		int key1 = heap_array[index1];
+		int key2 = heap_array[index2];
+		heap_array[index1] = key2;
+		heap_array[index2] = key1;
+		position[key2] = index1;
+		position[key1] = index2;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+	/**
+	 * Returns the number of keys in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap. The key range is kept.
+	 */
+	public void clear() {
+		for (int i = 1; i <= size; i++) {
+			position[heap_array[i]] = 0;
+			priorities[heap_array[i]] = null;
+		}
+		size = 0;
+	}
+
+}
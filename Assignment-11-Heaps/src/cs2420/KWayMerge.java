@@ -0,0 +1,433 @@
+package cs2420;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily merges any number of individually sorted sources into one sorted
+ * Iterator.
+ *
+ * The sources are kept in a Heap ordered by their current heads. Each call to
+ * next() takes the root's head, advances that source and puts it back with
+ * Heap.replace, so every output element costs one percolateDown rather than a
+ * dequeue and an add. Equal heads come out in source order, so the merge is
+ * stable. With distinct set, elements equal (by the comparator) to the one
+ * just returned are skipped.
+ *
+ * Iterator sources are drained prefetch elements at a time into a small
+ * per-source buffer; file sources read blockBytes at a time. Sources must not
+ * be modified while merging. close() closes any file sources. Instances are
+ * not thread-safe.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class KWayMerge<Type> implements Iterator<Type>, AutoCloseable {
+
+	/**
+	 * One sorted input and its current head.
+	 */
+	private abstract static class Source<Type> {
+		private final int id;
+		Type head;
+
+		Source(int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Moves head to the next element.
+		 *
+		 * @return false if the source is exhausted.
+		 */
+		abstract boolean advance();
+
+		void close() throws IOException {
+		}
+	}
+
+	/**
+	 * Pulls from an Iterator prefetch elements at a time.
+	 */
+	private static final class IteratorSource<Type> extends Source<Type> {
+		private final Iterator<? extends Type> iterator;
+		private final Object[] buffer;
+		private int position;
+		private int limit;
+
+		IteratorSource(int id, Iterator<? extends Type> iterator, int prefetch) {
+			super(id);
+			this.iterator = iterator;
+			buffer = new Object[prefetch];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		boolean advance() {
+			if (position == limit) {
+				limit = 0;
+				while (limit < buffer.length && iterator.hasNext()) {
+					buffer[limit++] = iterator.next();
+				}
+				position = 0;
+				if (limit == 0) {
+					head = null;
+					return false;
+				}
+			}
+			head = (Type) buffer[position];
+			buffer[position++] = null;
+			return true;
+		}
+	}
+
+	/**
+	 * Reads codec-encoded elements from a file, one block at a time.
+	 */
+	private static final class FileSource<Type> extends Source<Type> {
+		private final FileChannel channel;
+		private final ElementCodec<Type> codec;
+		private final ByteBuffer block;
+
+		FileSource(int id, Path path, ElementCodec<Type> codec, int blockBytes) throws IOException {
+			super(id);
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			this.codec = codec;
+			// Whole elements only, so one never straddles two blocks.
+			block = ByteBuffer.allocateDirect(Math.max(codec.width(), blockBytes - blockBytes % codec.width()));
+			block.flip();
+		}
+
+		@Override
+		boolean advance() {
+			try {
+				if (block.remaining() < codec.width()) {
+					block.compact();
+					while (block.hasRemaining() && channel.read(block) >= 0) {
+					}
+					block.flip();
+					if (block.remaining() < codec.width()) {
+						head = null;
+						return false;
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			head = codec.read(block);
+			return true;
+		}
+
+		@Override
+		void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Sources with elements left, ordered by head and then by id.
+	 */
+	private final Heap<Source<Type>> sources;
+
+	/**
+	 * Every source, for close().
+	 */
+	private final List<Source<Type>> opened;
+
+	private final Comparator<? super Type> comparator;
+	private final boolean distinct;
+
+	/**
+	 * The last element returned, for distinct merges.
+	 */
+	private Type last;
+	private boolean returnedAny;
+
+	/**
+	 * Merges sorted iterators in natural order.
+	 */
+	public static <Type extends Comparable<? super Type>> KWayMerge<Type> of(
+			List<? extends Iterator<? extends Type>> iterators) {
+		return of(iterators, Comparator.naturalOrder(), false, 1);
+	}
+
+	/**
+	 * Merges iterators, each sorted by comparator.
+	 *
+	 * @param iterators
+	 *            - the sorted sources.
+	 * @param c
+	 *            - the order every source is sorted in, or null for natural
+	 *            ordering.
+	 * @param distinct
+	 *            - whether to skip elements equal to the previous one.
+	 * @param prefetch
+	 *            - elements pulled from a source at a time.
+	 */
+	public static <Type> KWayMerge<Type> of(List<? extends Iterator<? extends Type>> iterators,
+			Comparator<? super Type> c, boolean distinct, int prefetch) {
+		if (prefetch < 1) {
+			throw new IllegalArgumentException("Prefetch must be positive: " + prefetch);
+		}
+		List<Source<Type>> sources = new ArrayList<>(iterators.size());
+		for (Iterator<? extends Type> iterator : iterators) {
+			sources.add(new IteratorSource<>(sources.size(), iterator, prefetch));
+		}
+		return new KWayMerge<>(sources, c, distinct);
+	}
+
+	/**
+	 * Merges files of codec-encoded elements, each sorted by comparator (e.g.,
+	 * the runs ExternalPriorityQueue spills).
+	 *
+	 * @param blockBytes
+	 *            - bytes read from a file at a time.
+	 * @throws IOException
+	 *             if a file cannot be opened; any already opened are closed.
+	 */
+	public static <Type> KWayMerge<Type> ofFiles(List<Path> files, ElementCodec<Type> codec,
+			Comparator<? super Type> c, boolean distinct, int blockBytes) throws IOException {
+		List<Source<Type>> sources = new ArrayList<>(files.size());
+		try {
+			for (Path file : files) {
+				sources.add(new FileSource<>(sources.size(), file, codec, blockBytes));
+			}
+		} catch (IOException e) {
+			for (Source<Type> source : sources) {
+				source.close();
+			}
+			throw e;
+		}
+		return new KWayMerge<>(sources, c, distinct);
+	}
+
+	/**
+	 * Merges ascending long cursors without boxing.
+	 *
+	 * @param distinct
+	 *            - whether to skip values equal to the previous one.
+	 */
+	public static PrimitiveIterator.OfLong ofLongs(List<? extends PrimitiveIterator.OfLong> cursors,
+			boolean distinct) {
+		return new LongMerge(cursors, distinct);
+	}
+
+	@SuppressWarnings("unchecked")
+	private KWayMerge(List<Source<Type>> all, Comparator<? super Type> c, boolean distinct) {
+		this.comparator = c != null ? c : (Comparator<? super Type>) Comparator.naturalOrder();
+		this.distinct = distinct;
+		opened = all;
+		sources = new Heap<>((lhs, rhs) -> {
+			int result = comparator.compare(lhs.head, rhs.head);
+			return result != 0 ? result : Integer.compare(lhs.id, rhs.id);
+		});
+
+		List<Source<Type>> nonEmpty = new ArrayList<>(all.size());
+		for (Source<Type> source : all) {
+			if (source.advance()) {
+				nonEmpty.add(source);
+			}
+		}
+		Source<Type>[] initial = (Source<Type>[]) nonEmpty.toArray(new Source<?>[0]);
+		sources.build_heap_from_array(initial);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return sources.size() > 0;
+	}
+
+	@Override
+	public Type next() {
+		if (sources.size() == 0) {
+			throw new NoSuchElementException();
+		}
+		Source<Type> source = sources.peek();
+		Type result = source.head;
+		pop(source);
+
+		last = result;
+		returnedAny = true;
+		skipDuplicates();
+		return result;
+	}
+
+	/**
+	 * @return the merged elements as an ordered, sorted Spliterator.
+	 */
+	public Spliterator<Type> spliterator() {
+		int characteristics = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL
+				| (distinct ? Spliterator.DISTINCT : 0);
+		return new Spliterators.AbstractSpliterator<Type>(Long.MAX_VALUE, characteristics) {
+			@Override
+			public boolean tryAdvance(Consumer<? super Type> action) {
+				if (!hasNext()) {
+					return false;
+				}
+				action.accept(next());
+				return true;
+			}
+
+			@Override
+			public Comparator<? super Type> getComparator() {
+				return comparator;
+			}
+		};
+	}
+
+	/**
+	 * @return the merged elements as a sequential Stream that closes this
+	 *         merge when closed.
+	 */
+	public Stream<Type> stream() {
+		return StreamSupport.stream(spliterator(), false).onClose(() -> {
+			try {
+				close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Closes every file source.
+	 */
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for (Source<Type> source : opened) {
+			try {
+				source.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Advances the root source, replacing it in place or dropping it once
+	 * exhausted.
+	 */
+	private void pop(Source<Type> source) {
+		if (source.advance()) {
+			sources.replace(source);
+		} else {
+			sources.dequeue();
+		}
+	}
+
+	/**
+	 * For distinct merges, drops heads equal to the last element returned.
+	 */
+	private void skipDuplicates() {
+		if (!distinct || !returnedAny) {
+			return;
+		}
+		while (sources.size() > 0 && comparator.compare(sources.peek().head, last) == 0) {
+			pop(sources.peek());
+		}
+	}
+
+	/**
+	 * KWayMerge over long cursors, with source indices in a 0 indexed binary
+	 * heap ordered by their heads.
+	 */
+	private static final class LongMerge implements PrimitiveIterator.OfLong {
+		private final PrimitiveIterator.OfLong[] cursors;
+		private final long[] heads;
+		private final int[] heap;
+		private final boolean distinct;
+		private int size;
+
+		LongMerge(List<? extends PrimitiveIterator.OfLong> list, boolean distinct) {
+			cursors = list.toArray(new PrimitiveIterator.OfLong[0]);
+			heads = new long[cursors.length];
+			heap = new int[cursors.length];
+			this.distinct = distinct;
+			for (int source = 0; source < cursors.length; source++) {
+				if (cursors[source].hasNext()) {
+					heads[source] = cursors[source].nextLong();
+					heap[size++] = source;
+				}
+			}
+			for (int index = size / 2 - 1; index >= 0; index--) {
+				percolateDown(index);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return size > 0;
+		}
+
+		@Override
+		public long nextLong() {
+			if (size == 0) {
+				throw new NoSuchElementException();
+			}
+			long result = heads[heap[0]];
+			pop();
+			if (distinct) {
+				while (size > 0 && heads[heap[0]] == result) {
+					pop();
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Advances the root cursor and percolates it down, or drops it.
+		 */
+		private void pop() {
+			int source = heap[0];
+			if (cursors[source].hasNext()) {
+				heads[source] = cursors[source].nextLong();
+			} else {
+				heap[0] = heap[--size];
+			}
+			percolateDown(0);
+		}
+
+		private void percolateDown(int index) {
+			int source = heap[index];
+			int child = 2 * index + 1;
+			while (child < size) {
+				if (child + 1 < size && less(heap[child + 1], heap[child])) {
+					child++;
+				}
+				if (!less(heap[child], source)) {
+					break;
+				}
+				heap[index] = heap[child];
+				index = child;
+				child = 2 * index + 1;
+			}
+			heap[index] = source;
+		}
+
+		/**
+		 * Orders sources by head, then by index for stability.
+		 */
+		private boolean less(int lhs, int rhs) {
+			return heads[lhs] < heads[rhs] || (heads[lhs] == heads[rhs] && lhs < rhs);
+		}
+	}
+
+}
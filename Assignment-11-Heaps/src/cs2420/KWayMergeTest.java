@@ -0,0 +1,155 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * Testing KWayMerge against sorting everything at once.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class KWayMergeTest {
+
+	/**
+	 * Random sorted lists, some empty, merge into their sorted union.
+	 */
+	@Test
+	public void test_merge_iterators() {
+		Random generator = new Random();
+		List<List<Integer>> lists = new ArrayList<>();
+		List<Integer> expected = new ArrayList<>();
+		for (int list = 0; list < 50; list++) {
+			List<Integer> values = new ArrayList<>();
+			for (int index = generator.nextInt(40); index > 0; index--) {
+				values.add(generator.nextInt(100));
+			}
+			Collections.sort(values);
+			lists.add(values);
+			expected.addAll(values);
+		}
+		Collections.sort(expected);
+
+		for (int prefetch : new int[] { 1, 7 }) {
+			List<Iterator<Integer>> iterators = new ArrayList<>();
+			for (List<Integer> values : lists) {
+				iterators.add(values.iterator());
+			}
+			KWayMerge<Integer> merge = KWayMerge.of(iterators, null, false, prefetch);
+			List<Integer> merged = new ArrayList<>();
+			merge.forEachRemaining(merged::add);
+			assertEquals(expected, merged);
+			assertFalse(merge.hasNext());
+		}
+
+		List<Iterator<Integer>> iterators = new ArrayList<>();
+		for (List<Integer> values : lists) {
+			iterators.add(values.iterator());
+		}
+		List<Integer> distinct = KWayMerge.of(iterators, null, true, 4).stream().collect(Collectors.toList());
+		assertEquals(expected.stream().distinct().collect(Collectors.toList()), distinct);
+	}
+
+	/**
+	 * Equal elements come out in source order, and comparators are honoured.
+	 */
+	@Test
+	public void test_merge_comparator_stability() {
+		Comparator<String> byLength = Comparator.comparingInt(String::length).reversed();
+		List<Iterator<String>> iterators = Arrays.asList(Arrays.asList("ccc", "aa", "b").iterator(),
+				Arrays.asList("ddd", "ee").iterator(), Collections.<String> emptyIterator());
+		KWayMerge<String> merge = KWayMerge.of(iterators, byLength, false, 2);
+		assertEquals(byLength, merge.spliterator().getComparator());
+
+		List<String> merged = new ArrayList<>();
+		merge.forEachRemaining(merged::add);
+		assertEquals(Arrays.asList("ccc", "ddd", "aa", "ee", "b"), merged);
+
+		try {
+			merge.next();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Sorted run files merge through small blocks.
+	 */
+	@Test
+	public void test_merge_files() throws IOException {
+		Path directory = Files.createTempDirectory("merge");
+		List<Path> files = new ArrayList<>();
+		List<Long> expected = new ArrayList<>();
+		try {
+			for (int file = 0; file < 5; file++) {
+				Path path = directory.resolve("run" + file);
+				ByteBuffer block = ByteBuffer.allocate(8 * 100);
+				for (long value = file; value < 300; value += 3 + file) {
+					block.putLong(value);
+					expected.add(value);
+				}
+				block.flip();
+				try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+					out.write(block);
+				}
+				files.add(path);
+			}
+			Collections.sort(expected);
+
+			List<Long> merged = new ArrayList<>();
+			try (KWayMerge<Long> merge = KWayMerge.ofFiles(files, ElementCodec.LONG, null, false, 20)) {
+				merge.forEachRemaining(merged::add);
+			}
+			assertEquals(expected, merged);
+		} finally {
+			for (Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.delete(directory);
+		}
+	}
+
+	/**
+	 * Long cursors merge without boxing, with and without duplicates.
+	 */
+	@Test
+	public void test_merge_longs() {
+		List<PrimitiveIterator.OfLong> cursors = Arrays.asList(LongStream.of(1, 4, 4, 9).iterator(),
+				LongStream.empty().iterator(), LongStream.of(2, 4, 10).iterator());
+		PrimitiveIterator.OfLong merged = KWayMerge.ofLongs(cursors, true);
+		long[] values = new long[5];
+		for (int index = 0; index < values.length; index++) {
+			values[index] = merged.nextLong();
+		}
+		assertArrayEquals(new long[] { 1, 2, 4, 9, 10 }, values);
+		assertFalse(merged.hasNext());
+
+		cursors = Arrays.asList(LongStream.of(3, 5).iterator(), LongStream.of(3, 4).iterator());
+		merged = KWayMerge.ofLongs(cursors, false);
+		assertEquals(3, merged.nextLong());
+		assertEquals(3, merged.nextLong());
+		assertEquals(4, merged.nextLong());
+		assertEquals(5, merged.nextLong());
+		assertFalse(merged.hasNext());
+	}
+
+}
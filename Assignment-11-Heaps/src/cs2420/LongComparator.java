@@ -0,0 +1,32 @@
+package cs2420;
+
+/**
+ * A comparison function over primitive longs, used by LongHeap to order its
+ * elements without boxing.
+ * 
+ * @author Roman Clark and Mark Van der Merwe
+ */
+@FunctionalInterface
+public interface LongComparator {
+
+	/**
+	 * @return a negative number, zero, or a positive number as lhs is less
+	 *         than, equal to, or greater than rhs.
+	 */
+	public int compare(long lhs, long rhs);
+
+	/**
+	 * @return a comparator imposing the reverse of this ordering (use
+	 *         LongComparator.natural().reversed() for a max heap).
+	 */
+	public default LongComparator reversed() {
+		return (lhs, rhs) -> compare(rhs, lhs);
+	}
+
+	/**
+	 * @return a comparator imposing the natural ordering of longs.
+	 */
+	public static LongComparator natural() {
+		return Long::compare;
+	}
+}
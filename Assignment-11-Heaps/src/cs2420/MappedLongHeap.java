@@ -0,0 +1,425 @@
+package cs2420;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a persistent priority queue of (long priority, long payload)
+ * records whose heap array lives in a memory-mapped file. The queue is
+ * implemented as a min heap on priority, in the same implicit 1 INDEXED layout
+ * as Heap.
+ *
+ * File layout: a 4 KB header page followed by the records, 16 bytes each, in
+ * chunks that are mapped as the heap grows. The header holds the size and a
+ * small undo log. Before add or dequeue overwrites a record, the old contents
+ * are appended to the log; when the operation finishes, the new size is
+ * written and the log is discarded. If the process dies part way through a
+ * percolate, the next open finds the log, writes the old records back and
+ * restores the old size, so the heap is exactly as it was before the
+ * interrupted operation. Reopening never reads records outside the log and
+ * never re-heapifies.
+ *
+ * The undo log protects against the process crashing. To also survive an
+ * operating system crash or power loss, call sync() after the operations that
+ * must be durable. Instances are not thread-safe, and a file must not be open
+ * in two instances at once.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class MappedLongHeap implements AutoCloseable {
+
+	/**
+	 * Identifies a heap file, and the layout version of this class.
+	 */
+	private static final long MAGIC = 0x4845415046494C45L;
+	private static final long VERSION = 1;
+
+	/**
+	 * Header fields, as byte offsets into the header page.
+	 */
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 8;
+	private static final int SIZE_OFFSET = 16;
+	private static final int STATE_OFFSET = 24;
+	private static final int OLD_SIZE_OFFSET = 32;
+	private static final int LOG_COUNT_OFFSET = 40;
+	private static final int LOG_OFFSET = 64;
+
+	/**
+	 * Values of the state field.
+	 */
+	private static final long CLEAN = 0;
+	private static final long IN_PROGRESS = 1;
+
+	/**
+	 * Bytes per undo log entry (index, old priority, old payload) and the
+	 * number of entries that fit in the header page. A single operation writes
+	 * at most one record per tree level plus one.
+	 */
+	private static final int LOG_ENTRY_BYTES = 24;
+	private static final int LOG_CAPACITY = 128;
+
+	/**
+	 * Records start on the second page.
+	 */
+	private static final int DATA_START = 4096;
+
+	/**
+	 * Bytes per record: an 8 byte priority followed by an 8 byte payload.
+	 */
+	private static final int RECORD_BYTES = 16;
+
+	/**
+	 * Default records per mapped chunk (64 MB chunks).
+	 */
+	public static final int DEFAULT_CHUNK_RECORDS = 1 << 22;
+
+	/**
+	 * The file backing this heap.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The mapped header page.
+	 */
+	private final MappedByteBuffer header;
+
+	/**
+	 * The mapped record chunks. Record i lives in chunk (i-1) >>> chunkShift.
+	 */
+	private MappedByteBuffer[] chunks;
+	private int chunkCount;
+	private final int chunkShift;
+	private final long chunkMask;
+
+	/**
+	 * The number of records in the heap, mirrored from the header.
+	 */
+	private long size;
+
+	/**
+	 * Undo log entries written by the operation in progress.
+	 */
+	private int logCount;
+
+	/**
+	 * For crash tests: when non-negative, the number of record writes allowed
+	 * before the next one throws SimulatedCrash.
+	 */
+	int crashCountdown = -1;
+
+	/**
+	 * Thrown by the crash test hook to abandon an operation part way through.
+	 */
+	static class SimulatedCrash extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Opens the heap stored in file, creating an empty one if the file does
+	 * not exist. An operation interrupted by a crash is rolled back.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be mapped or is not a heap file.
+	 */
+	public MappedLongHeap(Path file) throws IOException {
+		this(file, DEFAULT_CHUNK_RECORDS);
+	}
+
+	/**
+	 * Opens the heap stored in file with the given mapping chunk size.
+	 *
+	 * @param chunkRecords
+	 *            - records per mapped chunk; must be a power of two.
+	 * @throws IOException
+	 *             if the file cannot be mapped or is not a heap file.
+	 */
+	MappedLongHeap(Path file, int chunkRecords) throws IOException {
+		if (chunkRecords <= 0 || Integer.bitCount(chunkRecords) != 1
+				|| (long) chunkRecords * RECORD_BYTES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Chunk size must be a power of two below 2 GB: " + chunkRecords);
+		}
+		chunkShift = Integer.numberOfTrailingZeros(chunkRecords);
+		chunkMask = chunkRecords - 1;
+		chunks = new MappedByteBuffer[4];
+
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_START);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+
+			if (header.getLong(MAGIC_OFFSET) == 0) {
+				// A new file: write an empty, clean header.
+				header.putLong(VERSION_OFFSET, VERSION);
+				header.putLong(SIZE_OFFSET, 0);
+				header.putLong(STATE_OFFSET, CLEAN);
+				header.putLong(LOG_COUNT_OFFSET, 0);
+				header.putLong(MAGIC_OFFSET, MAGIC);
+			} else if (header.getLong(MAGIC_OFFSET) != MAGIC) {
+				throw new IOException("Not a heap file: " + file);
+			} else if (header.getLong(VERSION_OFFSET) != VERSION) {
+				throw new IOException("Unsupported heap file version " + header.getLong(VERSION_OFFSET));
+			}
+
+			if (header.getLong(STATE_OFFSET) != CLEAN) {
+				recover();
+			}
+			size = header.getLong(SIZE_OFFSET);
+			ensureCapacity(size);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the smallest priority in the heap.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public long peekPriority() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return priority(1);
+	}
+
+	/**
+	 * @return the payload of the record with the smallest priority.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public long peekPayload() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return payload(1);
+	}
+
+	/**
+	 * Removes the record with the smallest priority and returns its payload.
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty. (Runs in logarithmic time.)
+	 */
+	public long dequeue() throws NoSuchElementException {
+		long minPayload = peekPayload();
+
+		begin();
+		long lastPriority = priority(size);
+		long lastPayload = payload(size);
+		long newSize = size - 1;
+		if (newSize > 0) {
+			percolateDown(1, lastPriority, lastPayload, newSize);
+		}
+		commit(newSize);
+
+		return minPayload;
+	}
+
+	/**
+	 * Adds a record to this priority queue. (Runs in logarithmic time.)
+	 *
+	 * @param priority
+	 *            -- the priority to order by
+	 * @param payload
+	 *            -- the value carried with it
+	 */
+	public void add(long priority, long payload) {
+		ensureCapacity(size + 1);
+
+		begin();
+		percolateUp(size + 1, priority, payload);
+		commit(size + 1);
+	}
+
+	/**
+	 * Returns the number of records in the heap.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Empties the heap. The file keeps its length.
+	 */
+	public void clear() {
+		begin();
+		commit(0);
+	}
+
+	/**
+	 * Forces every change made so far to the storage device.
+	 */
+	public void sync() {
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			chunks[chunk].force();
+		}
+		header.force();
+	}
+
+	/**
+	 * Closes the file. Completed operations are already in the file, so
+	 * nothing is lost if close is never called; call sync() first for
+	 * durability against power loss.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Marks an operation as started.
+	 */
+	private void begin() {
+		logCount = 0;
+		header.putLong(LOG_COUNT_OFFSET, 0);
+		header.putLong(OLD_SIZE_OFFSET, size);
+		header.putLong(STATE_OFFSET, IN_PROGRESS);
+	}
+
+	/**
+	 * Publishes the new size and discards the undo log.
+	 */
+	private void commit(long newSize) {
+		header.putLong(SIZE_OFFSET, newSize);
+		header.putLong(STATE_OFFSET, CLEAN);
+		size = newSize;
+	}
+
+	/**
+	 * Rolls back the interrupted operation by writing the logged records back
+	 * in reverse order.
+	 */
+	private void recover() throws IOException {
+		int count = (int) header.getLong(LOG_COUNT_OFFSET);
+		if (count < 0 || count > LOG_CAPACITY) {
+			throw new IOException("Corrupt undo log with " + count + " entries");
+		}
+
+		for (int entry = count - 1; entry >= 0; entry--) {
+			int offset = LOG_OFFSET + entry * LOG_ENTRY_BYTES;
+			long index = header.getLong(offset);
+			ensureCapacity(index);
+			writeRecord(index, header.getLong(offset + 8), header.getLong(offset + 16));
+		}
+
+		header.putLong(SIZE_OFFSET, header.getLong(OLD_SIZE_OFFSET));
+		header.putLong(LOG_COUNT_OFFSET, 0);
+		header.putLong(STATE_OFFSET, CLEAN);
+	}
+
+	/**
+	 * Places the record (priority, payload) at index or above it, shifting
+	 * larger parents down into the hole.
+	 */
+	private void percolateUp(long index, long priority, long payload) {
+		while (index > 1) {
+			long parent = index / 2;
+			long parentPriority = priority(parent);
+			if (priority >= parentPriority) {
+				break;
+			}
+			write(index, parentPriority, payload(parent));
+			index = parent;
+		}
+		write(index, priority, payload);
+	}
+
+	/**
+	 * Places the record (priority, payload) at index or below it within the
+	 * first newSize records, shifting smaller children up into the hole.
+	 */
+	private void percolateDown(long index, long priority, long payload, long newSize) {
+		long child = index * 2;
+
+		while (child <= newSize) {
+			long childPriority = priority(child);
+			if (child < newSize) {
+				long rightPriority = priority(child + 1);
+				if (rightPriority < childPriority) {
+					child++;
+					childPriority = rightPriority;
+				}
+			}
+			if (priority <= childPriority) {
+				break;
+			}
+			write(index, childPriority, payload(child));
+			index = child;
+			child = index * 2;
+		}
+		write(index, priority, payload);
+	}
+
+	/**
+	 * Logs the old contents of the record at index, then overwrites it.
+	 */
+	private void write(long index, long priority, long payload) {
+		int offset = LOG_OFFSET + logCount * LOG_ENTRY_BYTES;
+		header.putLong(offset, index);
+		header.putLong(offset + 8, priority(index));
+		header.putLong(offset + 16, payload(index));
+		logCount++;
+		header.putLong(LOG_COUNT_OFFSET, logCount);
+
+		if (crashCountdown >= 0 && crashCountdown-- == 0) {
+			throw new SimulatedCrash();
+		}
+
+		writeRecord(index, priority, payload);
+	}
+
+	/**
+	 * Maps chunks until record index "records" (1 INDEXED) is addressable.
+	 */
+	private void ensureCapacity(long records) {
+		long neededChunks = records == 0 ? 0 : ((records - 1) >>> chunkShift) + 1;
+		while (chunkCount < neededChunks) {
+			if (chunkCount == chunks.length) {
+				MappedByteBuffer[] newChunks = new MappedByteBuffer[chunks.length * 2];
+				System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+				chunks = newChunks;
+			}
+			long chunkBytes = (chunkMask + 1) * RECORD_BYTES;
+			try {
+				MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+						DATA_START + chunkCount * chunkBytes, chunkBytes);
+				chunk.order(ByteOrder.LITTLE_ENDIAN);
+				chunks[chunkCount++] = chunk;
+			} catch (IOException e) {
+				throw new IllegalStateException("Unable to grow heap file", e);
+			}
+		}
+	}
+
+	private int offset(long index) {
+		return (int) (((index - 1) & chunkMask) * RECORD_BYTES);
+	}
+
+	private MappedByteBuffer chunk(long index) {
+		return chunks[(int) ((index - 1) >>> chunkShift)];
+	}
+
+	private long priority(long index) {
+		return chunk(index).getLong(offset(index));
+	}
+
+	private long payload(long index) {
+		return chunk(index).getLong(offset(index) + 8);
+	}
+
+	private void writeRecord(long index, long priority, long payload) {
+		MappedByteBuffer chunk = chunk(index);
+		int offset = offset(index);
+		chunk.putLong(offset, priority);
+		chunk.putLong(offset + 8, payload);
+	}
+
+}
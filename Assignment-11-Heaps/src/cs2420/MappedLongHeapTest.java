@@ -0,0 +1,122 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing the memory-mapped heap for soundness, persistence across reopen and
+ * recovery from crashes part way through a percolate.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class MappedLongHeapTest {
+
+	private Path file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("heap", ".bin");
+		Files.delete(file);
+	}
+
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Records survive closing and reopening the file.
+	 */
+	@Test
+	public void test_reopen() throws IOException {
+		try (MappedLongHeap heap = new MappedLongHeap(file, 8)) {
+			for (long value : new long[] { 5, 6, 3, 7, 8, 1 }) {
+				heap.add(value, value * 10);
+			}
+			assertEquals(10, heap.dequeue());
+		}
+
+		try (MappedLongHeap heap = new MappedLongHeap(file, 8)) {
+			assertEquals(5, heap.size());
+			assertEquals(3, heap.peekPriority());
+			assertEquals(30, heap.dequeue());
+			assertEquals(50, heap.dequeue());
+			heap.clear();
+		}
+
+		try (MappedLongHeap heap = new MappedLongHeap(file, 8)) {
+			assertEquals(0, heap.size());
+		}
+	}
+
+	/**
+	 * Crash at random points inside percolateUp and percolateDown, reopen,
+	 * and check the heap is exactly as it was before the interrupted
+	 * operation.
+	 */
+	@Test
+	public void test_crash_recovery() throws IOException {
+		Random generator = new Random();
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		MappedLongHeap heap = new MappedLongHeap(file, 16);
+
+		for (int index = 0; index < 200; index++) {
+			long priority = generator.nextInt(1000);
+			heap.add(priority, priority * 7);
+			expected.add(priority);
+		}
+
+		int crashes = 0;
+		for (int trial = 0; trial < 500; trial++) {
+			boolean adding = expected.isEmpty() || generator.nextBoolean();
+			long priority = generator.nextInt(1000);
+			heap.crashCountdown = generator.nextInt(10);
+
+			try {
+				if (adding) {
+					heap.add(priority, priority * 7);
+					expected.add(priority);
+				} else {
+					assertEquals(expected.peek() * 7, heap.dequeue());
+					expected.poll();
+				}
+			} catch (MappedLongHeap.SimulatedCrash e) {
+				crashes++;
+				heap.close();
+				heap = new MappedLongHeap(file, 16);
+				assertEquals(expected.size(), heap.size());
+			}
+			heap.crashCountdown = -1;
+		}
+		assertTrue(crashes > 0);
+
+		heap.close();
+		heap = new MappedLongHeap(file, 16);
+		while (!expected.isEmpty()) {
+			long priority = expected.poll();
+			assertEquals(priority, heap.peekPriority());
+			assertEquals(priority * 7, heap.dequeue());
+		}
+		assertEquals(0, heap.size());
+		heap.close();
+	}
+
+	/**
+	 * Files that are not heap files are rejected.
+	 */
+	@Test(expected = IOException.class)
+	public void test_rejects_foreign_file() throws IOException {
+		Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		new MappedLongHeap(file).close();
+	}
+
+}
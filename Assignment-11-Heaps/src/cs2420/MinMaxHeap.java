@@ -0,0 +1,366 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a double-ended priority queue of generically-typed items: both
+ * the minimum and the maximum can be read in constant time and removed in
+ * logarithmic time. The queue is implemented as a min-max heap.
+ *
+ * Like Heap, the heap is an implicit binary tree in a 1 INDEXED array (the
+ * children of i are 2i and 2i+1). Levels alternate: every node on an even
+ * level (the root is level 0) is no greater than everything below it, and
+ * every node on an odd level is no less than everything below it. The
+ * minimum is therefore the root and the maximum is one of its two children.
+ *
+ * A queue constructed with a capacity is bounded: adding to a full queue
+ * evicts the maximum (or rejects the new item if it would be the maximum).
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class MinMaxHeap<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * The number of elements in the heap (NOT: the capacity of the array)
+	 */
+	private int size;
+
+	/**
+	 * The implementation array used to store heap values. Bucket 0 is unused.
+	 */
+	private Type[] heap_array;
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private Comparator<? super Type> comparator;
+
+	/**
+	 * The most items held before adds evict the maximum.
+	 */
+	private final int capacity;
+
+	/**
+	 * Constructs an empty, unbounded queue ordering items by their natural
+	 * ordering.
+	 */
+	public MinMaxHeap() {
+		this(Integer.MAX_VALUE - 1, null);
+	}
+
+	/**
+	 * Construct an empty, unbounded queue with a specified comparator.
+	 */
+	public MinMaxHeap(Comparator<? super Type> c) {
+		this(Integer.MAX_VALUE - 1, c);
+	}
+
+	/**
+	 * Constructs an empty queue holding at most capacity items.
+	 *
+	 * @param capacity
+	 *            - the most items kept; adding beyond it evicts the maximum.
+	 * @param c
+	 *            - comparator to order items with, or null for natural
+	 *            ordering.
+	 * @throws IllegalArgumentException
+	 *             if capacity is not positive.
+	 */
+	@SuppressWarnings("unchecked")
+	public MinMaxHeap(int capacity, Comparator<? super Type> c) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		comparator = c;
+		heap_array = (Type[]) new Object[Math.min(10, capacity) + 1];
+	}
+
+	/**
+	 * Adds an item to this queue, evicting the maximum if a bounded queue is
+	 * full; see offer.
+	 */
+	@Override
+	public void add(Type x) {
+		offer(x);
+	}
+
+	/**
+	 * Adds an item to this queue. (Runs in logarithmic time.)
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 * @return the item evicted to stay within capacity (the old maximum, or x
+	 *         itself if it is no less than the maximum), or null if none was.
+	 */
+	public Type offer(Type x) {
+		if (size == capacity) {
+			int maxIndex = maxIndex();
+			if (compare(x, heap_array[maxIndex]) >= 0) {
+				return x;
+			}
+			Type evicted = heap_array[maxIndex];
+			heap_array[maxIndex] = x;
+			// x is smaller than the old maximum, so it may belong on a min
+			// level above or below.
+			if (compare(x, heap_array[1]) < 0) {
+				swap(1, maxIndex);
+			}
+			percolateDown(maxIndex);
+			return evicted;
+		}
+
+		if (heap_array.length - 1 == size) {
+			resize();
+		}
+		size++;
+		heap_array[size] = x;
+		percolateUp(size);
+		return null;
+	}
+
+	/**
+	 * @return the smallest item, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		return peekMin();
+	}
+
+	/**
+	 * @return the smallest item, null if empty.
+	 */
+	public Type peekMin() {
+		return size == 0 ? null : heap_array[1];
+	}
+
+	/**
+	 * @return the largest item, null if empty.
+	 */
+	public Type peekMax() {
+		return size == 0 ? null : heap_array[maxIndex()];
+	}
+
+	/**
+	 * Removes and returns the minimum item; see dequeueMin.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		return dequeueMin();
+	}
+
+	/**
+	 * Removes and returns the minimum item. (Runs in logarithmic time.)
+	 *
+	 * @throws NoSuchElementException
+	 *             if this queue is empty.
+	 */
+	public Type dequeueMin() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return removeAt(1);
+	}
+
+	/**
+	 * Removes and returns the maximum item. (Runs in logarithmic time.)
+	 *
+	 * @throws NoSuchElementException
+	 *             if this queue is empty.
+	 */
+	public Type dequeueMax() throws NoSuchElementException {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return removeAt(maxIndex());
+	}
+
+	/**
+	 * Replaces the contents of this queue with the items of array, in linear
+	 * time, by percolating down every internal node from the last one to the
+	 * root. Only the capacity smallest items of a bounded queue are kept.
+	 *
+	 * @param array
+	 *            - the items to build the heap from (copied).
+	 */
+	@SuppressWarnings("unchecked")
+	public void build_heap_from_array(Type[] array) {
+		int count = Math.min(array.length, capacity);
+		heap_array = (Type[]) new Object[count + 1];
+		System.arraycopy(array, 0, heap_array, 1, count);
+		size = count;
+		for (int index = size / 2; index > 0; index--) {
+			percolateDown(index);
+		}
+		for (int index = count; index < array.length; index++) {
+			offer(array[index]);
+		}
+	}
+
+	/**
+	 * @return a copy of the heap array (bucket 0 is unused)
+	 */
+	public Object[] toArray() {
+		Object[] copy_of_array = new Object[size + 1];
+		System.arraycopy(heap_array, 1, copy_of_array, 1, size);
+		return copy_of_array;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the most items this queue keeps.
+	 */
+	public int get_capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Clear the heap.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		heap_array = (Type[]) new Object[Math.min(10, capacity) + 1];
+		size = 0;
+	}
+
+	/**
+	 * @return the index of the maximum: the larger child of the root, or the
+	 *         root of a one-item heap.
+	 */
+	private int maxIndex() {
+		if (size <= 2) {
+			return size;
+		}
+		return compare(heap_array[2], heap_array[3]) >= 0 ? 2 : 3;
+	}
+
+	/**
+	 * Removes the item at index, filling the hole with the last item.
+	 */
+	private Type removeAt(int index) {
+		Type removed = heap_array[index];
+		heap_array[index] = heap_array[size];
+		heap_array[size] = null;
+		size--;
+		if (index <= size) {
+			percolateDown(index);
+		}
+		return removed;
+	}
+
+	/**
+	 * @return true if index is on a min (even) level.
+	 */
+	private static boolean isMinLevel(int index) {
+		return ((31 - Integer.numberOfLeadingZeros(index)) & 1) == 0;
+	}
+
+	/**
+	 * Moves a newly appended item up to its place: first onto the right kind
+	 * of level by comparing with its parent, then up through its
+	 * grandparents.
+	 */
+	private void percolateUp(int index) {
+		if (index == 1) {
+			return;
+		}
+		int parent = index / 2;
+		boolean min = isMinLevel(index);
+		if (min ? compare(heap_array[index], heap_array[parent]) > 0
+				: compare(heap_array[index], heap_array[parent]) < 0) {
+			swap(index, parent);
+			index = parent;
+			min = !min;
+		}
+		// Grandparents are on the same kind of level.
+		while (index > 3) {
+			int grandparent = index / 4;
+			int order = compare(heap_array[index], heap_array[grandparent]);
+			if (min ? order >= 0 : order <= 0) {
+				break;
+			}
+			swap(index, grandparent);
+			index = grandparent;
+		}
+	}
+
+	/**
+	 * Moves the item at index down to its place, through grandchildren on its
+	 * own kind of level, fixing up the parent of wherever it stops.
+	 */
+	private void percolateDown(int index) {
+		// On max levels the comparisons are flipped.
+		int sign = isMinLevel(index) ? 1 : -1;
+		while (2 * index <= size) {
+			// The extreme (smallest on min levels, largest on max levels) of
+			// the children and grandchildren.
+			int extreme = 2 * index;
+			if (extreme + 1 <= size && sign * compare(heap_array[extreme + 1], heap_array[extreme]) < 0) {
+				extreme++;
+			}
+			int lastGrandchild = Math.min(4 * index + 3, size);
+			for (int grandchild = 4 * index; grandchild <= lastGrandchild; grandchild++) {
+				if (sign * compare(heap_array[grandchild], heap_array[extreme]) < 0) {
+					extreme = grandchild;
+				}
+			}
+
+			if (sign * compare(heap_array[extreme], heap_array[index]) >= 0) {
+				return;
+			}
+			swap(index, extreme);
+			if (extreme < 4 * index) {
+				// A child has nothing below it, so the moved item is in place.
+				return;
+			}
+			int parent = extreme / 2;
+			if (sign * compare(heap_array[extreme], heap_array[parent]) > 0) {
+				swap(extreme, parent);
+			}
+			index = extreme;
+		}
+	}
+
+	/**
+	 * Swaps two provided items.
+	 */
+	private void swap(int index1, int index2) {
+		Type element1 = heap_array[index1];
+		heap_array[index1] = heap_array[index2];
+		heap_array[index2] = element1;
+	}
+
+	/**
+	 * Resizes backing array by doubling capacity, up to the bound.
+	 */
+	@SuppressWarnings("unchecked")
+	private void resize() {
+		int length = (int) Math.min(2L * heap_array.length, capacity + 1L);
+		Type[] newArray = (Type[]) new Object[length];
+		System.arraycopy(heap_array, 1, newArray, 1, size);
+		heap_array = newArray;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+}
@@ -0,0 +1,129 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing MinMaxHeap against a sorted multiset.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class MinMaxHeapTest {
+
+	private MinMaxHeap<Integer> heap;
+
+	/**
+	 * Creates the same simple heap used by HeapTest.
+	 */
+	@Before
+	public void createSimpleHeap() {
+		heap = new MinMaxHeap<>();
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			heap.add(value);
+		}
+	}
+
+	/**
+	 * Both ends come out in order.
+	 */
+	@Test
+	public void test_both_ends() {
+		assertEquals(6, heap.size());
+		assertEquals(1, (int) heap.peekMin());
+		assertEquals(8, (int) heap.peekMax());
+		assertArrayEquals(new Integer[] { null, 1, 8, 5, 6, 7, 3 }, heap.toArray());
+
+		assertEquals(8, (int) heap.dequeueMax());
+		assertEquals(1, (int) heap.dequeueMin());
+		assertEquals(7, (int) heap.dequeueMax());
+		assertEquals(3, (int) heap.dequeue());
+		assertEquals(6, (int) heap.dequeueMax());
+		assertEquals(5, (int) heap.dequeueMax());
+		assertNull(heap.peekMax());
+
+		try {
+			heap.dequeueMax();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Random adds, builds and removals from either end agree with a TreeMap
+	 * multiset, unbounded and bounded.
+	 */
+	@Test
+	public void test_random_against_multiset() {
+		Random generator = new Random();
+		for (int capacity : new int[] { Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 1, 2, 37 }) {
+			MinMaxHeap<Integer> random = new MinMaxHeap<>(capacity, Comparator.naturalOrder());
+			TreeMap<Integer, Integer> expected = new TreeMap<>();
+
+			Integer[] initial = new Integer[generator.nextInt(100)];
+			for (int index = 0; index < initial.length; index++) {
+				initial[index] = generator.nextInt(100);
+				add(expected, initial[index]);
+				if (count(expected) > capacity) {
+					remove(expected, expected.lastKey());
+				}
+			}
+			random.build_heap_from_array(initial);
+
+			for (int step = 0; step < 20000; step++) {
+				int operation = generator.nextInt(4);
+				if (operation < 2 || expected.isEmpty()) {
+					int value = generator.nextInt(100);
+					Integer evicted = random.offer(value);
+					add(expected, value);
+					if (count(expected) > capacity) {
+						Integer max = expected.lastKey();
+						assertEquals(max, evicted);
+						remove(expected, max);
+					} else {
+						assertNull(evicted);
+					}
+				} else if (operation == 2) {
+					Integer min = expected.firstKey();
+					remove(expected, min);
+					assertEquals(min, random.dequeueMin());
+				} else {
+					Integer max = expected.lastKey();
+					remove(expected, max);
+					assertEquals(max, random.dequeueMax());
+				}
+				assertEquals(count(expected), random.size());
+				if (!expected.isEmpty()) {
+					assertEquals(expected.firstKey(), random.peekMin());
+					assertEquals(expected.lastKey(), random.peekMax());
+				}
+			}
+		}
+	}
+
+	private static void add(TreeMap<Integer, Integer> multiset, int value) {
+		multiset.merge(value, 1, Integer::sum);
+	}
+
+	private static void remove(TreeMap<Integer, Integer> multiset, int value) {
+		if (multiset.merge(value, -1, Integer::sum) == 0) {
+			multiset.remove(value);
+		}
+	}
+
+	private static int count(TreeMap<Integer, Integer> multiset) {
+		int count = 0;
+		for (int copies : multiset.values()) {
+			count += copies;
+		}
+		return count;
+	}
+
+}
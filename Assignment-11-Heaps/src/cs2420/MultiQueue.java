@@ -0,0 +1,367 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Represents a thread-safe, relaxed priority queue of generically-typed
+ * items. dequeue returns one of the smallest items, but not necessarily the
+ * smallest.
+ *
+ * The queue is c*P independent Heaps (shards), each behind its own lock. add
+ * puts the item in a random shard. dequeue samples two random shards and takes
+ * the smaller of their roots. Because threads rarely pick the same shard,
+ * throughput grows almost linearly with threads, and the expected rank of the
+ * returned item stays within a small multiple of the number of shards.
+ *
+ * The rank error can be observed with setRankTracking. It is measured as the
+ * number of other shards whose root was smaller than the returned item, which
+ * is a lower bound on how many smaller items were in the queue.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class MultiQueue<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * A Heap, its lock, and a copy of its root that can be read without
+	 * locking.
+	 */
+	private static final class Shard<Type> {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Heap<Type> heap;
+		private volatile Type top;
+		private volatile int size;
+
+		private Shard(Comparator<? super Type> c) {
+			heap = new Heap<>(c);
+		}
+
+		/**
+		 * Refresh the unlocked view after the heap changed. Lock must be held.
+		 */
+		private void publish() {
+			top = heap.peek();
+			size = heap.size();
+		}
+	}
+
+	/**
+	 * The independent heaps.
+	 */
+	private final Shard<Type>[] shards;
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private final Comparator<? super Type> comparator;
+
+	/**
+	 * When true, dequeue records its rank error.
+	 */
+	private volatile boolean trackRankError;
+
+	/**
+	 * Sum of recorded rank errors, number of recorded dequeues and the largest
+	 * error seen.
+	 */
+	private final LongAdder rankErrorSum = new LongAdder();
+	private final LongAdder rankErrorCount = new LongAdder();
+	private final AtomicLong maxRankError = new AtomicLong();
+
+	/**
+	 * Constructs an empty queue with two shards per available processor,
+	 * ordering elements according to their natural ordering.
+	 */
+	public MultiQueue() {
+		this(2, Runtime.getRuntime().availableProcessors(), null);
+	}
+
+	/**
+	 * Constructs an empty queue with c*threads shards.
+	 *
+	 * @param c
+	 *            - shards per thread; 2 is a good default.
+	 * @param threads
+	 *            - expected number of threads using the queue.
+	 * @param comparator
+	 *            - comparator to order elements with, or null for natural
+	 *            ordering.
+	 * @throws IllegalArgumentException
+	 *             if c*threads is less than 2.
+	 */
+	@SuppressWarnings("unchecked")
+	public MultiQueue(int c, int threads, Comparator<? super Type> comparator) {
+		if (c * threads < 2) {
+			throw new IllegalArgumentException("MultiQueue needs at least 2 shards: " + c * threads);
+		}
+		this.comparator = comparator;
+		shards = (Shard<Type>[]) new Shard<?>[c * threads];
+		for (int index = 0; index < shards.length; index++) {
+			shards[index] = new Shard<>(comparator);
+		}
+	}
+
+	/**
+	 * Adds an item to a random shard.
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 */
+	@Override
+	public void add(Type x) {
+		ThreadLocalRandom generator = ThreadLocalRandom.current();
+
+		// Skip shards another thread holds rather than wait for them.
+		while (true) {
+			Shard<Type> shard = shards[generator.nextInt(shards.length)];
+			if (shard.lock.tryLock()) {
+				try {
+					shard.heap.add(x);
+					shard.publish();
+					return;
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes and returns the smaller root of two randomly chosen shards.
+	 *
+	 * @throws NoSuchElementException
+	 *             if every shard is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		Type result = poll();
+		if (result == null) {
+			throw new NoSuchElementException();
+		}
+		return result;
+	}
+
+	/**
+	 * Removes up to k items, each one dequeue would return, into out[0..].
+	 * Stops early, without throwing, once every shard is empty.
+	 *
+	 * @return the number of elements removed.
+	 * @throws IllegalArgumentException
+	 *             if out is shorter than k.
+	 */
+	@Override
+	public int dequeue(int k, Type[] out) {
+		if (out.length < k) {
+			throw new IllegalArgumentException("Output array holds " + out.length + ", need " + k);
+		}
+		int count = 0;
+		Type item;
+		while (count < k && (item = poll()) != null) {
+			out[count++] = item;
+		}
+		return count;
+	}
+
+	/**
+	 * Removes up to max items, each one dequeue would return, passing each to
+	 * consumer. Stops early, without throwing, once every shard is empty.
+	 *
+	 * @return the number of elements removed.
+	 */
+	@Override
+	public int drainTo(Consumer<? super Type> consumer, int max) {
+		int count = 0;
+		Type item;
+		while (count < max && (item = poll()) != null) {
+			consumer.accept(item);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Removes and returns the smaller root of two randomly chosen shards.
+	 *
+	 * @return the removed item, or null if every shard is empty.
+	 */
+	private Type poll() {
+		ThreadLocalRandom generator = ThreadLocalRandom.current();
+
+		while (true) {
+			Shard<Type> first = shards[generator.nextInt(shards.length)];
+			Shard<Type> second = shards[generator.nextInt(shards.length)];
+			Shard<Type> best = better(first, second);
+
+			if (best.top == null) {
+				// Both samples were empty; fall back to a full scan so an
+				// almost empty queue still drains.
+				best = scanForNonEmpty();
+				if (best == null) {
+					return null;
+				}
+			}
+
+			if (best.lock.tryLock()) {
+				try {
+					if (best.heap.size() == 0) {
+						continue;
+					}
+					Type result = best.heap.dequeue();
+					best.publish();
+					if (trackRankError) {
+						recordRankError(result);
+					}
+					return result;
+				} finally {
+					best.lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the smallest root across all shards. Under concurrent updates
+	 * this is a snapshot of some recent minimum.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		Type min = null;
+		for (Shard<Type> shard : shards) {
+			Type top = shard.top;
+			if (top != null && (min == null || compare(top, min) < 0)) {
+				min = top;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Returns the number of elements across all shards. Under concurrent
+	 * updates this is an estimate.
+	 */
+	@Override
+	public int size() {
+		int total = 0;
+		for (Shard<Type> shard : shards) {
+			total += shard.size;
+		}
+		return total;
+	}
+
+	/**
+	 * Clears every shard in turn.
+	 */
+	@Override
+	public void clear() {
+		for (Shard<Type> shard : shards) {
+			shard.lock.lock();
+			try {
+				shard.heap.clear();
+				shard.publish();
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Turn rank error tracking on or off. Tracking costs one scan of the shard
+	 * roots per dequeue. Turning it on resets the statistics.
+	 */
+	public void setRankTracking(boolean enabled) {
+		if (enabled) {
+			rankErrorSum.reset();
+			rankErrorCount.reset();
+			maxRankError.set(0);
+		}
+		trackRankError = enabled;
+	}
+
+	/**
+	 * @return the mean rank error over tracked dequeues, 0 if none.
+	 */
+	public double getMeanRankError() {
+		long count = rankErrorCount.sum();
+		return count == 0 ? 0 : (double) rankErrorSum.sum() / count;
+	}
+
+	/**
+	 * @return the largest rank error over tracked dequeues.
+	 */
+	public long getMaxRankError() {
+		return maxRankError.get();
+	}
+
+	/**
+	 * @return the number of shards.
+	 */
+	public int get_shards() {
+		return shards.length;
+	}
+
+	/**
+	 * Counts the shard roots smaller than the item just dequeued.
+	 */
+	private void recordRankError(Type result) {
+		long error = 0;
+		for (Shard<Type> shard : shards) {
+			Type top = shard.top;
+			if (top != null && compare(top, result) < 0) {
+				error++;
+			}
+		}
+		rankErrorSum.add(error);
+		rankErrorCount.increment();
+		maxRankError.accumulateAndGet(error, Math::max);
+	}
+
+	/**
+	 * @return whichever shard has the smaller root, preferring non-empty ones.
+	 */
+	private Shard<Type> better(Shard<Type> first, Shard<Type> second) {
+		Type firstTop = first.top;
+		Type secondTop = second.top;
+		if (firstTop == null) {
+			return second;
+		}
+		if (secondTop == null) {
+			return first;
+		}
+		return compare(secondTop, firstTop) < 0 ? second : first;
+	}
+
+	/**
+	 * @return some non-empty shard, or null if all appear empty.
+	 */
+	private Shard<Type> scanForNonEmpty() {
+		int start = ThreadLocalRandom.current().nextInt(shards.length);
+		for (int offset = 0; offset < shards.length; offset++) {
+			Shard<Type> shard = shards[(start + offset) % shards.length];
+			if (shard.top != null) {
+				return shard;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+}
@@ -0,0 +1,162 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+/**
+ * Testing the relaxed MultiQueue for soundness. Ordering is only approximate,
+ * so these tests check that nothing is lost and that the error stays bounded.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class MultiQueueTest {
+
+	/**
+	 * Every added item comes back exactly once, single threaded.
+	 */
+	@Test
+	public void test_sequential_no_loss() {
+		MultiQueue<Integer> queue = new MultiQueue<>(2, 4, null);
+		for (int value = 0; value < 1000; value++) {
+			queue.add(value);
+		}
+		assertEquals(1000, queue.size());
+		assertEquals(0, (int) queue.peek());
+
+		boolean[] seen = new boolean[1000];
+		for (int index = 0; index < 1000; index++) {
+			int value = queue.dequeue();
+			assertFalse(seen[value]);
+			seen[value] = true;
+		}
+		assertEquals(0, queue.size());
+		assertNull(queue.peek());
+
+		try {
+			queue.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Rank error is recorded when tracking is on and stays well below the
+	 * queue size.
+	 */
+	@Test
+	public void test_rank_error_tracking() {
+		MultiQueue<Integer> queue = new MultiQueue<>(2, 4, null);
+		for (int value = 0; value < 10000; value++) {
+			queue.add(value);
+		}
+
+		queue.setRankTracking(true);
+		for (int index = 0; index < 5000; index++) {
+			queue.dequeue();
+		}
+
+		// Error is counted in shards, so can never exceed shards - 1.
+		assertTrue(queue.getMaxRankError() < queue.get_shards());
+		assertTrue(queue.getMeanRankError() < queue.get_shards() / 2.0);
+	}
+
+	/**
+	 * Concurrent producers and consumers neither lose nor duplicate items.
+	 */
+	@Test
+	public void test_concurrent_no_loss() throws InterruptedException {
+		final int THREADS = 8;
+		final int PER_THREAD = 20000;
+		MultiQueue<Integer> queue = new MultiQueue<>(2, THREADS, null);
+		AtomicIntegerArray seen = new AtomicIntegerArray(THREADS * PER_THREAD);
+		Thread[] workers = new Thread[THREADS * 2];
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int base = thread * PER_THREAD;
+			workers[thread] = new Thread(() -> {
+				for (int index = 0; index < PER_THREAD; index++) {
+					queue.add(base + index);
+				}
+			});
+			workers[THREADS + thread] = new Thread(() -> {
+				int taken = 0;
+				while (taken < PER_THREAD) {
+					try {
+						seen.incrementAndGet(queue.dequeue());
+						taken++;
+					} catch (NoSuchElementException e) {
+						// Producers have not caught up yet.
+					}
+				}
+			});
+		}
+
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(0, queue.size());
+		for (int value = 0; value < seen.length(); value++) {
+			assertEquals("value " + value, 1, seen.get(value));
+		}
+	}
+
+	/**
+	 * Concurrent batch dequeues and drains of a shared queue stop cleanly when
+	 * it runs out, and every item is taken exactly once.
+	 */
+	@Test
+	public void test_concurrent_batch_dequeue() throws InterruptedException {
+		final int THREADS = 8;
+		final int ITEMS = 100000;
+		MultiQueue<Integer> shared = new MultiQueue<>(2, THREADS, null);
+		for (int value = 0; value < ITEMS; value++) {
+			shared.add(value);
+		}
+		AtomicIntegerArray seen = new AtomicIntegerArray(ITEMS);
+		AtomicBoolean threw = new AtomicBoolean();
+		Thread[] workers = new Thread[THREADS];
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			final boolean drain = thread % 2 == 0;
+			workers[thread] = new Thread(() -> {
+				Integer[] batch = new Integer[7];
+				try {
+					int taken;
+					do {
+						if (drain) {
+							taken = shared.drainTo(seen::incrementAndGet, batch.length);
+						} else {
+							taken = shared.dequeue(batch.length, batch);
+							for (int index = 0; index < taken; index++) {
+								seen.incrementAndGet(batch[index]);
+							}
+						}
+					} while (taken > 0);
+				} catch (RuntimeException e) {
+					threw.set(true);
+				}
+			});
+			workers[thread].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertFalse(threw.get());
+		assertEquals(0, shared.size());
+		for (int value = 0; value < ITEMS; value++) {
+			assertEquals("value " + value, 1, seen.get(value));
+		}
+	}
+
+}
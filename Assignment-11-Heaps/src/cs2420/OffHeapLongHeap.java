@@ -0,0 +1,332 @@
+package cs2420;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue of (long priority, long payload) records stored
+ * outside the Java heap. The queue is implemented as a min heap on priority.
+ *
+ * The records form the same implicit 1 INDEXED array as Heap, but the array is
+ * split into fixed-size chunks of direct ByteBuffers. Growing adds a chunk
+ * instead of copying everything, and the garbage collector only sees a handful
+ * of buffer objects no matter how many records are queued.
+ *
+ * Ownership: the heap owns its buffers and never hands them out. close()
+ * frees their native memory immediately, through the buffers' cleaners
+ * (sun.misc.Unsafe.invokeCleaner, the only way to do so on Java 17), and every
+ * later operation throws IllegalStateException. On a JVM without that hook,
+ * close() falls back to dropping the buffers, and the memory is freed when they
+ * are collected. Instances are not thread-safe.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class OffHeapLongHeap implements AutoCloseable {
+
+	/**
+	 * Bytes per record: an 8 byte priority followed by an 8 byte payload.
+	 */
+	private static final int RECORD_BYTES = 16;
+
+	/**
+	 * Default records per chunk (16 MB chunks).
+	 */
+	public static final int DEFAULT_CHUNK_RECORDS = 1 << 20;
+
+	/**
+	 * Unsafe.invokeCleaner bound to the Unsafe instance, or null if this JVM
+	 * does not provide it.
+	 */
+	private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+	/**
+	 * The number of records in the heap (NOT: the capacity of the chunks)
+	 */
+	private long size;
+
+	/**
+	 * The chunks, in order. Record i lives in chunk i >>> chunkShift.
+	 */
+	private ByteBuffer[] chunks;
+
+	/**
+	 * Number of chunks allocated so far.
+	 */
+	private int chunkCount;
+
+	/**
+	 * log2 of the records per chunk, and the mask for the record within a
+	 * chunk.
+	 */
+	private final int chunkShift;
+	private final long chunkMask;
+
+	/**
+	 * Set once close() has been called.
+	 */
+	private boolean closed;
+
+	/**
+	 * Constructs an empty off-heap priority queue with the default chunk size.
+	 */
+	public OffHeapLongHeap() {
+		this(DEFAULT_CHUNK_RECORDS);
+	}
+
+	/**
+	 * Constructs an empty off-heap priority queue.
+	 *
+	 * @param chunkRecords
+	 *            - records per chunk; must be a power of two.
+	 * @throws IllegalArgumentException
+	 *             if chunkRecords is not a power of two, or a chunk would
+	 *             exceed 2 GB.
+	 */
+	public OffHeapLongHeap(int chunkRecords) {
+		if (chunkRecords <= 0 || Integer.bitCount(chunkRecords) != 1
+				|| (long) chunkRecords * RECORD_BYTES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Chunk size must be a power of two below 2 GB: " + chunkRecords);
+		}
+		chunkShift = Integer.numberOfTrailingZeros(chunkRecords);
+		chunkMask = chunkRecords - 1;
+		chunks = new ByteBuffer[4];
+		chunkCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return the smallest priority in the heap.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public long peekPriority() throws NoSuchElementException {
+		checkOpen();
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return priority(1);
+	}
+
+	/**
+	 * @return the payload of the record with the smallest priority.
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	public long peekPayload() throws NoSuchElementException {
+		checkOpen();
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return payload(1);
+	}
+
+	/**
+	 * Removes the record with the smallest priority and returns its payload.
+	 * Call peekPriority first if the priority is also needed.
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty. (Runs in logarithmic time.)
+	 */
+	public long dequeue() throws NoSuchElementException {
+		long minPayload = peekPayload();
+
+		long lastPriority = priority(size);
+		long lastPayload = payload(size);
+		size--;
+		if (size > 0) {
+			percolateDown(1, lastPriority, lastPayload);
+		}
+
+		return minPayload;
+	}
+
+	/**
+	 * Adds a record to this priority queue. (Runs in logarithmic time.)
+	 *
+	 * @param priority
+	 *            -- the priority to order by
+	 * @param payload
+	 *            -- the value carried with it
+	 */
+	public void add(long priority, long payload) {
+		checkOpen();
+		ensureCapacity(size + 1);
+		size++;
+		percolateUp(size, priority, payload);
+	}
+
+	/**
+	 * 1) copy data from arrays into heap storage 2) do an "in place" creation
+	 * of the heap
+	 *
+	 * @param priorities
+	 *            - random data (unordered)
+	 * @param payloads
+	 *            - payload for each priority, same length
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length.
+	 */
+	public void build_heap_from_array(long[] priorities, long[] payloads) {
+		checkOpen();
+		if (priorities.length != payloads.length) {
+			throw new IllegalArgumentException("Priorities and payloads differ in length");
+		}
+
+		size = 0;
+		ensureCapacity(priorities.length);
+		for (int index = 0; index < priorities.length; index++) {
+			write(index + 1, priorities[index], payloads[index]);
+		}
+		size = priorities.length;
+
+		for (long index = size / 2; index > 0; index--) {
+			percolateDown(index, priority(index), payload(index));
+		}
+	}
+
+	/**
+	 * Returns the number of records in the heap.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Empties the heap, keeping the chunks already allocated for reuse.
+	 */
+	public void clear() {
+		checkOpen();
+		size = 0;
+	}
+
+	/**
+	 * Frees the chunks' native memory. The heap cannot be used afterwards.
+	 * Calling close more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (INVOKE_CLEANER != null) {
+			for (int chunk = 0; chunk < chunkCount; chunk++) {
+				try {
+					INVOKE_CLEANER.invokeExact(chunks[chunk]);
+				} catch (Throwable e) {
+					// Left for the garbage collector to free.
+				}
+			}
+		}
+		chunks = null;
+		chunkCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return a handle to Unsafe.invokeCleaner(ByteBuffer) on the Unsafe
+	 *         instance, or null if it cannot be found.
+	 */
+	private static MethodHandle findInvokeCleaner() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			return MethodHandles.lookup()
+					.findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+					.bindTo(theUnsafe.get(null));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Places the record (priority, payload) at index or above it, shifting
+	 * larger parents down into the hole.
+	 */
+	private void percolateUp(long index, long priority, long payload) {
+		while (index > 1) {
+			long parent = index / 2;
+			long parentPriority = priority(parent);
+			if (priority >= parentPriority) {
+				break;
+			}
+			write(index, parentPriority, payload(parent));
+			index = parent;
+		}
+		write(index, priority, payload);
+	}
+
+	/**
+	 * Places the record (priority, payload) at index or below it, shifting
+	 * smaller children up into the hole.
+	 */
+	private void percolateDown(long index, long priority, long payload) {
+		long child = index * 2;
+
+		while (child <= size) {
+			long childPriority = priority(child);
+			if (child < size) {
+				long rightPriority = priority(child + 1);
+				if (rightPriority < childPriority) {
+					child++;
+					childPriority = rightPriority;
+				}
+			}
+			if (priority <= childPriority) {
+				break;
+			}
+			write(index, childPriority, payload(child));
+			index = child;
+			child = index * 2;
+		}
+		write(index, priority, payload);
+	}
+
+	/**
+	 * Allocates chunks until record index "records" (1 INDEXED) is addressable.
+	 */
+	private void ensureCapacity(long records) {
+		long neededChunks = (records >>> chunkShift) + 1;
+		while (chunkCount < neededChunks) {
+			if (chunkCount == chunks.length) {
+				ByteBuffer[] newChunks = new ByteBuffer[chunks.length * 2];
+				System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+				chunks = newChunks;
+			}
+			chunks[chunkCount++] = ByteBuffer.allocateDirect((int) ((chunkMask + 1) * RECORD_BYTES))
+					.order(ByteOrder.nativeOrder());
+		}
+	}
+
+	private long priority(long index) {
+		return chunks[(int) (index >>> chunkShift)].getLong((int) ((index & chunkMask) * RECORD_BYTES));
+	}
+
+	private long payload(long index) {
+		return chunks[(int) (index >>> chunkShift)].getLong((int) ((index & chunkMask) * RECORD_BYTES + 8));
+	}
+
+	private void write(long index, long priority, long payload) {
+		ByteBuffer chunk = chunks[(int) (index >>> chunkShift)];
+		int offset = (int) ((index & chunkMask) * RECORD_BYTES);
+		chunk.putLong(offset, priority);
+		chunk.putLong(offset + 8, payload);
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if the heap has been closed.
+	 */
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("Heap has been closed");
+		}
+	}
+
+}
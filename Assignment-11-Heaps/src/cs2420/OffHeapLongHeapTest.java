@@ -0,0 +1,114 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testing the off-heap heap for soundness, including growth across chunk
+ * boundaries and close().
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class OffHeapLongHeapTest {
+
+	/**
+	 * Records come out in priority order with their payloads, across many
+	 * small chunks.
+	 */
+	@Test
+	public void test_add_dequeue_across_chunks() {
+		try (OffHeapLongHeap heap = new OffHeapLongHeap(8)) {
+			Random generator = new Random();
+			long[] expected = new long[1000];
+			for (int index = 0; index < expected.length; index++) {
+				expected[index] = generator.nextInt(10000);
+				heap.add(expected[index], expected[index] * 2);
+			}
+			Arrays.sort(expected);
+
+			assertEquals(1000, heap.size());
+			for (long priority : expected) {
+				assertEquals(priority, heap.peekPriority());
+				assertEquals(priority * 2, heap.dequeue());
+			}
+			assertEquals(0, heap.size());
+
+			try {
+				heap.dequeue();
+				fail("Should have thrown NoSuchElementException");
+			} catch (NoSuchElementException e) {
+				// Test passes.
+			}
+		}
+	}
+
+	/**
+	 * Test building a heap from arrays.
+	 */
+	@Test
+	public void test_build_heap_from_array() {
+		try (OffHeapLongHeap heap = new OffHeapLongHeap(4)) {
+			heap.add(100, 100);
+			heap.build_heap_from_array(new long[] { 3, 5, 7, 9, 12, 3, -1 }, new long[] { 0, 1, 2, 3, 4, 5, 6 });
+			assertEquals(7, heap.size());
+			assertEquals(-1, heap.peekPriority());
+			assertEquals(6, heap.dequeue());
+			assertEquals(3, heap.peekPriority());
+
+			heap.clear();
+			assertEquals(0, heap.size());
+		}
+	}
+
+	/**
+	 * A closed heap rejects every operation.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void test_closed_heap() {
+		OffHeapLongHeap heap = new OffHeapLongHeap(4);
+		heap.add(1, 1);
+		heap.close();
+		heap.close();
+		heap.add(2, 2);
+	}
+
+	/**
+	 * close() frees the chunks' native memory without waiting for a GC.
+	 */
+	@Test
+	public void test_close_frees_memory() {
+		// Four 1 MB chunks.
+		OffHeapLongHeap heap = new OffHeapLongHeap(1 << 16);
+		for (int index = 0; index < 4 * (1 << 16) - 1; index++) {
+			heap.add(index, index);
+		}
+		long before = directMemoryUsed();
+		heap.close();
+		assertTrue(before - directMemoryUsed() >= 4L << 20);
+	}
+
+	private static long directMemoryUsed() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				return pool.getMemoryUsed();
+			}
+		}
+		throw new AssertionError("No direct buffer pool");
+	}
+
+	/**
+	 * Chunk sizes must be powers of two.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void test_bad_chunk_size() {
+		new OffHeapLongHeap(6);
+	}
+
+}
@@ -0,0 +1,130 @@
+package cs2420;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Timing experiments comparing OffHeapLongHeap against Heap<Long>: total time,
+ * GC time and p99 per-operation latency for filling and then draining a heap
+ * of N random priorities.
+ *
+ * @author Mark Van der Merwe and Roman Clark
+ *
+ */
+public class OffHeapTiming {
+
+	// Control N in tests.
+	public static final int START = 1000000;
+	public static final int END = 10000000;
+	public static final int INCREMENT = 1000000;
+
+	/**
+	 * @return total milliseconds spent in garbage collection so far.
+	 */
+	private static long gcMillis() {
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(gc.getCollectionTime(), 0);
+		}
+		return total;
+	}
+
+	/**
+	 * @return the 99th percentile of the recorded latencies.
+	 */
+	private static long p99(long[] latencies) {
+		Arrays.sort(latencies);
+		return latencies[(int) (latencies.length * 0.99)];
+	}
+
+	/**
+	 * Fill a Heap<Long> with n random values and drain it, timing each
+	 * operation.
+	 *
+	 * @return { total ms, GC ms, p99 ns }
+	 */
+	private static long[] timeBoxedHeap(long[] data) {
+		long[] latencies = new long[data.length * 2];
+		long gcBefore = gcMillis();
+		long startTime = System.nanoTime();
+
+		Heap<Long> heap = new Heap<>();
+		for (int index = 0; index < data.length; index++) {
+			long opStart = System.nanoTime();
+			heap.add(data[index]);
+			latencies[index] = System.nanoTime() - opStart;
+		}
+		for (int index = 0; index < data.length; index++) {
+			long opStart = System.nanoTime();
+			heap.dequeue();
+			latencies[data.length + index] = System.nanoTime() - opStart;
+		}
+
+		long total = (System.nanoTime() - startTime) / 1000000;
+		return new long[] { total, gcMillis() - gcBefore, p99(latencies) };
+	}
+
+	/**
+	 * Fill an OffHeapLongHeap with n random values and drain it, timing each
+	 * operation.
+	 *
+	 * @return { total ms, GC ms, p99 ns }
+	 */
+	private static long[] timeOffHeap(long[] data) {
+		long[] latencies = new long[data.length * 2];
+		long gcBefore = gcMillis();
+		long startTime = System.nanoTime();
+
+		try (OffHeapLongHeap heap = new OffHeapLongHeap()) {
+			for (int index = 0; index < data.length; index++) {
+				long opStart = System.nanoTime();
+				heap.add(data[index], index);
+				latencies[index] = System.nanoTime() - opStart;
+			}
+			for (int index = 0; index < data.length; index++) {
+				long opStart = System.nanoTime();
+				heap.dequeue();
+				latencies[data.length + index] = System.nanoTime() - opStart;
+			}
+		}
+
+		long total = (System.nanoTime() - startTime) / 1000000;
+		return new long[] { total, gcMillis() - gcBefore, p99(latencies) };
+	}
+
+	/**
+	 * Compare total time, GC time and p99 latency for both heaps as N grows.
+	 */
+	public static void testFillAndDrain() {
+		StringBuilder offHeapTimes = new StringBuilder();
+		Random generator = new Random();
+
+		for (int n = START; n <= END; n += INCREMENT) {
+			long[] data = new long[n];
+			for (int index = 0; index < n; index++) {
+				data[index] = generator.nextLong();
+			}
+
+			long[] boxed = timeBoxedHeap(data);
+			long[] offHeap = timeOffHeap(data);
+
+			String row = n + "," + boxed[0] + "," + boxed[1] + "," + boxed[2] + "," + offHeap[0] + "," + offHeap[1]
+					+ "," + offHeap[2];
+			offHeapTimes.append(row + "\n");
+			System.out.println(row);
+		}
+
+		Timing.sendToFile(offHeapTimes, "offHeapTimes.csv");
+	}
+
+	public static void main(String args[]) {
+		// Warm up both implementations before recording anything.
+		long[] warmup = new Random().longs(START).toArray();
+		timeBoxedHeap(warmup);
+		timeOffHeap(warmup);
+
+		testFillAndDrain();
+	}
+}
@@ -0,0 +1,435 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue of generically-typed items, implemented as a
+ * pairing heap: a single heap-ordered tree of arbitrary degree.
+ *
+ * add and meld link two roots in constant time, and decreaseKey cuts the
+ * item's subtree out and links it to the root. dequeue does the real work,
+ * pairing the root's children left to right and then linking the pairs right
+ * to left (amortized logarithmic time).
+ *
+ * Each node stores its first child, its next sibling, and prev, which is the
+ * parent for a first child and the left sibling otherwise, so a node can be
+ * cut out in constant time. Nodes are pooled when they leave the heap and
+ * reused by later adds and inserts. insert returns a small Handle recording
+ * the node and the node's stamp, which release bumps, so a handle whose item
+ * was dequeued or removed is no longer contained even once its node holds a
+ * later item. A caller that keeps its stale handles can pass one back to
+ * insert to be rebound, so a steady stream of adds, inserts, decreaseKeys and
+ * dequeues, like Dijkstra's algorithm run repeatedly, does not allocate.
+ *
+ * Each node records the heap that owns it through an Owner token, so handles
+ * from another heap, or from before a clear, are rejected. meld forwards the
+ * other heap's token to this one's instead of visiting its nodes, which keeps
+ * it constant time.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class PairingHeap<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * A handle to an inserted item, valid until the item leaves the heap.
+	 */
+	public static final class Handle<Type> {
+		private Node<Type> node;
+		private long stamp;
+		private Type value;
+
+		private Handle() {
+		}
+
+		/**
+		 * @return the item this handle refers to.
+		 */
+		public Type get() {
+			return value;
+		}
+	}
+
+	/**
+	 * A node of the tree. stamp changes each time the node is released, so
+	 * handles to its earlier items no longer match.
+	 */
+	private static final class Node<Type> {
+		private Type value;
+		private Node<Type> child;
+		private Node<Type> sibling;
+		private Node<Type> prev;
+		private Owner owner;
+		private long stamp;
+	}
+
+	/**
+	 * Identifies the heap that owns a node. A token melded into another heap
+	 * forwards to that heap's token.
+	 */
+	private static final class Owner {
+		private Owner forward;
+	}
+
+	/**
+	 * The token of the nodes in this heap; replaced by clear and meld.
+	 */
+	private Owner owner = new Owner();
+
+	/**
+	 * The minimum item, or null when empty.
+	 */
+	private Node<Type> root;
+
+	/**
+	 * The number of elements in the heap.
+	 */
+	private int size;
+
+	/**
+	 * Released nodes, chained through sibling.
+	 */
+	private Node<Type> pool;
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private Comparator<? super Type> comparator;
+
+	/**
+	 * Constructs an empty priority queue. Orders elements according to their
+	 * natural ordering.
+	 */
+	public PairingHeap() {
+		this(null);
+	}
+
+	/**
+	 * Construct an empty priority queue with a specified comparator.
+	 */
+	public PairingHeap(Comparator<? super Type> c) {
+		comparator = c;
+	}
+
+	/**
+	 * Adds an item to this priority queue and returns a handle to it. (Runs in
+	 * constant time.)
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 * @return a handle for later decreaseKey, remove or contains calls.
+	 */
+	public Handle<Type> insert(Type x) {
+		return insert(x, null);
+	}
+
+	/**
+	 * Adds an item to this priority queue and rebinds reuse to it, so a
+	 * caller that keeps its handles does not allocate. (Runs in constant
+	 * time.)
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 * @param reuse
+	 *            -- a handle whose item is not in this heap, or null for a new
+	 *            handle.
+	 * @return reuse, or a new handle if reuse is null.
+	 * @throws IllegalArgumentException
+	 *             if reuse still refers to an item in this heap.
+	 */
+	public Handle<Type> insert(Type x, Handle<Type> reuse) {
+		if (reuse != null && contains(reuse)) {
+			throw new IllegalArgumentException("Handle still refers to an item in this heap");
+		}
+		Handle<Type> handle = reuse != null ? reuse : new Handle<>();
+		Node<Type> node = take();
+		place(node, x);
+		handle.node = node;
+		handle.stamp = node.stamp;
+		handle.value = x;
+		return handle;
+	}
+
+	/**
+	 * Adds an item to this priority queue without a handle.
+	 */
+	@Override
+	public void add(Type x) {
+		place(take(), x);
+	}
+
+	/**
+	 * Return the value of the smallest item in our heap.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		return root == null ? null : root.value;
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue. (Runs in
+	 * amortized logarithmic time.)
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		if (root == null) {
+			throw new NoSuchElementException();
+		}
+		Node<Type> min = root;
+		root = combineSiblings(min.child);
+		size--;
+		return release(min);
+	}
+
+	/**
+	 * Moves every item of other into this heap in constant time, leaving other
+	 * empty. Handles into other now refer to items in this heap. Both heaps
+	 * must order items the same way.
+	 *
+	 * @param other
+	 *            - the heap to take items from.
+	 */
+	public void meld(PairingHeap<Type> other) {
+		if (other == this || other.root == null) {
+			return;
+		}
+		root = root == null ? other.root : link(root, other.root);
+		size += other.size;
+		other.owner.forward = owner;
+		other.owner = new Owner();
+		other.root = null;
+		other.size = 0;
+	}
+
+	/**
+	 * Lowers the priority of the item behind handle to newValue. (Runs in
+	 * constant time, plus the deferred cost to a later dequeue.)
+	 *
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 * @throws IllegalArgumentException
+	 *             if newValue is greater than the current value.
+	 */
+	public void decreaseKey(Handle<Type> handle, Type newValue) {
+		checkContains(handle);
+		Node<Type> node = handle.node;
+		if (compare(newValue, node.value) > 0) {
+			throw new IllegalArgumentException("New value is greater than the current value");
+		}
+		node.value = newValue;
+		handle.value = newValue;
+		if (node != root) {
+			cut(node);
+			root = link(root, node);
+		}
+	}
+
+	/**
+	 * Removes the item behind handle from the heap.
+	 *
+	 * @return the removed item.
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 */
+	public Type remove(Handle<Type> handle) {
+		checkContains(handle);
+		Node<Type> node = handle.node;
+		if (node == root) {
+			return dequeue();
+		}
+		cut(node);
+		Node<Type> children = combineSiblings(node.child);
+		if (children != null) {
+			root = link(root, children);
+		}
+		size--;
+		return release(node);
+	}
+
+	/**
+	 * @return true if handle refers to an item currently in this heap.
+	 */
+	public boolean contains(Handle<Type> handle) {
+		Node<Type> node = handle.node;
+		if (node == null || node.stamp != handle.stamp || node.owner == null) {
+			return false;
+		}
+		// Follow meld forwarding, then point the node and every token on the
+		// way straight at the end.
+		Owner current = node.owner;
+		while (current.forward != null) {
+			current = current.forward;
+		}
+		for (Owner token = node.owner; token != current;) {
+			Owner next = token.forward;
+			token.forward = current;
+			token = next;
+		}
+		node.owner = current;
+		return current == owner;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap. Outstanding handles are no longer valid.
+	 */
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+		owner = new Owner();
+	}
+
+	/**
+	 * @return a node from the pool, or a new one if the pool is empty.
+	 */
+	private Node<Type> take() {
+		Node<Type> node = pool;
+		if (node == null) {
+			return new Node<>();
+		}
+		pool = node.sibling;
+		node.sibling = null;
+		return node;
+	}
+
+	/**
+	 * Stores x in node and links node into the heap.
+	 */
+	private void place(Node<Type> node, Type x) {
+		node.value = x;
+		node.owner = owner;
+		root = root == null ? node : link(root, node);
+		size++;
+	}
+
+	/**
+	 * Makes the larger of two roots the first child of the smaller.
+	 *
+	 * @return the new root.
+	 */
+	private Node<Type> link(Node<Type> first, Node<Type> second) {
+		if (compare(second.value, first.value) < 0) {
+			Node<Type> temp = first;
+			first = second;
+			second = temp;
+		}
+		second.sibling = first.child;
+		if (first.child != null) {
+			first.child.prev = second;
+		}
+		second.prev = first;
+		first.child = second;
+		return first;
+	}
+
+	/**
+	 * Links a list of siblings into one tree in two passes: pair them left to
+	 * right, then link the pairs right to left.
+	 *
+	 * @return the root of the combined tree, null if first is null.
+	 */
+	private Node<Type> combineSiblings(Node<Type> first) {
+		if (first == null) {
+			return null;
+		}
+
+		// First pass: link pairs and push each result onto a stack that is
+		// chained through sibling, so the rightmost pair ends up on top.
+		Node<Type> stack = null;
+		while (first != null) {
+			Node<Type> a = first;
+			Node<Type> b = a.sibling;
+			first = b == null ? null : b.sibling;
+			a.prev = null;
+			a.sibling = null;
+			if (b != null) {
+				b.prev = null;
+				b.sibling = null;
+				a = link(a, b);
+			}
+			a.sibling = stack;
+			stack = a;
+		}
+
+		// Second pass: link right to left.
+		Node<Type> result = stack;
+		stack = stack.sibling;
+		result.sibling = null;
+		while (stack != null) {
+			Node<Type> next = stack.sibling;
+			stack.sibling = null;
+			result = link(stack, result);
+			stack = next;
+		}
+		return result;
+	}
+
+	/**
+	 * Detaches the subtree rooted at node from its parent and siblings.
+	 */
+	private void cut(Node<Type> node) {
+		if (node.prev.child == node) {
+			node.prev.child = node.sibling;
+		} else {
+			node.prev.sibling = node.sibling;
+		}
+		if (node.sibling != null) {
+			node.sibling.prev = node.prev;
+		}
+		node.prev = null;
+		node.sibling = null;
+	}
+
+	/**
+	 * Returns a node's item, invalidates handles to it and puts the node in
+	 * the pool.
+	 */
+	private Type release(Node<Type> node) {
+		Type value = node.value;
+		node.value = null;
+		node.child = null;
+		node.prev = null;
+		node.owner = null;
+		node.stamp++;
+		node.sibling = pool;
+		pool = node;
+		return value;
+	}
+
+	/**
+	 * @throws NoSuchElementException
+	 *             if the handle is not contained in this heap.
+	 */
+	private void checkContains(Handle<Type> handle) {
+		if (!contains(handle)) {
+			throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+}
@@ -0,0 +1,281 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cs2420.PairingHeap.Handle;
+
+/**
+ * Testing PairingHeap for soundness.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class PairingHeapTest {
+
+	private PairingHeap<Integer> heap;
+	private List<Handle<Integer>> handles;
+
+	/**
+	 * Creates the same simple heap used by HeapTest, keeping every handle.
+	 */
+	@Before
+	public void createSimpleHeap() {
+		heap = new PairingHeap<>();
+		handles = new ArrayList<>();
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			handles.add(heap.insert(value));
+		}
+	}
+
+	/**
+	 * Dequeues come out in order, and an empty heap throws.
+	 */
+	@Test
+	public void test_dequeue_order() {
+		assertEquals(6, heap.size());
+		assertEquals(1, (int) heap.peek());
+		for (int expected : new int[] { 1, 3, 5, 6, 7, 8 }) {
+			assertEquals(expected, (int) heap.dequeue());
+		}
+		assertNull(heap.peek());
+
+		try {
+			heap.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Handles change priorities and remove items.
+	 */
+	@Test
+	public void test_decrease_key_and_remove() {
+		heap.decreaseKey(handles.get(4), 0);
+		assertEquals(0, (int) heap.peek());
+		assertEquals(6, (int) heap.remove(handles.get(1)));
+		assertFalse(heap.contains(handles.get(1)));
+		assertTrue(heap.contains(handles.get(0)));
+
+		for (int expected : new int[] { 0, 1, 3, 5, 7 }) {
+			assertEquals(expected, (int) heap.dequeue());
+		}
+		assertEquals(0, heap.size());
+
+		try {
+			heap.decreaseKey(handles.get(4), -1);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * decreaseKey must not be used to raise a priority.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void test_decrease_key_rejects_larger_value() {
+		heap.decreaseKey(handles.get(0), 100);
+	}
+
+	/**
+	 * meld moves every item, and handles follow them.
+	 */
+	@Test
+	public void test_meld() {
+		PairingHeap<Integer> other = new PairingHeap<>();
+		Handle<Integer> four = other.insert(4);
+		other.insert(2);
+		heap.meld(other);
+
+		assertEquals(0, other.size());
+		assertNull(other.peek());
+		assertEquals(8, heap.size());
+
+		heap.decreaseKey(four, 0);
+		for (int expected : new int[] { 0, 1, 2, 3, 5, 6, 7, 8 }) {
+			assertEquals(expected, (int) heap.dequeue());
+		}
+	}
+
+	/**
+	 * Handles from before a clear, or from another heap, are not contained and
+	 * are rejected without touching either heap; melded handles move over.
+	 */
+	@Test
+	public void test_stale_and_foreign_handles() {
+		Handle<Integer> stale = handles.get(0);
+		heap.clear();
+		assertFalse(heap.contains(stale));
+		try {
+			heap.decreaseKey(stale, 0);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+		try {
+			heap.remove(stale);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+		heap.add(9);
+		assertFalse(heap.contains(stale));
+
+		PairingHeap<Integer> other = new PairingHeap<>();
+		Handle<Integer> foreign = other.insert(3);
+		other.insert(4);
+		assertFalse(heap.contains(foreign));
+		try {
+			heap.decreaseKey(foreign, 0);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+		try {
+			heap.remove(foreign);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+		assertEquals(1, heap.size());
+		assertEquals(9, (int) heap.peek());
+		assertEquals(2, other.size());
+		assertEquals(3, (int) other.peek());
+
+		// After melds, handles belong to the heap their items are in.
+		PairingHeap<Integer> third = new PairingHeap<>();
+		heap.meld(other);
+		third.meld(heap);
+		assertFalse(other.contains(foreign));
+		assertFalse(heap.contains(foreign));
+		assertTrue(third.contains(foreign));
+		third.decreaseKey(foreign, 1);
+		assertEquals(1, (int) third.dequeue());
+		assertFalse(third.contains(foreign));
+		assertEquals(4, (int) third.dequeue());
+		assertEquals(9, (int) third.dequeue());
+	}
+
+	/**
+	 * A dequeued item's handle does not come to refer to a later item, however
+	 * many nodes are recycled in between.
+	 */
+	@Test
+	public void test_dequeued_handle_not_reused() {
+		PairingHeap<Integer> fresh = new PairingHeap<>();
+		Handle<Integer> old = fresh.insert(1);
+		assertEquals(1, (int) fresh.dequeue());
+
+		// Recycle pooled nodes, then hand out new handles.
+		for (int round = 0; round < 3; round++) {
+			for (int value = 0; value < 10; value++) {
+				fresh.add(value);
+			}
+			while (fresh.size() > 0) {
+				fresh.dequeue();
+			}
+		}
+		Handle<Integer> current = fresh.insert(5);
+		fresh.insert(7);
+
+		assertNotSame(old, current);
+		assertFalse(fresh.contains(old));
+		try {
+			fresh.decreaseKey(old, 0);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+		try {
+			fresh.remove(old);
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+		assertEquals(2, fresh.size());
+		assertEquals(5, (int) fresh.peek());
+		assertTrue(fresh.contains(current));
+	}
+
+	/**
+	 * A stale handle can be rebound by insert, and then refers only to the new
+	 * item; a handle still in the heap can not.
+	 */
+	@Test
+	public void test_reuse_handle() {
+		PairingHeap<Integer> fresh = new PairingHeap<>();
+		Handle<Integer> first = fresh.insert(1);
+		Handle<Integer> second = fresh.insert(2);
+		try {
+			fresh.insert(3, first);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+		assertEquals(2, fresh.size());
+
+		assertEquals(1, (int) fresh.dequeue());
+		// first's item has left, so first can be rebound.
+		assertSame(first, fresh.insert(4, first));
+		assertEquals(4, (int) first.get());
+		assertTrue(fresh.contains(first));
+		fresh.decreaseKey(first, 0);
+		assertEquals(0, (int) fresh.peek());
+
+		// third reuses first's pooled node, but first stays stale.
+		assertEquals(0, (int) fresh.remove(first));
+		Handle<Integer> third = fresh.insert(5);
+		assertFalse(fresh.contains(first));
+		assertTrue(fresh.contains(third));
+		assertTrue(fresh.contains(second));
+		assertEquals(2, (int) fresh.dequeue());
+		assertEquals(5, (int) fresh.dequeue());
+	}
+
+	/**
+	 * Random operations, with a comparator, agree with PriorityQueue.
+	 */
+	@Test
+	public void test_random_against_priority_queue() {
+		Random generator = new Random();
+		PairingHeap<Integer> pairing = new PairingHeap<>(Comparator.reverseOrder());
+		PriorityQueue<Integer> expected = new PriorityQueue<>(Comparator.reverseOrder());
+		List<Handle<Integer>> live = new ArrayList<>();
+
+		for (int step = 0; step < 20000; step++) {
+			int operation = generator.nextInt(4);
+			if (operation < 2 || expected.isEmpty()) {
+				int value = generator.nextInt(1000);
+				live.add(pairing.insert(value));
+				expected.add(value);
+			} else if (operation == 2) {
+				// Raise a live item, the reversed-order decreaseKey.
+				Handle<Integer> handle = live.get(generator.nextInt(live.size()));
+				if (pairing.contains(handle)) {
+					int value = handle.get() + generator.nextInt(100);
+					expected.remove(handle.get());
+					expected.add(value);
+					pairing.decreaseKey(handle, value);
+				}
+			} else {
+				assertEquals(expected.poll(), pairing.dequeue());
+				// Dequeued handles are no longer contained.
+				live.removeIf(handle -> !pairing.contains(handle));
+			}
+			assertEquals(expected.size(), pairing.size());
+			assertEquals(expected.peek(), pairing.peek());
+		}
+	}
+
+}
@@ -0,0 +1,152 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing the primitive specialized heaps (IntHeap, LongHeap, DoubleHeap) for
+ * soundness.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class PrimitiveHeapTest {
+
+	private IntHeap heap;
+	private IntHeap zeroSizeHeap;
+
+	/**
+	 * Creates the same simple heap used by HeapTest.
+	 */
+	@Before
+	public void createSimpleHeap() {
+		heap = new IntHeap();
+		heap.add(5);
+		heap.add(6);
+		heap.add(3);
+		heap.add(7);
+		heap.add(8);
+		heap.add(1);
+
+		zeroSizeHeap = new IntHeap();
+	}
+
+	/**
+	 * The primitive heap should lay out its array exactly like Heap.
+	 */
+	@Test
+	public void test_basic_insertion() {
+		assertEquals(6, heap.size());
+		assertArrayEquals(new int[] { 0, 1, 6, 3, 7, 8, 5 }, heap.toArray());
+	}
+
+	/**
+	 * Test dequeuing and peeking.
+	 */
+	@Test
+	public void test_dequeue_and_peek() {
+		assertEquals(1, heap.peek());
+		assertEquals(1, heap.dequeue());
+		assertArrayEquals(new int[] { 0, 3, 6, 5, 7, 8 }, heap.toArray());
+		assertEquals(3, heap.dequeue());
+		assertEquals(5, heap.peek());
+
+		try {
+			zeroSizeHeap.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+
+		try {
+			zeroSizeHeap.peek();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Test many inserts and dequeues against a sorted copy.
+	 */
+	@Test
+	public void test_lots_of_insertions_deletions() {
+		final int COUNT = 1000;
+		Random generator = new Random();
+		IntHeap intHeap = new IntHeap();
+		LongHeap longHeap = new LongHeap();
+		DoubleHeap doubleHeap = new DoubleHeap();
+		int[] expected = new int[COUNT];
+
+		for (int element = 0; element < COUNT; element++) {
+			expected[element] = generator.nextInt(1000) - 500;
+			intHeap.add(expected[element]);
+			longHeap.add(expected[element]);
+			doubleHeap.add(expected[element]);
+		}
+		Arrays.sort(expected);
+
+		assertEquals(COUNT, intHeap.size());
+		for (int element = 0; element < COUNT; element++) {
+			assertEquals(expected[element], intHeap.dequeue());
+			assertEquals(expected[element], longHeap.dequeue());
+			assertEquals(expected[element], doubleHeap.dequeue(), 0.0);
+		}
+		assertEquals(0, intHeap.size());
+	}
+
+	/**
+	 * A reversed comparator turns the heap into a max heap.
+	 */
+	@Test
+	public void test_max_heap_comparator() {
+		IntHeap maxHeap = new IntHeap(IntComparator.natural().reversed());
+		LongHeap maxLongHeap = new LongHeap((lhs, rhs) -> Long.compare(rhs, lhs));
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			maxHeap.add(value);
+			maxLongHeap.add(value);
+		}
+
+		assertEquals(8, maxHeap.dequeue());
+		assertEquals(7, maxHeap.dequeue());
+		assertEquals(6, maxHeap.peek());
+		assertEquals(8L, maxLongHeap.dequeue());
+	}
+
+	/**
+	 * Test heap sort and build from array, mirroring HeapTest.
+	 */
+	@Test
+	public void test_build_heap_and_heap_sort() {
+		heap.build_heap_from_array(new int[] { 3, 5, 7, 9, 12, 3, -1 });
+		assertArrayEquals(new int[] { 0, -1, 5, 3, 9, 12, 3, 7 }, heap.toArray());
+
+		heap.heap_sort();
+		assertArrayEquals(new int[] { 0, 12, 9, 7, 5, 3, 3, -1 }, heap.toArray());
+
+		DoubleHeap doubleHeap = new DoubleHeap();
+		doubleHeap.build_heap_from_array(new double[] { 2.5, -1.0, 0.5 });
+		assertEquals(-1.0, doubleHeap.dequeue(), 0.0);
+
+		zeroSizeHeap.build_heap_from_array(new int[] {});
+		zeroSizeHeap.heap_sort();
+		assertArrayEquals(new int[] { 0 }, zeroSizeHeap.toArray());
+	}
+
+	/**
+	 * Make sure we can clear our heaps.
+	 */
+	@Test
+	public void test_clear() {
+		heap.clear();
+		assertEquals(0, heap.size());
+		heap.add(2);
+		assertEquals(2, heap.peek());
+	}
+
+}
@@ -1,5 +1,8 @@
 package cs2420;
 
+import java.util.Collection;
+import java.util.function.Consumer;
+
 public interface Priority_Queue<Type>
 {
 	/**
@@ -29,5 +32,57 @@ public interface Priority_Queue<Type>
 	 */
 	public void clear();
 
-	
+	/**
+	 * Adds every item in the array to this priority queue. Implementations may
+	 * do this faster than adding one at a time.
+	 */
+	public default void addAll(Type[] items) {
+		for (Type item : items) {
+			add(item);
+		}
+	}
+
+	/**
+	 * Adds every item in the collection to this priority queue.
+	 * Implementations may do this faster than adding one at a time.
+	 */
+	public default void addAll(Collection<? extends Type> items) {
+		for (Type item : items) {
+			add(item);
+		}
+	}
+
+	/**
+	 * Removes up to k of the smallest elements, in order, into out[0..].
+	 * 
+	 * @return the number of elements removed: k, or fewer if the queue ran out.
+	 * @throws IllegalArgumentException
+	 *             if out is shorter than the number of elements to remove.
+	 */
+	public default int dequeue(int k, Type[] out) {
+		int count = Math.min(k, size());
+		if (out.length < count) {
+			throw new IllegalArgumentException("Output array holds " + out.length + ", need " + count);
+		}
+		for (int index = 0; index < count; index++) {
+			out[index] = dequeue();
+		}
+		return count;
+	}
+
+	/**
+	 * Removes up to max of the smallest elements, in order, passing each to
+	 * consumer.
+	 * 
+	 * @return the number of elements removed.
+	 */
+	public default int drainTo(Consumer<? super Type> consumer, int max) {
+		int count = 0;
+		while (count < max && size() > 0) {
+			consumer.accept(dequeue());
+			count++;
+		}
+		return count;
+	}
+
 }
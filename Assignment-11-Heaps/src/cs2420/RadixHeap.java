@@ -0,0 +1,225 @@
+package cs2420;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a monotone priority queue of long priorities, each with a long
+ * payload (e.g., a vertex id). Monotone means every added priority must be at
+ * least the last dequeued one, as in Dijkstra's algorithm or an event
+ * timeline. int priorities can be widened to long.
+ *
+ * The queue is a radix heap: 65 buckets, where bucket i holds the items whose
+ * priority first differs from a pivot at bit i-1 (bucket 0 holds priorities
+ * equal to it). The pivot is the last dequeued priority or, once bucket 0 runs
+ * empty and the minimum is needed, the current minimum. Adding an item is a
+ * bit scan and an append. When bucket 0 runs empty, dequeue (or peek) finds
+ * the lowest non-empty bucket, makes its minimum the new pivot and
+ * redistributes its items into lower buckets. Each item can only move down,
+ * so operations take amortized time proportional to the number of bits in the
+ * priorities, with one comparison per redistributed item and none when adding.
+ *
+ * A peek does not raise the floor for adds: an item between the last dequeued
+ * priority and a peeked minimum moves the pivot back down, re-bucketing the
+ * items the peek redistributed.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class RadixHeap {
+
+	private static final int BUCKETS = 65;
+
+	/**
+	 * Priorities and payloads of each bucket, unordered.
+	 */
+	private final long[][] priorities = new long[BUCKETS][];
+	private final long[][] payloads = new long[BUCKETS][];
+	private final int[] counts = new int[BUCKETS];
+
+	/**
+	 * The last dequeued priority; no smaller priority may be added.
+	 */
+	private long lastDequeued = Long.MIN_VALUE;
+
+	/**
+	 * The priority buckets are relative to: lastDequeued, or the minimum after
+	 * a peek redistributed around it.
+	 */
+	private long pivot = Long.MIN_VALUE;
+
+	/**
+	 * The number of elements in the heap.
+	 */
+	private int size;
+
+	/**
+	 * Constructs an empty radix heap accepting any priority.
+	 */
+	public RadixHeap() {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			priorities[bucket] = new long[4];
+			payloads[bucket] = new long[4];
+		}
+	}
+
+	/**
+	 * Adds payload with the given priority. (Runs in constant time.)
+	 *
+	 * @throws IllegalArgumentException
+	 *             if priority is less than the last dequeued priority.
+	 */
+	public void add(long priority, long payload) {
+		if (priority < lastDequeued) {
+			throw new IllegalArgumentException(
+					"Priority " + priority + " is less than the last dequeued priority " + lastDequeued);
+		}
+		if (priority < pivot) {
+			lowerPivot();
+		}
+		append(bucket(priority), priority, payload);
+		size++;
+	}
+
+	/**
+	 * @return the smallest priority in the heap.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public long peekPriority() throws NoSuchElementException {
+		pull();
+		return priorities[0][counts[0] - 1];
+	}
+
+	/**
+	 * @return the payload of the smallest priority in the heap.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public long peekPayload() throws NoSuchElementException {
+		pull();
+		return payloads[0][counts[0] - 1];
+	}
+
+	/**
+	 * Removes the item with the smallest priority. (Runs in amortized time
+	 * linear in the number of priority bits.)
+	 *
+	 * @return its payload.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public long dequeue() throws NoSuchElementException {
+		pull();
+		size--;
+		lastDequeued = pivot;
+		return payloads[0][--counts[0]];
+	}
+
+	/**
+	 * @return the last dequeued priority (the smallest that may be added), or
+	 *         Long.MIN_VALUE if nothing has been dequeued since the heap was
+	 *         created or cleared.
+	 */
+	public long getLastPriority() {
+		return lastDequeued;
+	}
+
+	/**
+	 * Returns the number of elements in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Clear the heap, which accepts any priority again.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		size = 0;
+		lastDequeued = Long.MIN_VALUE;
+		pivot = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Makes sure bucket 0 holds the minimum, by redistributing the lowest
+	 * non-empty bucket around its minimum.
+	 */
+	private void pull() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		if (counts[0] > 0) {
+			return;
+		}
+
+		int bucket = 1;
+		while (counts[bucket] == 0) {
+			bucket++;
+		}
+
+		long[] bucketPriorities = priorities[bucket];
+		long[] bucketPayloads = payloads[bucket];
+		int count = counts[bucket];
+		long min = bucketPriorities[0];
+		for (int index = 1; index < count; index++) {
+			if (bucketPriorities[index] < min) {
+				min = bucketPriorities[index];
+			}
+		}
+
+		// Every item lands in a lower bucket, so this one can be reused as is.
+		pivot = min;
+		counts[bucket] = 0;
+		for (int index = 0; index < count; index++) {
+			append(bucket(bucketPriorities[index]), bucketPriorities[index], bucketPayloads[index]);
+		}
+	}
+
+	/**
+	 * Moves the pivot back to lastDequeued after a peek raised it. The peek
+	 * raised it at most once since the last dequeue, and the two agree above
+	 * the old pivot's bucket relative to lastDequeued, so only the items up to
+	 * that bucket need re-bucketing. (Runs in time linear in those items.)
+	 */
+	private void lowerPivot() {
+		int top = 64 - Long.numberOfLeadingZeros(pivot ^ lastDequeued);
+		int moved = 0;
+		for (int bucket = 0; bucket <= top; bucket++) {
+			moved += counts[bucket];
+		}
+		long[] movedPriorities = new long[moved];
+		long[] movedPayloads = new long[moved];
+		moved = 0;
+		for (int bucket = 0; bucket <= top; bucket++) {
+			System.arraycopy(priorities[bucket], 0, movedPriorities, moved, counts[bucket]);
+			System.arraycopy(payloads[bucket], 0, movedPayloads, moved, counts[bucket]);
+			moved += counts[bucket];
+			counts[bucket] = 0;
+		}
+
+		pivot = lastDequeued;
+		for (int index = 0; index < moved; index++) {
+			append(bucket(movedPriorities[index]), movedPriorities[index], movedPayloads[index]);
+		}
+	}
+
+	/**
+	 * @return the bucket for priority relative to the pivot.
+	 */
+	private int bucket(long priority) {
+		return priority == pivot ? 0 : 64 - Long.numberOfLeadingZeros(priority ^ pivot);
+	}
+
+	private void append(int bucket, long priority, long payload) {
+		int count = counts[bucket];
+		if (count == priorities[bucket].length) {
+			priorities[bucket] = Arrays.copyOf(priorities[bucket], 2 * count);
+			payloads[bucket] = Arrays.copyOf(payloads[bucket], 2 * count);
+		}
+		priorities[bucket][count] = priority;
+		payloads[bucket][count] = payload;
+		counts[bucket] = count + 1;
+	}
+
+}
@@ -0,0 +1,127 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Testing RadixHeap against PriorityQueue on monotone workloads.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class RadixHeapTest {
+
+	/**
+	 * Random monotone adds and dequeues, including negative priorities, agree
+	 * with PriorityQueue.
+	 */
+	@Test
+	public void test_random_monotone() {
+		Random generator = new Random();
+		RadixHeap heap = new RadixHeap();
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		long last = -1L << 40;
+
+		for (int step = 0; step < 50000; step++) {
+			if (expected.isEmpty() || generator.nextInt(3) > 0) {
+				long priority = last + (generator.nextBoolean() ? generator.nextInt(1000) : generator.nextLong() >>> 30);
+				heap.add(priority, priority * 2);
+				expected.add(priority);
+			} else {
+				assertEquals((long) expected.peek(), heap.peekPriority());
+				last = expected.poll();
+				assertEquals(last * 2, heap.dequeue());
+				assertEquals(last, heap.getLastPriority());
+			}
+			assertEquals(expected.size(), heap.size());
+		}
+	}
+
+	/**
+	 * A peek does not raise the floor: priorities between the last dequeued
+	 * one and the peeked minimum can still be added, with peeks interleaved
+	 * anywhere.
+	 */
+	@Test
+	public void test_peek_then_add() {
+		RadixHeap heap = new RadixHeap();
+		heap.add(10, 1);
+		heap.add(20, 2);
+		assertEquals(1, heap.dequeue());
+		heap.add(30, 3);
+		assertEquals(20, heap.peekPriority());
+		assertEquals(10, heap.getLastPriority());
+		heap.add(15, 4);
+		heap.add(10, 5);
+		assertEquals(10, heap.peekPriority());
+		assertEquals(5, heap.dequeue());
+		assertEquals(4, heap.dequeue());
+		assertEquals(2, heap.dequeue());
+		assertEquals(3, heap.dequeue());
+
+		heap = new RadixHeap();
+		Random generator = new Random();
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		long last = Long.MIN_VALUE;
+		for (int step = 0; step < 50000; step++) {
+			int operation = generator.nextInt(4);
+			if (expected.isEmpty() || operation < 2) {
+				long priority = Math.max(last, 0) + (generator.nextBoolean() ? generator.nextInt(100) : generator.nextLong() >>> 40);
+				heap.add(priority, priority + 1);
+				expected.add(priority);
+			} else if (operation == 2) {
+				assertEquals((long) expected.peek(), heap.peekPriority());
+				assertEquals(expected.peek() + 1, heap.peekPayload());
+			} else {
+				last = expected.poll();
+				assertEquals(last + 1, heap.dequeue());
+			}
+			assertEquals(last, heap.getLastPriority());
+			assertEquals(expected.size(), heap.size());
+		}
+	}
+
+	/**
+	 * Priorities below the last dequeued one are rejected.
+	 */
+	@Test
+	public void test_rejects_non_monotone() {
+		RadixHeap heap = new RadixHeap();
+		heap.add(10, 1);
+		heap.add(Long.MIN_VALUE, 2);
+		heap.add(Long.MAX_VALUE, 3);
+		assertEquals(2, heap.dequeue());
+		assertEquals(1, heap.dequeue());
+
+		// 10 itself is still allowed.
+		heap.add(10, 4);
+		assertEquals(10, heap.peekPriority());
+		assertEquals(4, heap.peekPayload());
+		try {
+			heap.add(9, 5);
+			fail("Should have thrown IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// Test passes.
+		}
+
+		heap.clear();
+		heap.add(9, 5);
+		assertEquals(5, heap.dequeue());
+	}
+
+	/**
+	 * An empty heap throws.
+	 */
+	@Test(expected = NoSuchElementException.class)
+	public void test_empty() {
+		RadixHeap heap = new RadixHeap();
+		heap.add(1, 1);
+		heap.dequeue();
+		heap.peekPriority();
+	}
+
+}
@@ -0,0 +1,222 @@
+package cs2420;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Represents a thread-safe priority queue of generically-typed items.
+ *
+ * Unlike a Heap behind a single lock, there is no root that every thread
+ * fights over: items live in a lock-free skip list (ConcurrentSkipListMap),
+ * so add, dequeue and peek are each a single linearizable, non-blocking
+ * operation and contention is spread across the list.
+ *
+ * Equal items are allowed. Each add is tagged with a unique sequence number
+ * that breaks ties, so two equal items are distinct entries in the list.
+ * Sequence numbers come from blocks reserved per thread, and the size is a
+ * LongAdder, so add touches no counter shared with other threads. Equal items
+ * added by one thread dequeue in the order they were added; equal items added
+ * by different threads dequeue in no particular order.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class SkipListPriorityQueue<Type> implements Priority_Queue<Type> {
+
+	/**
+	 * An item in the skip list together with its tie-breaking sequence number.
+	 */
+	private static final class Entry<Type> {
+		private final Type value;
+		private final long sequence;
+
+		private Entry(Type value, long sequence) {
+			this.value = value;
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * The skip list holding every item. Only the keys are used.
+	 */
+	private final ConcurrentSkipListMap<Entry<Type>, Boolean> list;
+
+	/**
+	 * The number of sequence numbers a thread reserves at a time.
+	 */
+	private static final int SEQUENCE_BLOCK = 1024;
+
+	/**
+	 * The start of the next unreserved block of sequence numbers, shared by
+	 * every queue since a number only needs to be unique within one.
+	 */
+	private static final AtomicLong nextBlock = new AtomicLong();
+
+	/**
+	 * Each thread's next sequence number and the end of its reserved block.
+	 */
+	private static final ThreadLocal<long[]> sequenceBlock = ThreadLocal.withInitial(() -> new long[2]);
+
+	/**
+	 * The number of elements in the queue, kept separately because counting
+	 * the skip list is linear.
+	 */
+	private final LongAdder size = new LongAdder();
+
+	/**
+	 * If the user provides a comparator, use it instead of default comparable
+	 */
+	private final Comparator<? super Type> comparator;
+
+	/**
+	 * Constructs an empty priority queue. Orders elements according to their
+	 * natural ordering.
+	 */
+	public SkipListPriorityQueue() {
+		this(null);
+	}
+
+	/**
+	 * Construct an empty priority queue with a specified comparator.
+	 */
+	public SkipListPriorityQueue(Comparator<? super Type> c) {
+		comparator = c;
+		list = new ConcurrentSkipListMap<>((lhs, rhs) -> {
+			int result = compare(lhs.value, rhs.value);
+			return result != 0 ? result : Long.compare(lhs.sequence, rhs.sequence);
+		});
+	}
+
+	/**
+	 * Return the value of the smallest item in the queue at some instant
+	 * during the call.
+	 *
+	 * @return - smallest value, null if empty.
+	 */
+	@Override
+	public Type peek() {
+		Map.Entry<Entry<Type>, Boolean> first = list.firstEntry();
+		return first == null ? null : first.getKey().value;
+	}
+
+	/**
+	 * Removes and returns the minimum item in this priority queue. Concurrent
+	 * callers never receive the same item.
+	 *
+	 * @throws NoSuchElementException
+	 *             if this priority queue is empty.
+	 */
+	@Override
+	public Type dequeue() throws NoSuchElementException {
+		Map.Entry<Entry<Type>, Boolean> first = list.pollFirstEntry();
+		if (first == null) {
+			throw new NoSuchElementException();
+		}
+		size.decrement();
+		return first.getKey().value;
+	}
+
+	/**
+	 * Removes up to k of the smallest elements, in order, into out[0..]. Each
+	 * removal is its own atomic poll, so concurrent callers may interleave;
+	 * stops early, without throwing, once the queue is empty.
+	 *
+	 * @return the number of elements removed.
+	 * @throws IllegalArgumentException
+	 *             if out is shorter than k.
+	 */
+	@Override
+	public int dequeue(int k, Type[] out) {
+		if (out.length < k) {
+			throw new IllegalArgumentException("Output array holds " + out.length + ", need " + k);
+		}
+		int count = 0;
+		Map.Entry<Entry<Type>, Boolean> first;
+		while (count < k && (first = list.pollFirstEntry()) != null) {
+			size.decrement();
+			out[count++] = first.getKey().value;
+		}
+		return count;
+	}
+
+	/**
+	 * Removes up to max of the smallest elements, in order, passing each to
+	 * consumer. Stops early, without throwing, once the queue is empty.
+	 *
+	 * @return the number of elements removed.
+	 */
+	@Override
+	public int drainTo(Consumer<? super Type> consumer, int max) {
+		int count = 0;
+		Map.Entry<Entry<Type>, Boolean> first;
+		while (count < max && (first = list.pollFirstEntry()) != null) {
+			size.decrement();
+			consumer.accept(first.getKey().value);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Adds an item to this priority queue. (Runs in expected logarithmic
+	 * time.)
+	 *
+	 * @param x
+	 *            -- the item to be inserted
+	 */
+	@Override
+	public void add(Type x) {
+		list.put(new Entry<>(x, nextSequence()), Boolean.TRUE);
+		size.increment();
+	}
+
+	/**
+	 * Returns the number of elements in the queue. Under concurrent updates
+	 * this is an estimate.
+	 */
+	@Override
+	public int size() {
+		return (int) Math.max(Math.min(size.sum(), Integer.MAX_VALUE), 0);
+	}
+
+	/**
+	 * Removes every element. Items added concurrently with clear may survive.
+	 */
+	@Override
+	public void clear() {
+		while (list.pollFirstEntry() != null) {
+			size.decrement();
+		}
+	}
+
+	/**
+	 * @return a sequence number no other add has used, reserving a new block
+	 *         for this thread when its current one runs out.
+	 */
+	private static long nextSequence() {
+		long[] block = sequenceBlock.get();
+		if (block[0] == block[1]) {
+			block[0] = nextBlock.getAndAdd(SEQUENCE_BLOCK);
+			block[1] = block[0] + SEQUENCE_BLOCK;
+		}
+		return block[0]++;
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+}
@@ -0,0 +1,236 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testing the concurrent priority queue for soundness, alone and under
+ * contention.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class SkipListPriorityQueueTest {
+
+	private static final int THREADS = 8;
+	private static final int PER_THREAD = 20000;
+
+	private SkipListPriorityQueue<Integer> queue;
+
+	/**
+	 * Creates the same simple queue used by HeapTest.
+	 */
+	@Before
+	public void createSimpleQueue() {
+		queue = new SkipListPriorityQueue<>();
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			queue.add(value);
+		}
+	}
+
+	/**
+	 * Single threaded behavior matches Heap.
+	 */
+	@Test
+	public void test_sequential_behavior() {
+		assertEquals(6, queue.size());
+		assertEquals(1, (int) queue.peek());
+		assertEquals(1, (int) queue.dequeue());
+		assertEquals(3, (int) queue.dequeue());
+
+		// Duplicates are kept.
+		queue.add(5);
+		assertEquals(5, (int) queue.dequeue());
+		assertEquals(5, (int) queue.dequeue());
+		assertEquals(6, (int) queue.dequeue());
+
+		queue.clear();
+		assertEquals(0, queue.size());
+		assertNull(queue.peek());
+		try {
+			queue.dequeue();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * Concurrent producers add disjoint ranges, concurrent consumers dequeue
+	 * them, and every value must be seen exactly once.
+	 */
+	@Test
+	public void test_no_lost_or_duplicated_elements() throws InterruptedException {
+		SkipListPriorityQueue<Integer> shared = new SkipListPriorityQueue<>();
+		AtomicIntegerArray seen = new AtomicIntegerArray(THREADS * PER_THREAD);
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[THREADS * 2];
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int base = thread * PER_THREAD;
+			workers[thread] = new Thread(() -> {
+				awaitQuietly(start);
+				for (int index = 0; index < PER_THREAD; index++) {
+					shared.add(base + index);
+				}
+			});
+			workers[THREADS + thread] = new Thread(() -> {
+				awaitQuietly(start);
+				int taken = 0;
+				while (taken < PER_THREAD) {
+					try {
+						seen.incrementAndGet(shared.dequeue());
+						taken++;
+					} catch (NoSuchElementException e) {
+						// Producers have not caught up yet.
+					}
+				}
+			});
+		}
+
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(0, shared.size());
+		for (int value = 0; value < seen.length(); value++) {
+			assertEquals("value " + value, 1, seen.get(value));
+		}
+	}
+
+	/**
+	 * With all elements present before any consumer starts, each consumer's
+	 * own sequence of dequeued values must be ascending.
+	 */
+	@Test
+	public void test_concurrent_dequeues_are_ordered() throws InterruptedException {
+		SkipListPriorityQueue<Integer> shared = new SkipListPriorityQueue<>();
+		for (int value = THREADS * PER_THREAD - 1; value >= 0; value--) {
+			shared.add(value);
+		}
+
+		boolean[] ordered = new boolean[THREADS];
+		Thread[] workers = new Thread[THREADS];
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int id = thread;
+			workers[thread] = new Thread(() -> {
+				int last = -1;
+				ordered[id] = true;
+				for (int index = 0; index < PER_THREAD; index++) {
+					int next = shared.dequeue();
+					ordered[id] &= next > last;
+					last = next;
+				}
+			});
+			workers[thread].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		for (boolean threadOrdered : ordered) {
+			assertTrue(threadOrdered);
+		}
+	}
+
+	/**
+	 * Items that all compare equal, added concurrently, stay distinct entries,
+	 * and each producer's items dequeue in the order it added them.
+	 */
+	@Test
+	public void test_concurrent_equal_items() throws InterruptedException {
+		SkipListPriorityQueue<Integer> shared = new SkipListPriorityQueue<>((lhs, rhs) -> 0);
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[THREADS];
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int base = thread * PER_THREAD;
+			workers[thread] = new Thread(() -> {
+				awaitQuietly(start);
+				for (int index = 0; index < PER_THREAD; index++) {
+					shared.add(base + index);
+				}
+			});
+			workers[thread].start();
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(THREADS * PER_THREAD, shared.size());
+		int[] next = new int[THREADS];
+		for (int count = 0; count < THREADS * PER_THREAD; count++) {
+			int value = shared.dequeue();
+			int thread = value / PER_THREAD;
+			assertEquals(next[thread]++, value % PER_THREAD);
+		}
+		assertEquals(0, shared.size());
+	}
+
+	/**
+	 * Concurrent batch dequeues and drains of a shared queue stop cleanly when
+	 * it runs out, and every item is taken exactly once.
+	 */
+	@Test
+	public void test_concurrent_batch_dequeue() throws InterruptedException {
+		final int ITEMS = THREADS * PER_THREAD;
+		SkipListPriorityQueue<Integer> shared = new SkipListPriorityQueue<>();
+		for (int value = 0; value < ITEMS; value++) {
+			shared.add(value);
+		}
+		AtomicIntegerArray seen = new AtomicIntegerArray(ITEMS);
+		AtomicBoolean threw = new AtomicBoolean();
+		Thread[] workers = new Thread[THREADS];
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			final boolean drain = thread % 2 == 0;
+			workers[thread] = new Thread(() -> {
+				Integer[] batch = new Integer[7];
+				try {
+					int taken;
+					do {
+						if (drain) {
+							taken = shared.drainTo(seen::incrementAndGet, batch.length);
+						} else {
+							taken = shared.dequeue(batch.length, batch);
+							for (int index = 0; index < taken; index++) {
+								seen.incrementAndGet(batch[index]);
+							}
+						}
+					} while (taken > 0);
+				} catch (RuntimeException e) {
+					threw.set(true);
+				}
+			});
+			workers[thread].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertFalse(threw.get());
+		assertEquals(0, shared.size());
+		for (int value = 0; value < ITEMS; value++) {
+			assertEquals("value " + value, 1, seen.get(value));
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
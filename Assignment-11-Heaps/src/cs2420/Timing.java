@@ -3,6 +3,7 @@ package cs2420;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Timing experiments for the Heap class
@@ -20,6 +21,9 @@ public class Timing {
 	// Control repetition of tests for accuracy.
 	public static final int TESTS = 100;
 
+	// Heap arities swept by the insert, delete and build experiments.
+	public static final int[] ARITIES = { 2, 4, 8, 16 };
+
 	private enum DataOrder {
 		RANDOM, IN_ORDER, BACK_ORDER;
 	}
@@ -28,8 +32,11 @@ public class Timing {
 	 * Run timing tests on insertion of N values into an empty heap and 1 value
 	 * into a heap with N values. Also track swaps for the each of those
 	 * situations.
+	 * 
+	 * @param arity
+	 *            - number of children per node in the heaps being timed.
 	 */
-	public static void testInserting(DataOrder dataType) {
+	public static void testInserting(DataOrder dataType, int arity) {
 		StringBuilder insertTimes = new StringBuilder();
 		Random generator = new Random();
 
@@ -43,7 +50,7 @@ public class Timing {
 
 			// Timing is done TESTS times and then averaged 
 			for (int test = 0; test < TESTS; test++) {
-				Heap<Integer> heap = new Heap<Integer>();
+				Heap<Integer> heap = new Heap<Integer>(arity);
 				
 				// First time inserting N elements to empty heap.
 				for (int index = 0; index < n; index++) {
@@ -94,14 +101,17 @@ public class Timing {
 		}
 
 		// Write vals to file.
-		sendToFile(insertTimes, "insertTimes" + dataType + ".csv");
+		sendToFile(insertTimes, "insertTimes" + dataType + "_d" + arity + ".csv");
 	}
 
 	/**
 	 * Test performance of dequeuing one element from a N-sized Heap, then
 	 * dequeuing N elements from an N-sized Heap. Also tracks swaps.
+	 * 
+	 * @param arity
+	 *            - number of children per node in the heaps being timed.
 	 */
-	public static void testDeleting() {
+	public static void testDeleting(int arity) {
 		StringBuilder deleteTimes = new StringBuilder();
 		Random generator = new Random();
 
@@ -115,7 +125,7 @@ public class Timing {
 
 			// Timing is done TESTS times and then averaged 
 			for (int test = 0; test < TESTS; test++) {
-				Heap<Integer> heap = new Heap<Integer>();
+				Heap<Integer> heap = new Heap<Integer>(arity);
 				
 				// Create a heap of N random elements
 				for (int index = 0; index < n + 1; index++) {
@@ -156,14 +166,17 @@ public class Timing {
 		}
 
 		// Write vals to file.
-		sendToFile(deleteTimes, "deleteTimes.csv");
+		sendToFile(deleteTimes, "deleteTimes_d" + arity + ".csv");
 	}
 
 	/**
 	 * Run timing tests on build heap from array of N values into an empty heap.
 	 * Also track swaps to build from array.
+	 * 
+	 * @param arity
+	 *            - number of children per node in the heaps being timed.
 	 */
-	public static void testBuildFromArray(DataOrder dataType) {
+	public static void testBuildFromArray(DataOrder dataType, int arity) {
 		StringBuilder buildFromArrayTimes = new StringBuilder();
 		Random generator = new Random();
 
@@ -175,7 +188,7 @@ public class Timing {
 
 			// Timing is done TESTS times and then averaged 
 			for (int test = 0; test < TESTS; test++) {
-				Heap<Integer> heap = new Heap<Integer>();
+				Heap<Integer> heap = new Heap<Integer>(arity);
 				Integer temp[] = new Integer[n];
 
 				// Determine the order of data the array being built from is
@@ -212,7 +225,70 @@ public class Timing {
 		}
 
 		// Write vals to file.
-		sendToFile(buildFromArrayTimes, "buildFromArrayTimes" + dataType + ".csv");
+		sendToFile(buildFromArrayTimes, "buildFromArrayTimes" + dataType + "_d" + arity + ".csv");
+	}
+
+	/**
+	 * Times parallel_build_heap_from_array on pools of 1, 2, 4, ... cores (up
+	 * to the machine's count), one CSV column per core count, next to the
+	 * sequential build_heap_from_array.
+	 */
+	public static void testParallelBuildFromArray(DataOrder dataType) {
+		StringBuilder buildTimes = new StringBuilder();
+		Random generator = new Random();
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		int pools = 32 - Integer.numberOfLeadingZeros(cores);
+		ForkJoinPool[] pool = new ForkJoinPool[pools];
+		for (int p = 0; p < pools; p++) {
+			pool[p] = new ForkJoinPool(1 << p);
+		}
+
+		// Increment through N values.
+		for (int n = START; n <= END; n += INCREMENT) {
+			Integer temp[] = new Integer[n];
+			for (int index = 0; index < n; index++) {
+				switch (dataType) {
+				case RANDOM:
+					temp[index] = generator.nextInt(n);
+					break;
+				case IN_ORDER:
+					temp[index] = index;
+					break;
+				case BACK_ORDER:
+					temp[index] = n - index;
+					break;
+				}
+			}
+
+			long sequentialTime = 0;
+			long[] parallelTime = new long[pools];
+			for (int test = 0; test < TESTS; test++) {
+				long startTime = System.nanoTime();
+				new Heap<Integer>().build_heap_from_array(temp);
+				sequentialTime += (System.nanoTime() - startTime) / TESTS;
+
+				for (int p = 0; p < pools; p++) {
+					startTime = System.nanoTime();
+					new Heap<Integer>().parallel_build_heap_from_array(temp, pool[p]);
+					parallelTime[p] += (System.nanoTime() - startTime) / TESTS;
+				}
+			}
+
+			StringBuilder line = new StringBuilder(n + "," + sequentialTime);
+			for (int p = 0; p < pools; p++) {
+				line.append("," + parallelTime[p]);
+			}
+			buildTimes.append(line + "\n");
+			System.out.println(line);
+		}
+
+		for (ForkJoinPool p : pool) {
+			p.shutdown();
+		}
+
+		// Write vals to file.
+		sendToFile(buildTimes, "parallelBuildTimes" + dataType + ".csv");
 	}
 
 	/**
@@ -265,11 +341,16 @@ public class Timing {
 			System.nanoTime();
 		}
 
-		testInserting(DataOrder.BACK_ORDER);
-		testDeleting();
-		testBuildFromArray(DataOrder.RANDOM);
-		testBuildFromArray(DataOrder.IN_ORDER);
-		testBuildFromArray(DataOrder.BACK_ORDER);
+		for (int arity : ARITIES) {
+			testInserting(DataOrder.BACK_ORDER, arity);
+			testDeleting(arity);
+			testBuildFromArray(DataOrder.RANDOM, arity);
+			testBuildFromArray(DataOrder.IN_ORDER, arity);
+			testBuildFromArray(DataOrder.BACK_ORDER, arity);
+		}
+		testParallelBuildFromArray(DataOrder.RANDOM);
+		testParallelBuildFromArray(DataOrder.IN_ORDER);
+		testParallelBuildFromArray(DataOrder.BACK_ORDER);
 		testHeapSort();
 	}
 
@@ -281,7 +362,7 @@ public class Timing {
 	 * @param filename
 	 *            - the name of the file to write to.
 	 */
-	private static void sendToFile(StringBuilder fileData, String filename) {
+	static void sendToFile(StringBuilder fileData, String filename) {
 		try {
 			FileWriter csvWriter = new FileWriter(filename);
 			csvWriter.write(fileData.toString());
@@ -0,0 +1,407 @@
+package cs2420;
+
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Schedules generically-typed tasks to fire at integer tick deadlines, built
+ * for many timeouts that are mostly cancelled before they fire.
+ *
+ * Near deadlines live in a hierarchical timing wheel: levels of 2^slotBits
+ * slots each, where a slot at level l spans 2^(slotBits*l) ticks. A timer is
+ * filed at the lowest level whose slot separates its deadline from the
+ * current time, in a doubly-linked slot list, so schedule and cancel take
+ * constant time. As time advances, each level's slot is cascaded into the
+ * levels below when the clock enters its span, and every timer in the current
+ * level-0 slot fires. Deadlines beyond the top level wait in a Heap ordered
+ * by deadline and move into the wheel once they are in range; cancelling one
+ * of those just marks it, and it is dropped when it reaches the top of the
+ * heap or when cancelled timers make up most of the heap.
+ *
+ * Time is virtual: it moves only when advanceTo is called, which makes tests
+ * deterministic. Give the constructor a clock (e.g., milliseconds since
+ * start) to drive it from real time with advance(). Instances are not
+ * thread-safe.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class TimingWheel<Type> {
+
+	/**
+	 * A scheduled task, returned by schedule as a handle for cancel.
+	 */
+	public static final class Timer<Type> {
+		private static final int WHEEL = 0, OVERFLOW = 1, DONE = 2;
+
+		private final Type value;
+		private final long deadline;
+		private Timer<Type> prev;
+		private Timer<Type> next;
+		private int level;
+		private int slot;
+		private int state;
+
+		private Timer(Type value, long deadline) {
+			this.value = value;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * @return the scheduled task.
+		 */
+		public Type get() {
+			return value;
+		}
+
+		/**
+		 * @return the tick at which the task fires.
+		 */
+		public long getDeadline() {
+			return deadline;
+		}
+
+		/**
+		 * @return true until the task fires or is cancelled.
+		 */
+		public boolean isPending() {
+			return state != DONE;
+		}
+	}
+
+	private final int slotBits;
+	private final int levels;
+	private final int mask;
+
+	/**
+	 * Head of each slot's timer list, by level then slot.
+	 */
+	private final Timer<Type>[][] slots;
+
+	/**
+	 * Timers filed at each level, so advanceTo can skip empty levels.
+	 */
+	private final int[] levelCounts;
+
+	/**
+	 * Timers too far out for the wheel, ordered by deadline.
+	 */
+	private final Heap<Timer<Type>> overflow = new Heap<>((lhs, rhs) -> Long.compare(lhs.deadline, rhs.deadline));
+
+	/**
+	 * Cancelled timers still in the overflow heap.
+	 */
+	private int cancelledOverflow;
+
+	private final LongSupplier clock;
+
+	/**
+	 * The current tick; every timer with an earlier or equal deadline has
+	 * fired.
+	 */
+	private long now;
+
+	/**
+	 * Pending timers, in the wheel or the overflow heap.
+	 */
+	private int size;
+
+	/**
+	 * Constructs a virtual-time wheel starting at tick 0.
+	 *
+	 * @param slotBits
+	 *            - log2 of the slots per level, e.g. 8 for 256.
+	 * @param levels
+	 *            - wheel levels; deadlines 2^(slotBits*levels) or more ticks
+	 *            away wait in the overflow heap.
+	 * @throws IllegalArgumentException
+	 *             if slotBits or levels is not positive, or the wheel spans
+	 *             more than 2^62 ticks.
+	 */
+	public TimingWheel(int slotBits, int levels) {
+		this(slotBits, levels, null);
+	}
+
+	/**
+	 * Constructs a wheel driven by clock, starting at its current tick.
+	 *
+	 * @param clock
+	 *            - returns the current tick, never decreasing; null for
+	 *            virtual time starting at 0.
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(int slotBits, int levels, LongSupplier clock) {
+		if (slotBits < 1 || levels < 1 || slotBits * levels > 62) {
+			throw new IllegalArgumentException("Invalid wheel of " + levels + " levels of 2^" + slotBits + " slots");
+		}
+		this.slotBits = slotBits;
+		this.levels = levels;
+		mask = (1 << slotBits) - 1;
+		slots = (Timer<Type>[][]) new Timer<?>[levels][1 << slotBits];
+		levelCounts = new int[levels];
+		this.clock = clock;
+		now = clock == null ? 0 : clock.getAsLong();
+	}
+
+	/**
+	 * Schedules value to fire delay ticks from now. (Runs in constant time, or
+	 * logarithmic time for deadlines beyond the wheel.) Delays past the end of
+	 * time are clamped to Long.MAX_VALUE.
+	 *
+	 * @return a handle for cancel.
+	 */
+	public Timer<Type> schedule(Type value, long delay) {
+		long deadline = now + Math.max(0, delay);
+		// A non-negative delay can only overflow to below now.
+		return scheduleAt(value, deadline < now ? Long.MAX_VALUE : deadline);
+	}
+
+	/**
+	 * Schedules value to fire at the given tick; deadlines not after the
+	 * current tick fire on the next advance.
+	 *
+	 * @return a handle for cancel.
+	 */
+	public Timer<Type> scheduleAt(Type value, long deadline) {
+		Timer<Type> timer = new Timer<>(value, Math.max(deadline, now + 1));
+		file(timer);
+		size++;
+		return timer;
+	}
+
+	/**
+	 * Cancels a pending timer. (Runs in constant time.)
+	 *
+	 * @return true if it was pending, false if it already fired or was
+	 *         cancelled.
+	 */
+	public boolean cancel(Timer<Type> timer) {
+		if (timer.state == Timer.DONE) {
+			return false;
+		}
+		if (timer.state == Timer.WHEEL) {
+			unlink(timer);
+		} else {
+			cancelledOverflow++;
+		}
+		timer.state = Timer.DONE;
+		size--;
+		if (cancelledOverflow > 64 && cancelledOverflow > overflow.size() / 2) {
+			compactOverflow();
+		}
+		return true;
+	}
+
+	/**
+	 * Advances to the clock's current tick; see advanceTo.
+	 *
+	 * @throws IllegalStateException
+	 *             if this wheel has no clock.
+	 */
+	public int advance(Consumer<? super Type> action) {
+		if (clock == null) {
+			throw new IllegalStateException("Virtual-time wheel: use advanceTo");
+		}
+		return advanceTo(clock.getAsLong(), action);
+	}
+
+	/**
+	 * Moves time forward to tick time, passing every task due by then to
+	 * action, in deadline order across ticks (tasks due on the same tick in no
+	 * particular order). Earlier times are ignored. Stretches of ticks with
+	 * nothing to fire or cascade are skipped.
+	 *
+	 * @return the number of tasks fired.
+	 */
+	public int advanceTo(long time, Consumer<? super Type> action) {
+		int fired = 0;
+		while (now < time) {
+			if (size == 0) {
+				now = time;
+				break;
+			}
+
+			// Nothing happens below the lowest occupied level until the clock
+			// reaches the start of its next slot. With the wheel empty, nothing
+			// happens until the block of the earliest overflow deadline.
+			int lowest = 0;
+			while (lowest < levels && levelCounts[lowest] == 0) {
+				lowest++;
+			}
+			if (lowest > 0) {
+				long beforeBoundary = now | ((1L << (slotBits * lowest)) - 1);
+				if (lowest == levels) {
+					dropCancelledOverflow();
+					int span = slotBits * levels;
+					beforeBoundary = Math.max(beforeBoundary, (overflow.peek().deadline >>> span << span) - 1);
+				}
+				if (beforeBoundary >= time) {
+					now = time;
+					break;
+				}
+				now = beforeBoundary;
+			}
+
+			now++;
+			cascade();
+
+			// Fire the whole level-0 slot as one batch.
+			int slot = (int) now & mask;
+			Timer<Type> timer = slots[0][slot];
+			slots[0][slot] = null;
+			while (timer != null) {
+				Timer<Type> next = timer.next;
+				timer.prev = timer.next = null;
+				timer.state = Timer.DONE;
+				levelCounts[0]--;
+				size--;
+				fired++;
+				action.accept(timer.value);
+				timer = next;
+			}
+		}
+		return fired;
+	}
+
+	/**
+	 * @return the current tick.
+	 */
+	public long getTime() {
+		return now;
+	}
+
+	/**
+	 * @return the earliest pending deadline.
+	 * @throws NoSuchElementException
+	 *             if nothing is pending.
+	 */
+	public long nextDeadline() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		// The lowest non-empty slot of the lowest non-empty level holds it.
+		for (int level = 0; level < levels; level++) {
+			int current = (int) (now >>> (slotBits * level)) & mask;
+			for (int offset = 0; offset <= mask; offset++) {
+				Timer<Type> timer = slots[level][(current + offset) & mask];
+				if (timer != null) {
+					long min = Long.MAX_VALUE;
+					for (; timer != null; timer = timer.next) {
+						min = Math.min(min, timer.deadline);
+					}
+					return min;
+				}
+			}
+		}
+		dropCancelledOverflow();
+		return overflow.peek().deadline;
+	}
+
+	/**
+	 * Returns the number of pending timers.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Moves timers into lower levels as the clock enters their slot's span,
+	 * top level first so they can fall more than one level in a tick.
+	 */
+	private void cascade() {
+		int top = 0;
+		while (top < levels && (now & ((1L << (slotBits * (top + 1))) - 1)) == 0) {
+			top++;
+		}
+		if (top == levels) {
+			long block = now >>> (slotBits * levels);
+			dropCancelledOverflow();
+			while (overflow.size() > 0 && overflow.peek().deadline >>> (slotBits * levels) == block) {
+				file(overflow.dequeue());
+				dropCancelledOverflow();
+			}
+			top = levels - 1;
+		}
+		for (int level = top; level >= 1; level--) {
+			int slot = (int) (now >>> (slotBits * level)) & mask;
+			Timer<Type> timer = slots[level][slot];
+			slots[level][slot] = null;
+			while (timer != null) {
+				Timer<Type> next = timer.next;
+				timer.prev = timer.next = null;
+				levelCounts[level]--;
+				file(timer);
+				timer = next;
+			}
+		}
+	}
+
+	/**
+	 * Files a timer at the lowest level whose slot separates its deadline from
+	 * now, or in the overflow heap.
+	 */
+	private void file(Timer<Type> timer) {
+		long difference = timer.deadline ^ now;
+		int level = difference == 0 ? 0 : (63 - Long.numberOfLeadingZeros(difference)) / slotBits;
+		if (level >= levels) {
+			timer.state = Timer.OVERFLOW;
+			overflow.add(timer);
+			return;
+		}
+		int slot = (int) (timer.deadline >>> (slotBits * level)) & mask;
+		timer.state = Timer.WHEEL;
+		timer.level = level;
+		timer.slot = slot;
+		timer.prev = null;
+		timer.next = slots[level][slot];
+		if (timer.next != null) {
+			timer.next.prev = timer;
+		}
+		slots[level][slot] = timer;
+		levelCounts[level]++;
+	}
+
+	/**
+	 * Removes a timer from its slot list.
+	 */
+	private void unlink(Timer<Type> timer) {
+		if (timer.prev == null) {
+			slots[timer.level][timer.slot] = timer.next;
+		} else {
+			timer.prev.next = timer.next;
+		}
+		if (timer.next != null) {
+			timer.next.prev = timer.prev;
+		}
+		timer.prev = timer.next = null;
+		levelCounts[timer.level]--;
+	}
+
+	/**
+	 * Pops cancelled timers off the top of the overflow heap.
+	 */
+	private void dropCancelledOverflow() {
+		while (overflow.size() > 0 && overflow.peek().state == Timer.DONE) {
+			overflow.dequeue();
+			cancelledOverflow--;
+		}
+	}
+
+	/**
+	 * Rebuilds the overflow heap without its cancelled timers, once they make
+	 * up most of it.
+	 */
+	@SuppressWarnings("unchecked")
+	private void compactOverflow() {
+		Timer<Type>[] live = (Timer<Type>[]) new Timer<?>[overflow.size() - cancelledOverflow];
+		int count = 0;
+		for (Object timer : overflow.toArray()) {
+			if (timer != null && ((Timer<Type>) timer).state != Timer.DONE) {
+				live[count++] = (Timer<Type>) timer;
+			}
+		}
+		overflow.build_heap_from_array(live);
+		cancelledOverflow = 0;
+	}
+
+}
@@ -0,0 +1,161 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import cs2420.TimingWheel.Timer;
+
+/**
+ * Testing TimingWheel on virtual time against a brute-force timer list.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class TimingWheelTest {
+
+	/**
+	 * Random schedules, cancels and advances on a tiny wheel (so cascades and
+	 * the overflow heap are exercised) fire exactly the due, uncancelled
+	 * timers, in deadline order.
+	 */
+	@Test
+	public void test_random_against_brute_force() {
+		Random generator = new Random();
+		for (int[] shape : new int[][] { { 2, 2 }, { 3, 3 }, { 8, 4 } }) {
+			TimingWheel<Timer<?>[]> wheel = new TimingWheel<>(shape[0], shape[1]);
+			List<Timer<Timer<?>[]>> pending = new ArrayList<>();
+
+			for (int step = 0; step < 20000; step++) {
+				int operation = generator.nextInt(10);
+				if (operation < 5) {
+					long delay = generator.nextBoolean() ? generator.nextInt(20) : generator.nextInt(5000);
+					// Each timer's value holds a reference to its own handle.
+					Timer<?>[] self = new Timer<?>[1];
+					Timer<Timer<?>[]> timer = wheel.schedule(self, delay);
+					self[0] = timer;
+					pending.add(timer);
+				} else if (operation < 8 && !pending.isEmpty()) {
+					Timer<Timer<?>[]> timer = pending.remove(generator.nextInt(pending.size()));
+					assertTrue(wheel.cancel(timer));
+					assertFalse(wheel.cancel(timer));
+				} else {
+					long time = wheel.getTime() + generator.nextInt(generator.nextBoolean() ? 10 : 2000);
+					List<Timer<?>> fired = new ArrayList<>();
+					wheel.advanceTo(time, self -> fired.add(self[0]));
+					long previous = Long.MIN_VALUE;
+					for (Timer<?> timer : fired) {
+						assertTrue(timer.getDeadline() <= time);
+						assertTrue(timer.getDeadline() >= previous);
+						assertFalse(timer.isPending());
+						previous = timer.getDeadline();
+					}
+					pending.removeIf(timer -> !timer.isPending());
+					for (Timer<Timer<?>[]> timer : pending) {
+						assertTrue(timer.getDeadline() > time);
+					}
+				}
+				assertEquals(pending.size(), wheel.size());
+				if (!pending.isEmpty()) {
+					long min = Long.MAX_VALUE;
+					for (Timer<Timer<?>[]> timer : pending) {
+						min = Math.min(min, timer.getDeadline());
+					}
+					assertEquals(min, wheel.nextDeadline());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Past deadlines fire on the next tick, and an empty wheel has no next
+	 * deadline.
+	 */
+	@Test
+	public void test_past_deadlines_and_empty() {
+		TimingWheel<String> wheel = new TimingWheel<>(4, 2);
+		wheel.advanceTo(100, task -> fail());
+		Timer<String> late = wheel.scheduleAt("late", 50);
+		assertEquals(101, late.getDeadline());
+
+		List<String> fired = new ArrayList<>();
+		assertEquals(1, wheel.advanceTo(101, fired::add));
+		assertEquals(List.of("late"), fired);
+
+		try {
+			wheel.nextDeadline();
+			fail("Should have thrown NoSuchElementException");
+		} catch (NoSuchElementException e) {
+			// Test passes.
+		}
+	}
+
+	/**
+	 * A delay that would overflow the deadline is clamped to Long.MAX_VALUE
+	 * rather than wrapping around to the next tick.
+	 */
+	@Test
+	public void test_huge_delay() {
+		TimingWheel<String> wheel = new TimingWheel<>(4, 2);
+		wheel.advanceTo(100, task -> fail());
+		Timer<String> never = wheel.schedule("never", Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, never.getDeadline());
+		assertEquals(Long.MAX_VALUE, wheel.nextDeadline());
+
+		assertEquals(0, wheel.advanceTo(Long.MAX_VALUE - 1, task -> fail()));
+		assertTrue(never.isPending());
+		assertEquals(1, wheel.size());
+	}
+
+	/**
+	 * With only far overflow timers pending, advancing jumps straight to their
+	 * block instead of stepping through every empty block in between (this
+	 * would take 2^36 steps on a 16-tick wheel).
+	 */
+	@Test
+	public void test_far_overflow_jump() {
+		TimingWheel<String> wheel = new TimingWheel<>(2, 2);
+		Timer<String> cancelled = wheel.schedule("cancelled", 1L << 39);
+		wheel.schedule("far", 1L << 40);
+		wheel.schedule("farther", (1L << 40) + 5);
+		wheel.cancel(cancelled);
+
+		List<String> fired = new ArrayList<>();
+		assertEquals(0, wheel.advanceTo((1L << 40) - 1, fired::add));
+		assertEquals(1, wheel.advanceTo(1L << 40, fired::add));
+		assertEquals(1, wheel.advanceTo(Long.MAX_VALUE - 1, fired::add));
+		assertEquals(List.of("far", "farther"), fired);
+		assertEquals(Long.MAX_VALUE - 1, wheel.getTime());
+	}
+
+	/**
+	 * A wheel can follow a clock instead of virtual time.
+	 */
+	@Test
+	public void test_clock() {
+		AtomicLong clock = new AtomicLong(1000);
+		TimingWheel<String> wheel = new TimingWheel<>(6, 3, clock::get);
+		wheel.schedule("a", 10);
+		wheel.schedule("b", 1_000_000);
+
+		List<String> fired = new ArrayList<>();
+		clock.set(1010);
+		assertEquals(1, wheel.advance(fired::add));
+		clock.set(1_001_000);
+		assertEquals(1, wheel.advance(fired::add));
+		assertEquals(List.of("a", "b"), fired);
+
+		try {
+			new TimingWheel<String>(6, 3).advance(fired::add);
+			fail("Should have thrown IllegalStateException");
+		} catch (IllegalStateException e) {
+			// Test passes.
+		}
+	}
+
+}
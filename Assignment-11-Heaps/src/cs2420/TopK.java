@@ -0,0 +1,189 @@
+package cs2420;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Keeps the K largest items seen so far, in O(K) memory regardless of how
+ * many items are offered.
+ *
+ * The items are held in a Heap of capacity K ordered smallest first, so the
+ * root is the weakest item kept. A new item only enters if it beats the root,
+ * and then replaces it with a single percolateDown (Heap.replace).
+ *
+ * collector() adapts this to java.util.stream. Each thread of a parallel
+ * stream fills its own TopK and the partial results are merged. Instances
+ * are not thread-safe.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class TopK<Type> {
+
+	/**
+	 * The kept items, weakest at the root.
+	 */
+	private final Heap<Type> heap;
+
+	/**
+	 * How many items to keep.
+	 */
+	private final int k;
+
+	/**
+	 * Ordering of items, or null for natural ordering.
+	 */
+	private final Comparator<? super Type> comparator;
+
+	/**
+	 * Keeps the k largest items by natural ordering.
+	 */
+	public TopK(int k) {
+		this(k, null);
+	}
+
+	/**
+	 * Keeps the k largest items by comparator. Pass a reversed comparator to
+	 * keep the k smallest.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if k is negative.
+	 */
+	public TopK(int k, Comparator<? super Type> c) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must not be negative: " + k);
+		}
+		this.k = k;
+		this.comparator = c;
+		heap = new Heap<>(c);
+	}
+
+	/**
+	 * Considers x for the top K. (Runs in logarithmic time in K, constant when
+	 * x is rejected.)
+	 *
+	 * @return true if x is now among the kept items.
+	 */
+	public boolean offer(Type x) {
+		if (heap.size() < k) {
+			heap.add(x);
+			return true;
+		}
+		if (k == 0 || compare(x, heap.peek()) <= 0) {
+			return false;
+		}
+		heap.replace(x);
+		return true;
+	}
+
+	/**
+	 * Offers every item kept by other to this TopK.
+	 *
+	 * @return this, for use as a Collector combiner.
+	 */
+	public TopK<Type> merge(TopK<Type> other) {
+		for (Object item : other.heap.toArray()) {
+			if (item != null) {
+				@SuppressWarnings("unchecked")
+				Type typed = (Type) item;
+				offer(typed);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @return the weakest kept item (the K-th largest once K items have been
+	 *         offered), or null if none.
+	 */
+	public Type peek() {
+		return heap.peek();
+	}
+
+	/**
+	 * @return the number of items kept, at most K.
+	 */
+	public int size() {
+		return heap.size();
+	}
+
+	/**
+	 * @return the kept items, largest first. This TopK is unchanged.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Type> toList() {
+		List<Type> result = new ArrayList<>(heap.size());
+		for (Object item : heap.toArray()) {
+			if (item != null) {
+				result.add((Type) item);
+			}
+		}
+		Comparator<? super Type> order = comparator != null ? comparator
+				: (lhs, rhs) -> ((Comparable<? super Type>) lhs).compareTo(rhs);
+		result.sort(Collections.reverseOrder(order));
+		return result;
+	}
+
+	/**
+	 * @return a Collector producing the k largest elements by natural
+	 *         ordering, largest first.
+	 */
+	public static <Type extends Comparable<? super Type>> Collector<Type, TopK<Type>, List<Type>> collector(int k) {
+		return collector(k, null);
+	}
+
+	/**
+	 * @return a Collector producing the k largest elements by comparator,
+	 *         largest first. Works with parallel streams.
+	 */
+	public static <Type> Collector<Type, TopK<Type>, List<Type>> collector(int k, Comparator<? super Type> c) {
+		return new Collector<Type, TopK<Type>, List<Type>>() {
+			@Override
+			public Supplier<TopK<Type>> supplier() {
+				return () -> new TopK<>(k, c);
+			}
+
+			@Override
+			public BiConsumer<TopK<Type>, Type> accumulator() {
+				return TopK::offer;
+			}
+
+			@Override
+			public BinaryOperator<TopK<Type>> combiner() {
+				return TopK::merge;
+			}
+
+			@Override
+			public Function<TopK<Type>, List<Type>> finisher() {
+				return TopK::toList;
+			}
+
+			@Override
+			public Set<Characteristics> characteristics() {
+				return EnumSet.of(Characteristics.UNORDERED);
+			}
+		};
+	}
+
+	/**
+	 * Internal method for comparing lhs and rhs using Comparator if provided by
+	 * the user at construction time, or Comparable, if no Comparator was
+	 * provided.
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Type lhs, Type rhs) {
+		if (comparator == null) {
+			return ((Comparable<? super Type>) lhs).compareTo(rhs);
+		}
+		return comparator.compare(lhs, rhs);
+	}
+
+}
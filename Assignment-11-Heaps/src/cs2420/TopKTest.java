@@ -0,0 +1,72 @@
+package cs2420;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Testing the bounded top-K heap and its stream Collector.
+ *
+ * @author Roman Clark and Mark Van der Merwe
+ */
+public class TopKTest {
+
+	/**
+	 * Only the K largest items are kept.
+	 */
+	@Test
+	public void test_offer() {
+		TopK<Integer> top = new TopK<>(3);
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			top.offer(value);
+		}
+		assertEquals(3, top.size());
+		assertEquals(6, (int) top.peek());
+		assertEquals(Arrays.asList(8, 7, 6), top.toList());
+
+		assertFalse(top.offer(2));
+		assertTrue(top.offer(10));
+		assertEquals(Arrays.asList(10, 8, 7), top.toList());
+	}
+
+	/**
+	 * A reversed comparator keeps the K smallest, and K of 0 keeps nothing.
+	 */
+	@Test
+	public void test_comparator_and_empty() {
+		TopK<Integer> smallest = new TopK<>(2, Comparator.reverseOrder());
+		for (int value : new int[] { 5, 6, 3, 7, 8, 1 }) {
+			smallest.offer(value);
+		}
+		assertEquals(Arrays.asList(1, 3), smallest.toList());
+
+		TopK<Integer> none = new TopK<>(0);
+		assertFalse(none.offer(1));
+		assertNull(none.peek());
+		assertEquals(0, none.toList().size());
+	}
+
+	/**
+	 * The collector agrees with sort-then-limit, sequentially and in parallel.
+	 */
+	@Test
+	public void test_collector_matches_sort_then_limit() {
+		Random generator = new Random();
+		List<Integer> data = IntStream.range(0, 100000).map(i -> generator.nextInt(1000000)).boxed()
+				.collect(Collectors.toList());
+
+		List<Integer> expected = data.stream().sorted(Comparator.reverseOrder()).limit(100)
+				.collect(Collectors.toList());
+
+		assertEquals(expected, data.stream().collect(TopK.collector(100)));
+		assertEquals(expected, data.parallelStream().collect(TopK.collector(100)));
+	}
+
+}